@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.api.API;
+import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.config.ServerOptions;
 import com.baidu.hugegraph.metric.MetricsUtil;
@@ -63,11 +64,14 @@ public class BatchAPI extends API {
         }
 
         LOG.debug("The batch writing threads is {}", batchWriteThreads);
+        // Let backend stores commit the batch with the bulk write options
+        boolean bulk = BackendMutation.bulkWrite(true);
         try {
             R result = commit(g, callable);
             this.batchMeter.mark(size);
             return result;
         } finally {
+            BackendMutation.bulkWrite(bulk);
             batchWriteThreads.decrementAndGet();
         }
     }
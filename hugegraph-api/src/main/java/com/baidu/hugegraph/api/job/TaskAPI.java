@@ -37,6 +37,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 
 import org.slf4j.Logger;
@@ -61,6 +63,7 @@ public class TaskAPI extends API {
 
     private static final Logger LOG = Log.logger(RestServer.class);
     private static final long NO_LIMIT = -1L;
+    private static final long MAX_WAIT_TIMEOUT = 60L;
 
     public static final String ACTION_CANCEL = "cancel";
 
@@ -115,13 +118,29 @@ public class TaskAPI extends API {
     @Timed
     @Path("{id}")
     @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public Map<String, Object> get(@Context GraphManager manager,
-                                   @PathParam("graph") String graph,
-                                   @PathParam("id") long id) {
-        LOG.debug("Graph [{}] get task: {}", graph, id);
+    public void get(@Context GraphManager manager,
+                    @PathParam("graph") String graph,
+                    @PathParam("id") long id,
+                    @QueryParam("timeout") @DefaultValue("0") long timeout,
+                    @Suspended AsyncResponse response) {
+        LOG.debug("Graph [{}] get task: {}, timeout {}", graph, id, timeout);
+        E.checkArgument(timeout >= 0L && timeout <= MAX_WAIT_TIMEOUT,
+                        "The timeout must be in [0, %s] seconds, " +
+                        "but got %s", MAX_WAIT_TIMEOUT, timeout);
 
         TaskScheduler scheduler = graph(manager, graph).taskScheduler();
-        return scheduler.task(IdGenerator.of(id)).asMap();
+        /*
+         * Long polling: respond once the task is completed or timeout, the
+         * request thread is released rather than blocked while waiting
+         */
+        scheduler.waitUntilTaskCompletedAsync(IdGenerator.of(id), timeout)
+                 .whenComplete((task, e) -> {
+                     if (e != null) {
+                         response.resume(e);
+                     } else {
+                         response.resume(task.asMap());
+                     }
+                 });
     }
 
     @DELETE
@@ -161,7 +180,8 @@ public class TaskAPI extends API {
             throw new BadRequestException(String.format(
                       "Can't cancel task '%s' which is completed", id));
         }
-        return ImmutableMap.of("cancelled", task.isCancelled());
+        return ImmutableMap.of("cancelled",
+                               task.status() == TaskStatus.CANCELLED);
     }
 
     private static TaskStatus parseStatus(String status) {
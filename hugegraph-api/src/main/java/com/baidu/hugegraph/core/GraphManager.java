@@ -246,6 +246,15 @@ public final class GraphManager {
         MetricsUtil.registerGauge(TaskManager.class, "pending-tasks", () -> {
             return TaskManager.instance().pendingTasks();
         });
+        MetricsUtil.registerGauge(TaskManager.class, "running-tasks", () -> {
+            return TaskManager.instance().runningTasks();
+        });
+        MetricsUtil.registerGauge(TaskManager.class, "queued-tasks", () -> {
+            return TaskManager.instance().queuedTasks();
+        });
+        MetricsUtil.registerGauge(TaskManager.class, "avg-waited-time", () -> {
+            return TaskManager.instance().averageWaitedTime();
+        });
     }
 
     private static void registerCacheMetrics(Map<String, Cache> caches) {
@@ -20,6 +20,7 @@
 package com.baidu.hugegraph.backend.store.cassandra;
 
 import java.util.Iterator;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 
 import com.baidu.hugegraph.backend.query.Query;
@@ -35,19 +36,40 @@ public class CassandraEntryIterator extends BackendEntryIterator {
     private final ResultSet results;
     private final Iterator<Row> rows;
     private final BiFunction<BackendEntry, Row, BackendEntry> merger;
+    private final BiConsumer<Long, PagingState> pageListener;
 
     private long remaining;
+    private long position;
     private BackendEntry next;
 
     public CassandraEntryIterator(ResultSet results, Query query,
            BiFunction<BackendEntry, Row, BackendEntry> merger) {
+        this(results, query, merger, 0L, null);
+    }
+
+    /**
+     * @param skipped the number of rows skipped by the paging state of
+     *        results, which are regarded as part of the offset
+     * @param pageListener called with the position (number of rows from
+     *        zero) and the paging state of each page boundary passed
+     */
+    public CassandraEntryIterator(ResultSet results, Query query,
+           BiFunction<BackendEntry, Row, BackendEntry> merger,
+           long skipped, BiConsumer<Long, PagingState> pageListener) {
         super(query);
         this.results = results;
         this.rows = results.iterator();
         this.remaining = results.getAvailableWithoutFetching();
         this.merger = merger;
+        this.pageListener = pageListener;
+        this.position = skipped;
         this.next = null;
 
+        /*
+         * NOTE: the offset is counted by sub-rows of entries, which is
+         * the same as the number of rows
+         */
+        this.skipped(skipped);
         this.skipOffset();
 
         if (query.paging()) {
@@ -70,11 +92,12 @@ public class CassandraEntryIterator extends BackendEntryIterator {
             this.next = null;
         }
 
-        while (this.remaining > 0 && this.rows.hasNext()) {
+        while (this.remaining > 0 && this.hasNextRow()) {
             if (this.query.paging()) {
                 this.remaining--;
             }
             Row row = this.rows.next();
+            this.position++;
             BackendEntry merged = this.merger.apply(this.current, row);
             if (this.current == null) {
                 // The first time to read
@@ -92,6 +115,20 @@ public class CassandraEntryIterator extends BackendEntryIterator {
         return this.current != null;
     }
 
+    private boolean hasNextRow() {
+        if (this.pageListener != null &&
+            this.results.getAvailableWithoutFetching() == 0 &&
+            !this.results.isFullyFetched()) {
+            // Reach the boundary of a page, the next page will be fetched
+            PagingState page = this.results.getExecutionInfo()
+                                           .getPagingState();
+            if (page != null) {
+                this.pageListener.accept(this.position, page);
+            }
+        }
+        return this.rows.hasNext();
+    }
+
     @Override
     protected final long sizeOf(BackendEntry entry) {
         CassandraBackendEntry e = (CassandraBackendEntry) entry;
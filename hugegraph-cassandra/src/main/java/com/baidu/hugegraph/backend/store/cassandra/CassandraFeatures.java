@@ -38,6 +38,11 @@ public class CassandraFeatures implements BackendFeatures {
         return false;
     }
 
+    @Override
+    public boolean supportsScanInParallel() {
+        return false;
+    }
+
     @Override
     public boolean supportsQuerySchemaByName() {
         // Cassandra support secondary index
@@ -28,7 +28,7 @@ import com.baidu.hugegraph.config.OptionHolder;
 
 public class CassandraOptions extends OptionHolder {
 
-    private CassandraOptions() {
+    protected CassandraOptions() {
         super();
     }
 
@@ -112,6 +112,89 @@ public class CassandraOptions extends OptionHolder {
                     "none"
             );
 
+    public static final ConfigOption<String> CASSANDRA_BATCH_MODE =
+            new ConfigOption<>(
+                    "cassandra.batch_mode",
+                    "The way to commit statements of a transaction: " +
+                    "logged (one LOGGED batch) or unlogged (small UNLOGGED " +
+                    "batches grouped by replicas and sent asynchronously, " +
+                    "which is faster but not atomic).",
+                    allowValues("logged", "unlogged"),
+                    "logged"
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_BATCH_SIZE =
+            new ConfigOption<>(
+                    "cassandra.unlogged_batch_size",
+                    "The max number of statements in an UNLOGGED batch.",
+                    rangeInt(1, 65535),
+                    20
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_MAX_INFLIGHT_BATCHES =
+            new ConfigOption<>(
+                    "cassandra.max_inflight_batches",
+                    "The max number of UNLOGGED batches being executed " +
+                    "concurrently by a session.",
+                    rangeInt(1, 65535),
+                    128
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_WRITE_RETRIES =
+            new ConfigOption<>(
+                    "cassandra.write_retries",
+                    "The max retry times of a failed UNLOGGED batch, only " +
+                    "the batch with idempotent statements will be retried.",
+                    rangeInt(0, 100),
+                    3
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_PREPARED_CACHE_SIZE =
+            new ConfigOption<>(
+                    "cassandra.prepared_statement_cache_size",
+                    "The max number of prepared statements cached by a " +
+                    "store, statements are not prepared if it's 0.",
+                    rangeInt(0, 65535),
+                    1000
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_QUERY_PARALLELISM =
+            new ConfigOption<>(
+                    "cassandra.query_parallelism",
+                    "The max number of sub-queries of a query being executed " +
+                    "concurrently, like the query by multiple ids, " +
+                    "sub-queries are executed one by one if it's 1.",
+                    rangeInt(1, 1024),
+                    16
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_OFFSET_PAGE_SIZE =
+            new ConfigOption<>(
+                    "cassandra.offset_page_size",
+                    "The page size used to skip the offset of a query, the " +
+                    "paging states of passed pages are cached to resume " +
+                    "the query with a deeper offset, the offset is skipped " +
+                    "by reading from zero if it's 0.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_OFFSET_PAGE_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "cassandra.offset_page_cache_capacity",
+                    "The max number of queries whose paging states are cached.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    1000
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_OFFSET_PAGE_CACHE_EXPIRE =
+            new ConfigOption<>(
+                    "cassandra.offset_page_cache_expire",
+                    "The expire time in seconds of cached paging states.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    (60 * 10)
+            );
+
     public static final ConfigOption<Integer> CASSANDRA_JMX_PORT =
             new ConfigOption<>(
                     "cassandra.jmx_port",
@@ -19,37 +19,82 @@
 
 package com.baidu.hugegraph.backend.store.cassandra;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.cache.CacheManager;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
 import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.Cluster.Builder;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.Configuration;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PagingState;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ProtocolOptions.Compression;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.SocketOptions;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TimestampGenerator;
+import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.querybuilder.BuiltStatement;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 
 public class CassandraSessionPool extends BackendSessionPool {
 
+    private static final Logger LOG = Log.logger(CassandraSessionPool.class);
+
     private static final int SECOND = 1000;
 
     private Cluster cluster;
     private String keyspace;
+    private String store;
+
+    private boolean unloggedBatch;
+    private int batchSize;
+    private int maxInflightBatches;
+    private int writeRetries;
+
+    private int preparedCacheSize;
+    private int queryParallelism;
+    private int offsetPageSize;
+    private Cache offsetPages;
+    private final Map<String, PreparedStatement> preparedStatements;
 
     public CassandraSessionPool(String keyspace, String store) {
         super(keyspace + "/" + store);
         this.cluster = null;
         this.keyspace = keyspace;
+        this.store = store;
+        this.preparedStatements = new ConcurrentHashMap<>();
+        this.offsetPages = null;
     }
 
     @Override
@@ -89,6 +134,40 @@ public class CassandraSessionPool extends BackendSessionPool {
         String compression = config.get(CassandraOptions.CASSANDRA_COMPRESSION);
         builder.withCompression(Compression.valueOf(compression.toUpperCase()));
 
+        // Batch options
+        String batchMode = config.get(CassandraOptions.CASSANDRA_BATCH_MODE);
+        this.unloggedBatch = batchMode.equals("unlogged");
+        this.batchSize = config.get(CassandraOptions.CASSANDRA_BATCH_SIZE);
+        this.maxInflightBatches = config.get(
+                                  CassandraOptions.CASSANDRA_MAX_INFLIGHT_BATCHES);
+        this.writeRetries = config.get(CassandraOptions.CASSANDRA_WRITE_RETRIES);
+
+        // Prepared statement options
+        this.preparedCacheSize = config.get(
+                                 CassandraOptions.CASSANDRA_PREPARED_CACHE_SIZE);
+        this.preparedStatements.clear();
+
+        // Query options
+        this.queryParallelism = config.get(
+                                CassandraOptions.CASSANDRA_QUERY_PARALLELISM);
+        this.offsetPageSize = config.get(
+                              CassandraOptions.CASSANDRA_OFFSET_PAGE_SIZE);
+        if (this.offsetPageSize > 0) {
+            int capacity = config.get(
+                           CassandraOptions.CASSANDRA_OFFSET_PAGE_CACHE_CAPACITY);
+            int expire = config.get(
+                         CassandraOptions.CASSANDRA_OFFSET_PAGE_CACHE_EXPIRE);
+            String name = String.format("cassandra-page-%s/%s",
+                                        this.keyspace, this.store);
+            this.offsetPages = CacheManager.instance().cache(name, capacity);
+            this.offsetPages.expire(expire);
+            this.offsetPages.clear();
+        }
+
+        /*
+         * NOTE: the default load balancing policy is token-aware, requests
+         * are sent to a replica if the routing key of statement is known
+         */
         this.cluster = builder.build();
     }
 
@@ -120,6 +199,26 @@ public class CassandraSessionPool extends BackendSessionPool {
         if (this.cluster != null && !this.cluster.isClosed()) {
             this.cluster.close();
         }
+        this.preparedStatements.clear();
+        if (this.offsetPages != null) {
+            this.offsetPages.clear();
+        }
+    }
+
+    /**
+     * Get the prepared statement of the CQL from cache, prepare it if
+     * not cached yet, return null if the cache is full
+     */
+    private PreparedStatement prepared(com.datastax.driver.core.Session session,
+                                       String cql) {
+        PreparedStatement prepared = this.preparedStatements.get(cql);
+        if (prepared != null) {
+            return prepared;
+        }
+        if (this.preparedStatements.size() >= this.preparedCacheSize) {
+            return null;
+        }
+        return this.preparedStatements.computeIfAbsent(cql, session::prepare);
     }
 
     public final void checkClusterConnected() {
@@ -153,7 +252,7 @@ public class CassandraSessionPool extends BackendSessionPool {
         }
 
         public BatchStatement add(Statement statement) {
-            return this.batch.add(statement);
+            return this.batch.add(this.prepare(statement));
         }
 
         @Override
@@ -161,45 +260,223 @@ public class CassandraSessionPool extends BackendSessionPool {
             this.batch.clear();
         }
 
+        /**
+         * Commit all statements by a LOGGED batch, or by UNLOGGED batches
+         * if `cassandra.batch_mode` is unlogged (return null in this case)
+         */
         @Override
         public ResultSet commit() {
+            if (unloggedBatch) {
+                this.commitAsync();
+                return null;
+            }
             ResultSet rs = this.session.execute(this.batch);
             // Clear batch if execute() successfully (retained if failed)
             this.batch.clear();
             return rs;
         }
 
+        /**
+         * Commit statements by small UNLOGGED batches asynchronously, the
+         * statements in a batch are owned by the same replicas, so that a
+         * batch can be routed to one of its replicas by token-aware policy
+         * instead of being dispatched to other nodes by the coordinator
+         */
         public void commitAsync() {
             Collection<Statement> statements = this.batch.getStatements();
 
-            int count = 0;
-            int processors = Math.min(statements.size(), 1023);
-            List<ResultSetFuture> results = new ArrayList<>(processors + 1);
-            for (Statement s : statements) {
-                ResultSetFuture future = this.session.executeAsync(s);
-                results.add(future);
-
-                if (++count > processors) {
-                    results.forEach(ResultSetFuture::getUninterruptibly);
-                    results.clear();
-                    count = 0;
+            Deque<AsyncBatch> inflight = new ArrayDeque<>();
+            for (List<Statement> group : this.groupByReplicas(statements)) {
+                for (List<Statement> part : Lists.partition(group,
+                                                            batchSize)) {
+                    if (inflight.size() >= maxInflightBatches) {
+                        this.waitOldest(inflight);
+                    }
+                    inflight.add(this.executeAsync(part));
                 }
             }
-            for (ResultSetFuture future : results) {
-                future.getUninterruptibly();
+            while (!inflight.isEmpty()) {
+                this.waitOldest(inflight);
             }
 
             // Clear batch if execute() successfully (retained if failed)
             this.batch.clear();
         }
 
+        private Collection<List<Statement>> groupByReplicas(
+                                            Collection<Statement> statements) {
+            Configuration conf = cluster().getConfiguration();
+            ProtocolVersion version = conf.getProtocolOptions()
+                                          .getProtocolVersion();
+            CodecRegistry codecs = conf.getCodecRegistry();
+            Metadata metadata = this.metadata();
+
+            // Group by replicas, then by partition to keep them together
+            Map<Set<Host>, Map<ByteBuffer, List<Statement>>> replicas =
+                                                     new LinkedHashMap<>();
+            for (Statement statement : statements) {
+                ByteBuffer key = statement.getRoutingKey(version, codecs);
+                Set<Host> hosts = key == null ? ImmutableSet.of() :
+                                  metadata.getReplicas(this.keyspace(), key);
+                replicas.computeIfAbsent(hosts, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(statement);
+            }
+
+            List<List<Statement>> groups = new ArrayList<>(replicas.size());
+            for (Map<ByteBuffer, List<Statement>> partitions :
+                 replicas.values()) {
+                List<Statement> group = new ArrayList<>();
+                for (List<Statement> partition : partitions.values()) {
+                    group.addAll(partition);
+                }
+                groups.add(group);
+            }
+            return groups;
+        }
+
+        private AsyncBatch executeAsync(List<Statement> statements) {
+            Statement statement;
+            if (statements.size() == 1) {
+                statement = statements.get(0);
+            } else {
+                BatchStatement batch = new BatchStatement(
+                                       BatchStatement.Type.UNLOGGED);
+                batch.addAll(statements);
+                statement = batch;
+            }
+            /*
+             * Fix the write timestamp, so that a retried batch won't
+             * overwrite the later writes to the same rows
+             */
+            TimestampGenerator timestamp = cluster().getConfiguration()
+                                                    .getPolicies()
+                                                    .getTimestampGenerator();
+            statement.setDefaultTimestamp(timestamp.next());
+            return new AsyncBatch(statement,
+                                  this.session.executeAsync(statement));
+        }
+
+        private void waitOldest(Deque<AsyncBatch> inflight) {
+            AsyncBatch batch = inflight.poll();
+            try {
+                batch.future.getUninterruptibly();
+            } catch (DriverException e) {
+                Boolean idempotent = batch.statement.isIdempotent();
+                if (idempotent == null || !idempotent ||
+                    batch.retries >= writeRetries) {
+                    throw e;
+                }
+                batch.retries++;
+                LOG.debug("Retry({}) to commit batch due to: {}",
+                          batch.retries, e.getMessage());
+                batch.future = this.session.executeAsync(batch.statement);
+                inflight.add(batch);
+            }
+        }
+
         public ResultSet query(Statement statement) {
+            return this.query(statement, null);
+        }
+
+        public ResultSet query(Statement statement, PagingState page) {
             assert !this.hasChanges();
+            statement = this.prepare(statement);
+            if (page != null) {
+                // NOTE: the paging state must match the final statement
+                statement.setPagingState(page);
+            }
             return this.execute(statement);
         }
 
+        public ResultSetFuture queryAsync(Statement statement) {
+            assert !this.hasChanges();
+            return this.session.executeAsync(this.prepare(statement));
+        }
+
+        public int queryParallelism() {
+            return queryParallelism;
+        }
+
+        public int offsetPageSize() {
+            return offsetPageSize;
+        }
+
+        /**
+         * Get the cached paging state of the statement nearest to the
+         * offset (not after it), return null if not cached
+         */
+        public Map.Entry<Long, PagingState> offsetPage(String statement,
+                                                       long offset) {
+            Id id = IdGenerator.of(statement);
+            @SuppressWarnings("unchecked")
+            NavigableMap<Long, PagingState> pages =
+                    (NavigableMap<Long, PagingState>) offsetPages.get(id);
+            return pages == null ? null : pages.floorEntry(offset);
+        }
+
+        public void offsetPage(String statement, long offset,
+                               PagingState page) {
+            Id id = IdGenerator.of(statement);
+            @SuppressWarnings("unchecked")
+            NavigableMap<Long, PagingState> pages =
+                    (NavigableMap<Long, PagingState>) offsetPages.get(id);
+            if (pages == null) {
+                pages = new ConcurrentSkipListMap<>();
+                offsetPages.updateIfAbsent(id, pages);
+            }
+            pages.put(offset, page);
+        }
+
         public ResultSet execute(Statement statement) {
-            return this.session.execute(statement);
+            return this.session.execute(this.prepare(statement));
+        }
+
+        /**
+         * Convert a built statement with values into a bound statement of
+         * the prepared statement with the same query string, the query
+         * string of a built statement is like a template of its shape
+         * (table, columns, clauses, order and limit), in which the values
+         * are replaced by bind markers. So that a CQL of the same shape is
+         * parsed only once by server rather than every time.
+         */
+        public Statement prepare(Statement statement) {
+            if (!(statement instanceof BuiltStatement) ||
+                preparedCacheSize == 0) {
+                return statement;
+            }
+            BuiltStatement built = (BuiltStatement) statement;
+            Configuration conf = this.session.getCluster().getConfiguration();
+            CodecRegistry codecs = conf.getCodecRegistry();
+            if (!built.hasValues(codecs)) {
+                // Like truncate or select all, no need to prepare
+                return statement;
+            }
+
+            String cql = built.getQueryString(codecs);
+            PreparedStatement prepared = prepared(this.session, cql);
+            if (prepared == null) {
+                return statement;
+            }
+
+            ProtocolVersion version = conf.getProtocolOptions()
+                                          .getProtocolVersion();
+            ByteBuffer[] values = built.getValues(version, codecs);
+            BoundStatement bound = prepared.bind();
+            for (int i = 0; i < values.length; i++) {
+                bound.setBytesUnsafe(i, values[i]);
+            }
+
+            // Keep options of the built statement
+            bound.setFetchSize(built.getFetchSize());
+            bound.setDefaultTimestamp(built.getDefaultTimestamp());
+            if (built.getConsistencyLevel() != null) {
+                bound.setConsistencyLevel(built.getConsistencyLevel());
+            }
+            if (built.isIdempotent() != null) {
+                bound.setIdempotent(built.isIdempotent());
+            }
+            return bound;
         }
 
         public ResultSet execute(String statement) {
@@ -260,4 +537,17 @@ public class CassandraSessionPool extends BackendSessionPool {
             return CassandraSessionPool.this.cluster.getMetadata();
         }
     }
+
+    private static class AsyncBatch {
+
+        private final Statement statement;
+        private ResultSetFuture future;
+        private int retries;
+
+        public AsyncBatch(Statement statement, ResultSetFuture future) {
+            this.statement = statement;
+            this.future = future;
+            this.retries = 0;
+        }
+    }
 }
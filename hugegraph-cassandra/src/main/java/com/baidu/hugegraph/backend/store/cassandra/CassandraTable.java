@@ -41,6 +41,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.Query.Order;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendTable;
+import com.baidu.hugegraph.backend.store.ParallelQueryIterator;
 import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.exception.NotFoundException;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
@@ -51,9 +52,11 @@ import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
 import com.datastax.driver.core.ColumnDefinitions.Definition;
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.PagingState;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.exceptions.PagingStateException;
 import com.datastax.driver.core.querybuilder.Clause;
@@ -104,9 +107,31 @@ public abstract class CassandraTable
         }
 
         List<Select> selections = this.query2Select(this.table(), query);
+        int offsetPageSize = session.offsetPageSize();
+        if (selections.size() == 1 && query.offset() > 0 &&
+            query.page() == null && offsetPageSize > 0) {
+            // Skip offset by paging state instead of reading from zero
+            return this.queryByOffsetPage(session, query, selections.get(0),
+                                          offsetPageSize);
+        }
+        for (Select selection : selections) {
+            setLimit(selection, query);
+        }
+
+        int parallelism = session.queryParallelism();
+        if (selections.size() > 1 && parallelism > 1 &&
+            query.page() == null) {
+            // Execute the selections asynchronously, results are in order
+            LOG.debug("Query {} by {} selections in parallel",
+                      query, selections.size());
+            return new ParallelQueryIterator<>(
+                       selections, parallelism, session::queryAsync,
+                       results -> this.results2Entries(query, results));
+        }
+        PagingState page = pagingState(query);
         try {
             for (Select selection : selections) {
-                ResultSet results = session.query(selection);
+                ResultSet results = session.query(selection, page);
                 rs.extend(this.results2Entries(query, results));
             }
         } catch (DriverException e) {
@@ -117,6 +142,48 @@ public abstract class CassandraTable
         return rs;
     }
 
+    /**
+     * Query with offset by the paging state of the nearest page before the
+     * offset if it has been cached, and cache the paging states of passed
+     * pages, so that the next query with a deep offset can resume from the
+     * cached page rather than reading and discarding rows from zero.
+     * NOTE: the statement is executed without LIMIT, and the size of each
+     * page is fixed, so that the paging states are reusable for any offset.
+     * The offset is approximate if some rows before it have been changed
+     * after the paging state is cached.
+     */
+    protected Iterator<BackendEntry> queryByOffsetPage(
+                                     CassandraSessionPool.Session session,
+                                     Query query, Select select,
+                                     int pageSize) {
+        select.setFetchSize(pageSize);
+        // The CQL with values (without LIMIT) is the key of the paging states
+        String statement = select.toString();
+        Map.Entry<Long, PagingState> start = session.offsetPage(statement,
+                                                                query.offset());
+        long skipped = 0L;
+        PagingState page = null;
+        if (start != null) {
+            skipped = start.getKey();
+            page = start.getValue();
+            LOG.debug("Query {} from cached page at offset {}",
+                      query, skipped);
+        }
+
+        ResultSet results;
+        try {
+            results = session.query(select, page);
+        } catch (DriverException e) {
+            throw new BackendException("Failed to query [%s]", e, query);
+        }
+        return new CassandraEntryIterator(results, query, (e1, row) -> {
+            CassandraBackendEntry e2 = row2Entry(query.resultType(), row);
+            return this.mergeEntries(e1, e2);
+        }, skipped, (offset, state) -> {
+            session.offsetPage(statement, offset, state);
+        });
+    }
+
     protected List<Select> query2Select(String table, Query query) {
         // Set table
         Select select = QueryBuilder.select().from(table);
@@ -127,25 +194,6 @@ public abstract class CassandraTable
                       "currently, it will be replaced by [0, offset + limit)");
         }
 
-        // Set limit
-        if (query.limit() != Query.NO_LIMIT) {
-            long total = query.total();
-            String page = query.page();
-            if (page == null) {
-                select.limit((int) total);
-            } else {
-                select.setFetchSize((int) total);
-                // It's the first time if page is empty
-                if (!page.isEmpty()) {
-                    try {
-                        select.setPagingState(PagingState.fromString(page));
-                    } catch (PagingStateException e) {
-                        throw new BackendException(e.getMessage());
-                    }
-                }
-            }
-        }
-
         // Set order-by
         for (Map.Entry<HugeKeys, Order> order : query.orders().entrySet()) {
             String name = formatKey(order.getKey());
@@ -175,6 +223,32 @@ public abstract class CassandraTable
         }
     }
 
+    protected static void setLimit(Select select, Query query) {
+        if (query.limit() == Query.NO_LIMIT) {
+            return;
+        }
+        long total = query.total();
+        if (query.page() == null) {
+            select.limit((int) total);
+        } else {
+            // The paging state is set after the statement is prepared
+            select.setFetchSize((int) total);
+        }
+    }
+
+    protected static PagingState pagingState(Query query) {
+        String page = query.page();
+        // It's the first time if page is empty
+        if (query.limit() == Query.NO_LIMIT || page == null || page.isEmpty()) {
+            return null;
+        }
+        try {
+            return PagingState.fromString(page);
+        } catch (PagingStateException e) {
+            throw new BackendException(e.getMessage());
+        }
+    }
+
     protected List<Select> queryId2Select(Query query, Select select) {
         // Query by id(s)
         if (query.ids().isEmpty()) {
@@ -323,6 +397,39 @@ public abstract class CassandraTable
         return selects;
     }
 
+    /*
+     * Build statements by table metadata if it's available, so that the
+     * routing key of statements can be computed for token-aware routing
+     */
+    protected static Insert insertInto(CassandraSessionPool.Session session,
+                                       String table) {
+        TableMetadata metadata = tableMetadata(session, table);
+        return metadata != null ? QueryBuilder.insertInto(metadata) :
+                                  QueryBuilder.insertInto(table);
+    }
+
+    protected static Update update(CassandraSessionPool.Session session,
+                                   String table) {
+        TableMetadata metadata = tableMetadata(session, table);
+        return metadata != null ? QueryBuilder.update(metadata) :
+                                  QueryBuilder.update(table);
+    }
+
+    protected static Delete deleteFrom(CassandraSessionPool.Session session,
+                                       String table) {
+        TableMetadata metadata = tableMetadata(session, table);
+        return metadata != null ? QueryBuilder.delete().from(metadata) :
+                                  QueryBuilder.delete().from(table);
+    }
+
+    private static TableMetadata tableMetadata(
+                                 CassandraSessionPool.Session session,
+                                 String table) {
+        KeyspaceMetadata keyspace = session.metadata()
+                                           .getKeyspace(session.keyspace());
+        return keyspace == null ? null : keyspace.getTable(table);
+    }
+
     protected static Select cloneSelect(Select select, String table) {
         // NOTE: there is no Select.clone(), just use copy instead
         return CopyUtil.copy(select, QueryBuilder.select().from(table));
@@ -400,7 +507,7 @@ public abstract class CassandraTable
     public void insert(CassandraSessionPool.Session session,
                        CassandraBackendEntry.Row entry) {
         assert entry.columns().size() > 0;
-        Insert insert = QueryBuilder.insertInto(this.table());
+        Insert insert = insertInto(session, this.table());
 
         for (Map.Entry<HugeKeys, Object> c : entry.columns().entrySet()) {
             insert.value(formatKey(c.getKey()), c.getValue());
@@ -421,7 +528,7 @@ public abstract class CassandraTable
 
         Map<HugeKeys, Object> columns = entry.columns();
 
-        Update update = QueryBuilder.update(table());
+        Update update = update(session, this.table());
 
         for (HugeKeys key : colNames) {
             if (!columns.containsKey(key)) {
@@ -461,7 +568,7 @@ public abstract class CassandraTable
         Map<HugeKeys, Object> columns = entry.columns();
 
         // Update by id
-        Update update = QueryBuilder.update(table());
+        Update update = update(session, this.table());
 
         for (HugeKeys key : colNames) {
             /*
@@ -507,7 +614,7 @@ public abstract class CassandraTable
     public void delete(CassandraSessionPool.Session session,
                        CassandraBackendEntry.Row entry) {
         List<HugeKeys> idNames = this.idColumnName();
-        Delete delete = QueryBuilder.delete().from(this.table());
+        Delete delete = deleteFrom(session, this.table());
 
         if (entry.columns().isEmpty()) {
             // Delete just by id
@@ -266,7 +266,7 @@ public class CassandraTables {
             E.checkState(properties != null,
                          "The properties of inserting vertex can't be null");
 
-            Update update = QueryBuilder.update(table());
+            Update update = update(session, this.table());
             update.with(QueryBuilder.set(formatKey(HugeKeys.LABEL), label));
             update.with(QueryBuilder.putAll(formatKey(HugeKeys.PROPERTIES),
                                             properties));
@@ -414,11 +414,13 @@ public class CassandraTables {
                 Row row = it.next();
                 // Delete OUT edges from edges_out table
                 String ownerVertex = row.get(OWNER_VERTEX, String.class);
-                session.add(buildDelete(label, ownerVertex, Directions.OUT));
+                session.add(this.buildDelete(session, label, ownerVertex,
+                                             Directions.OUT));
 
                 // Delete IN edges from edges_in table
                 String otherVertex = row.get(OTHER_VERTEX, String.class);
-                session.add(buildDelete(label, otherVertex, Directions.IN));
+                session.add(this.buildDelete(session, label, otherVertex,
+                                             Directions.IN));
 
                 count += 2;
                 if (count > COMMIT_DELETE_BATCH - 2) {
@@ -428,9 +430,10 @@ public class CassandraTables {
             }
         }
 
-        private Delete buildDelete(Id label, String ownerVertex,
+        private Delete buildDelete(CassandraSessionPool.Session session,
+                                   Id label, String ownerVertex,
                                    Directions direction) {
-            Delete delete = QueryBuilder.delete().from(edgesTable(direction));
+            Delete delete = deleteFrom(session, edgesTable(direction));
             delete.where(formatEQ(HugeKeys.OWNER_VERTEX, ownerVertex));
             delete.where(formatEQ(HugeKeys.DIRECTION, direction.code()));
             delete.where(formatEQ(HugeKeys.LABEL, label.asLong()));
@@ -560,7 +563,7 @@ public class CassandraTables {
             final String FIELD_VALUES = formatKey(HugeKeys.FIELD_VALUES);
             for (Iterator<Row> it = rs.iterator(); it.hasNext();) {
                 fieldValues = it.next().get(FIELD_VALUES, String.class);
-                Delete delete = QueryBuilder.delete().from(this.table());
+                Delete delete = deleteFrom(session, this.table());
                 delete.where(formatEQ(HugeKeys.INDEX_LABEL_ID, indexLabel));
                 delete.where(formatEQ(HugeKeys.FIELD_VALUES, fieldValues));
                 session.add(delete);
@@ -647,7 +650,7 @@ public class CassandraTables {
                           "needs INDEX_LABEL_ID, but not provided.");
             }
 
-            Delete delete = QueryBuilder.delete().from(this.table());
+            Delete delete = deleteFrom(session, this.table());
             delete.where(formatEQ(HugeKeys.INDEX_LABEL_ID, indexLabel));
             session.add(delete);
         }
@@ -152,6 +152,11 @@ public class CachedBackendStore implements BackendStore {
         }
     }
 
+    @Override
+    public Iterator<BackendEntry> scanInParallel(HugeType type) {
+        return this.store.scanInParallel(type);
+    }
+
     /**
      * Query as an Id for cache
      */
@@ -34,7 +34,9 @@ import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.HugeType;
@@ -70,6 +72,10 @@ public class CachedGraphTransaction extends GraphTransaction {
 
     @Override
     protected Iterator<HugeVertex> queryVerticesFromBackend(Query query) {
+        if (this.inSnapshot()) {
+            // The snapshot may be older than the cache, don't cache it
+            return super.queryVerticesFromBackend(query);
+        }
         if (!query.ids().isEmpty() && query.conditions().isEmpty()) {
             return this.queryVerticesByIds((IdQuery) query);
         } else {
@@ -105,8 +111,8 @@ public class CachedGraphTransaction extends GraphTransaction {
 
     @Override
     protected Iterator<HugeEdge> queryEdgesFromBackend(Query query) {
-        if (query.empty()) {
-            // Query all edges, don't cache it
+        if (query.empty() || this.inSnapshot()) {
+            // Query all edges or query in a snapshot, don't cache it
             return super.queryEdgesFromBackend(query);
         }
 
@@ -152,6 +158,39 @@ public class CachedGraphTransaction extends GraphTransaction {
         }
     }
 
+    @Override
+    public void removeVertices(VertexLabel vertexLabel) {
+        try {
+            super.removeVertices(vertexLabel);
+        } finally {
+            /*
+             * The vertices removed by label are not collected in the tx,
+             * so invalidate the cached vertices of the label here
+             */
+            Id label = vertexLabel.id();
+            List<Id> removed = new ArrayList<>();
+            this.verticesCache.traverse(value -> {
+                HugeVertex vertex = (HugeVertex) value;
+                if (label.equals(vertex.schemaLabel().id())) {
+                    removed.add(vertex.id());
+                }
+            });
+            for (Id id : removed) {
+                this.verticesCache.invalidate(id);
+            }
+        }
+    }
+
+    @Override
+    public void removeEdges(EdgeLabel edgeLabel) {
+        try {
+            super.removeEdges(edgeLabel);
+        } finally {
+            // The edges may be removed by label without collected in the tx
+            this.edgesCache.clear();
+        }
+    }
+
     @Override
     public void removeIndex(IndexLabel indexLabel) {
         try {
@@ -430,6 +430,16 @@ public class BinarySerializer extends AbstractSerializer {
              * TODO: improve
              */
             entry = this.formatILDeletion(index);
+        } else if (index.elementIds().size() == 0) {
+            /*
+             * When elementIds size is 0, it is meaningful for deletion of
+             * index data by index label and field-values, all the elements
+             * of the index are prefixed with the index id
+             */
+            Id id = index.indexLabel();
+            entry = newBackendEntry(index.type(), id);
+            entry.column(formatIndexId(index.type(), id,
+                                       index.fieldValues()).asBytes(), null);
         } else {
             Id id = index.id();
             byte[] value = null;
@@ -132,6 +132,11 @@ public abstract class BackendEntryIterator
         }
     }
 
+    protected final void skipped(long count) {
+        // The items skipped by backend are regarded as fetched
+        this.count += count;
+    }
+
     protected long offset() {
         return this.query.offset();
     }
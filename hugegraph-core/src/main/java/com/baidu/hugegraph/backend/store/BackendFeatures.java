@@ -27,6 +27,8 @@ public interface BackendFeatures {
 
     public boolean supportsScanKeyRange();
 
+    public boolean supportsScanInParallel();
+
     public boolean supportsQuerySchemaByName();
 
     public boolean supportsQueryByLabel();
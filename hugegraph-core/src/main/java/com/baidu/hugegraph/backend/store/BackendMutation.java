@@ -38,6 +38,8 @@ public class BackendMutation {
 
     private final MutationTable updates;
 
+    private static final ThreadLocal<Boolean> bulkContext = new ThreadLocal<>();
+
     public BackendMutation() {
         this.updates = new MutationTable();
     }
@@ -188,6 +190,21 @@ public class BackendMutation {
         return String.format("BackendMutation{mutations=%s}", this.updates);
     }
 
+    /**
+     * Mark the mutations committed by current thread as bulk writes (like
+     * the writes of batch APIs) or not, return the old mark
+     */
+    public static boolean bulkWrite(boolean bulk) {
+        Boolean old = bulkContext.get();
+        bulkContext.set(bulk);
+        return old != null ? old : false;
+    }
+
+    public static boolean bulkWrite() {
+        Boolean bulk = bulkContext.get();
+        return bulk != null ? bulk : false;
+    }
+
     private static class MutationTable {
 
         // Mapping type => id => mutations
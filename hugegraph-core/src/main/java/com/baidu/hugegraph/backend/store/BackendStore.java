@@ -25,6 +25,7 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.E;
 
@@ -56,11 +57,26 @@ public interface BackendStore {
     // Query data
     public Iterator<BackendEntry> query(Query query);
 
+    // Scan all data of a table by shards in parallel
+    public default Iterator<BackendEntry> scanInParallel(HugeType type) {
+        throw new NotSupportException("scan %s in parallel", type);
+    }
+
     // Transaction
     public void beginTx();
     public void commitTx();
     public void rollbackTx();
 
+    // Read a snapshot by the following queries of current thread if support,
+    // return false if the snapshot is not pinned
+    public default boolean beginSnapshot() {
+        return false;
+    }
+
+    public default boolean endSnapshot() {
+        return false;
+    }
+
     // Get metadata by key
     public <R> R metadata(HugeType type, String meta, Object[] args);
 
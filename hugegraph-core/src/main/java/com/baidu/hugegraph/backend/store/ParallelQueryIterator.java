@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Execute multiple sub-queries of a query concurrently and iterate their
+ * results in the order of the sub-queries: at most `parallelism` sub-queries
+ * are running or finished but not consumed yet, the next one is submitted
+ * once the results of the oldest one begin to be consumed.
+ * @param <Q> the type of sub-query, like a CQL or SQL statement
+ * @param <R> the type of results of a sub-query, like a ResultSet
+ * @param <T> the type of elements iterated, like a BackendEntry
+ */
+public class ParallelQueryIterator<Q, R, T> implements Iterator<T>,
+                                                       AutoCloseable {
+
+    private static final Logger LOG = Log.logger(ParallelQueryIterator.class);
+
+    private final Iterator<Q> queries;
+    private final Function<Q, Future<R>> executor;
+    private final Function<R, Iterator<T>> converter;
+    private final int parallelism;
+    private final Deque<Future<R>> futures;
+
+    private Iterator<T> results;
+
+    public ParallelQueryIterator(List<Q> queries, int parallelism,
+                                 Function<Q, Future<R>> executor,
+                                 Function<R, Iterator<T>> converter) {
+        E.checkArgument(parallelism > 0,
+                        "The parallelism must be > 0, but got %s",
+                        parallelism);
+        this.queries = queries.iterator();
+        this.executor = executor;
+        this.converter = converter;
+        this.parallelism = parallelism;
+        this.futures = new ArrayDeque<>(parallelism);
+        this.results = Collections.emptyIterator();
+
+        this.submit();
+    }
+
+    private void submit() {
+        while (this.futures.size() < this.parallelism &&
+               this.queries.hasNext()) {
+            this.futures.add(this.executor.apply(this.queries.next()));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.results.hasNext()) {
+            close(this.results);
+            Future<R> future = this.futures.poll();
+            if (future == null) {
+                return false;
+            }
+            // Keep the window full while consuming the oldest results
+            this.submit();
+            this.results = this.converter.apply(this.await(future));
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.results.next();
+    }
+
+    @Override
+    public void close() {
+        close(this.results);
+        this.results = Collections.emptyIterator();
+        for (Future<R> future : this.futures) {
+            if (!future.cancel(true) && future.isDone()) {
+                // Release the results which will never be consumed
+                try {
+                    close(future.get());
+                } catch (Exception ignored) {
+                    // Failed query has nothing to close
+                }
+            }
+        }
+        this.futures.clear();
+    }
+
+    private R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            this.close();
+            throw new BackendException("Interrupted when querying", e);
+        } catch (ExecutionException e) {
+            this.close();
+            throw new BackendException("Failed to query in parallel",
+                                       e.getCause());
+        }
+    }
+
+    private static void close(Object results) {
+        if (results instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) results).close();
+            } catch (Exception e) {
+                LOG.warn("Failed to close query results", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.serializer.TextBackendEntry;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Scan multiple shards of a table concurrently: each shard is iterated by a
+ * worker thread and all the entries are merged into a bounded queue, which
+ * is consumed by the caller thread through this iterator.
+ * NOTE: the shard iterators are closed after all workers are stopped, and
+ * the caller must close this iterator if it doesn't reach the end.
+ */
+public class ParallelScanIterator implements Iterator<BackendEntry>,
+                                             AutoCloseable {
+
+    private static final Logger LOG = Log.logger(ParallelScanIterator.class);
+
+    private static final String SCAN_WORKER = "parallel-scan-worker-%d";
+
+    private static final int QUEUE_SIZE = 1024;
+    private static final long OFFER_TIMEOUT = 100L; // ms
+
+    // Mark the end of a shard
+    private static final BackendEntry END = new TextBackendEntry(null, null);
+
+    private final List<Iterator<BackendEntry>> shards;
+    private final BlockingQueue<BackendEntry> queue;
+    private final ExecutorService workers;
+    private final AtomicReference<Throwable> error;
+
+    private volatile boolean closed;
+    private int finishedShards;
+    private BackendEntry next;
+
+    public ParallelScanIterator(List<Iterator<BackendEntry>> shards,
+                                int parallelism) {
+        E.checkArgument(parallelism > 0,
+                        "The parallelism must be > 0, but got %s",
+                        parallelism);
+        this.shards = shards;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        this.error = new AtomicReference<>();
+        this.closed = false;
+        this.finishedShards = 0;
+        this.next = null;
+
+        if (shards.isEmpty()) {
+            this.workers = null;
+            return;
+        }
+
+        int threads = Math.min(parallelism, shards.size());
+        this.workers = ExecutorUtil.newFixedThreadPool(threads, SCAN_WORKER);
+        for (Iterator<BackendEntry> shard : shards) {
+            this.workers.submit(() -> this.scan(shard));
+        }
+        // Let workers exit after all shards are scanned
+        this.workers.shutdown();
+    }
+
+    private void scan(Iterator<BackendEntry> shard) {
+        try {
+            while (!this.closed && shard.hasNext()) {
+                if (!this.offer(shard.next())) {
+                    break;
+                }
+            }
+        } catch (Throwable e) {
+            LOG.warn("Failed to scan shard in parallel", e);
+            this.error.compareAndSet(null, e);
+        } finally {
+            this.offer(END);
+        }
+    }
+
+    private boolean offer(BackendEntry entry) {
+        try {
+            while (!this.closed) {
+                if (this.queue.offer(entry, OFFER_TIMEOUT,
+                                     TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // Interrupted by close(), just exit
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next != null) {
+            return true;
+        }
+        while (!this.closed && this.finishedShards < this.shards.size()) {
+            BackendEntry entry;
+            try {
+                entry = this.queue.take();
+            } catch (InterruptedException e) {
+                this.close();
+                throw new BackendException("Interrupted when scanning", e);
+            }
+            if (entry == END) {
+                this.finishedShards++;
+                this.checkError();
+                continue;
+            }
+            this.next = entry;
+            return true;
+        }
+        // Release resources once reaching the end
+        this.close();
+        this.checkError();
+        return false;
+    }
+
+    @Override
+    public BackendEntry next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BackendEntry entry = this.next;
+        this.next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        if (this.workers != null) {
+            this.workers.shutdownNow();
+            try {
+                while (!this.workers.awaitTermination(OFFER_TIMEOUT,
+                                                      TimeUnit.MILLISECONDS)) {
+                    LOG.debug("Waiting for parallel scan workers to stop");
+                }
+            } catch (InterruptedException e) {
+                // Don't close shards which may be still used by workers
+                LOG.warn("Interrupted when waiting for scan workers to stop");
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        // Close shard iterators after all workers exited
+        for (Iterator<BackendEntry> shard : this.shards) {
+            if (shard instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) shard).close();
+                } catch (Exception e) {
+                    LOG.warn("Failed to close shard iterator", e);
+                }
+            }
+        }
+        this.queue.clear();
+    }
+
+    private void checkError() {
+        Throwable e = this.error.get();
+        if (e != null) {
+            this.close();
+            throw new BackendException("Failed to scan in parallel", e);
+        }
+    }
+}
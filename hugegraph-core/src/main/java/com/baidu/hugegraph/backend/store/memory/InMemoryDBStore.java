@@ -329,6 +329,11 @@ public abstract class InMemoryDBStore
             return false;
         }
 
+        @Override
+        public boolean supportsScanInParallel() {
+            return false;
+        }
+
         @Override
         public boolean supportsQuerySchemaByName() {
             // Traversal all data in memory
@@ -140,11 +140,75 @@ public class GraphIndexTransaction extends AbstractTransaction {
      * Update index(user properties) of vertex or edge
      */
     protected void updateIndex(Id ilId, HugeElement element, boolean removed) {
+        IndexLabel indexLabel = this.indexLabel(ilId);
+
+        List<Object> propValues = this.indexFieldValues(indexLabel, element);
+        for (Object value : this.indexValues(indexLabel, propValues)) {
+            this.updateIndex(indexLabel, value, element.id(), removed);
+        }
+    }
+
+    /**
+     * Collect the index field values of the element for each index label
+     * which contains the property key, it's expected to be called before
+     * updating the property and passed to updateIndex() after that
+     */
+    public Map<Id, List<Object>> indexFieldValues(HugeElement element,
+                                                  Id propKey) {
+        Map<Id, List<Object>> fieldValues = new HashMap<>();
+        for (Id ilId : element.schemaLabel().indexLabels()) {
+            IndexLabel indexLabel = this.indexLabel(ilId);
+            if (!indexLabel.indexFields().contains(propKey)) {
+                continue;
+            }
+            fieldValues.put(ilId, this.indexFieldValues(indexLabel, element));
+        }
+        return fieldValues;
+    }
+
+    /**
+     * Update index of the element whose property has been updated, only the
+     * changed index entries are removed or added by comparing with the old
+     * index field values
+     */
+    @Watched(prefix = "index")
+    public void updateIndex(HugeElement element,
+                            Map<Id, List<Object>> oldFieldValues) {
+        for (Map.Entry<Id, List<Object>> e : oldFieldValues.entrySet()) {
+            IndexLabel indexLabel = this.indexLabel(e.getKey());
+            List<Object> oldValues = e.getValue();
+            List<Object> newValues = this.indexFieldValues(indexLabel,
+                                                           element);
+            if (oldValues.equals(newValues)) {
+                // Don't segment the text again if it's not changed
+                continue;
+            }
+
+            Set<Object> olds = this.indexValues(indexLabel, oldValues);
+            Set<Object> news = this.indexValues(indexLabel, newValues);
+            for (Object value : olds) {
+                if (!news.contains(value)) {
+                    this.updateIndex(indexLabel, value, element.id(), true);
+                }
+            }
+            for (Object value : news) {
+                if (!olds.contains(value)) {
+                    this.updateIndex(indexLabel, value, element.id(), false);
+                }
+            }
+        }
+    }
+
+    private IndexLabel indexLabel(Id ilId) {
         SchemaTransaction schema = graph().schemaTransaction();
         IndexLabel indexLabel = schema.getIndexLabel(ilId);
         E.checkArgument(indexLabel != null,
                         "Not exist index label with id '%s'", ilId);
+        return indexLabel;
+    }
 
+    private List<Object> indexFieldValues(IndexLabel indexLabel,
+                                          HugeElement element) {
         // Collect property values of index fields
         List<Object> propValues = new ArrayList<>();
         for (Id fieldId : indexLabel.indexFields()) {
@@ -158,27 +222,29 @@ public class GraphIndexTransaction extends AbstractTransaction {
             }
             propValues.add(property.value());
         }
+        return propValues;
+    }
+
+    private Set<Object> indexValues(IndexLabel indexLabel,
+                                    List<Object> propValues) {
+        Set<Object> values = InsertionOrderUtil.newSet();
         if (propValues.isEmpty()) {
             // The property value of first index field is null
-            return;
+            return values;
         }
 
-        // Update index for each index type
+        // Collect index values for each index type
         switch (indexLabel.indexType()) {
             case RANGE:
                 E.checkState(propValues.size() == 1,
                              "Expect only one property in range index");
-                Object value = NumericUtil.convertToNumber(propValues.get(0));
-                this.updateIndex(indexLabel, value, element.id(), removed);
+                values.add(NumericUtil.convertToNumber(propValues.get(0)));
                 break;
             case SEARCH:
                 E.checkState(propValues.size() == 1,
                              "Expect only one property in search index");
-                value = propValues.get(0);
-                Set<String> words = this.segmentWords(value.toString());
-                for (String word : words) {
-                    this.updateIndex(indexLabel, word, element.id(), removed);
-                }
+                Object value = propValues.get(0);
+                values.addAll(this.segmentWords(value.toString()));
                 break;
             case SECONDARY:
                 // Secondary index maybe include multi prefix index
@@ -195,13 +261,14 @@ public class GraphIndexTransaction extends AbstractTransaction {
                         value = INDEX_EMPTY_SYM;
                     }
 
-                    this.updateIndex(indexLabel, value, element.id(), removed);
+                    values.add(value);
                 }
                 break;
             default:
                 throw new AssertionError(String.format(
                           "Unknown index type '%s'", indexLabel.indexType()));
         }
+        return values;
     }
 
     private void updateIndex(IndexLabel indexLabel, Object propValue,
@@ -934,6 +1001,21 @@ public class GraphIndexTransaction extends AbstractTransaction {
         this.doRemove(this.serializer.writeIndex(index));
     }
 
+    /**
+     * Remove the label index of all the elements with the specified label
+     * by the prefix of index id, instead of eliminating them one by one
+     */
+    public void removeLabelIndex(SchemaLabel schemaLabel) {
+        if (!this.needIndexForLabel() || !schemaLabel.enableLabelIndex()) {
+            return;
+        }
+        HugeType type = schemaLabel.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE;
+        HugeIndex index = new HugeIndex(IndexLabel.label(type));
+        index.fieldValues(schemaLabel.id().asLong());
+        this.doRemove(this.serializer.writeIndex(index));
+    }
+
     private static class MatchedIndex {
 
         private SchemaLabel schemaLabel;
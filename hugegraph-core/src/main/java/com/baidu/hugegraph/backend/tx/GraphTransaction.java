@@ -53,6 +53,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.tx.GraphIndexTransaction.OptimizedType;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -61,6 +62,7 @@ import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.iterator.FilterIterator;
 import com.baidu.hugegraph.iterator.FlatMapperIterator;
 import com.baidu.hugegraph.iterator.MapperIterator;
+import com.baidu.hugegraph.iterator.Metadatable;
 import com.baidu.hugegraph.perf.PerfUtil.Watched;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
@@ -87,6 +89,8 @@ public class GraphTransaction extends IndexableTransaction {
 
     public static final int COMMIT_BATCH = 500;
 
+    private static final String PAGE_START = "";
+
     private final GraphIndexTransaction indexTx;
 
     private Map<Id, HugeVertex> addedVertexes;
@@ -105,10 +109,14 @@ public class GraphTransaction extends IndexableTransaction {
 
     private LockUtil.LocksTable locksTable;
 
+    // Depth of the pinned snapshots of the store
+    private int snapshots;
+
     private final boolean checkVertexExist;
 
     private final int vertexesCapacity;
     private final int edgesCapacity;
+    private final long traverseBatch;
 
     public GraphTransaction(HugeGraph graph, BackendStore store) {
         super(graph, store);
@@ -121,7 +129,9 @@ public class GraphTransaction extends IndexableTransaction {
                                 CoreOptions.VERTEX_CHECK_CUSTOMIZED_ID_EXIST);
         this.vertexesCapacity = conf.get(CoreOptions.VERTEX_TX_CAPACITY);
         this.edgesCapacity = conf.get(CoreOptions.EDGE_TX_CAPACITY);
+        this.traverseBatch = conf.get(CoreOptions.TASK_TRAVERSE_BATCH_SIZE);
         this.locksTable = new LockUtil.LocksTable(graph.name());
+        this.snapshots = 0;
     }
 
     @Override
@@ -221,6 +231,10 @@ public class GraphTransaction extends IndexableTransaction {
             v.committed();
             // Add vertex entry
             this.doInsert(this.serializer.writeVertex(v));
+            // The index of updated vertex has been updated with properties
+            if (this.updatedVertexes.get(v.id()) == v) {
+                continue;
+            }
             // Update index of vertex(only include props)
             this.indexTx.updateVertexIndex(v, false);
             this.indexTx.updateLabelIndex(v, false);
@@ -237,6 +251,10 @@ public class GraphTransaction extends IndexableTransaction {
             // Add edge entry of OUT and IN
             this.doInsert(this.serializer.writeEdge(e));
             this.doInsert(this.serializer.writeEdge(e.switchOwner()));
+            // The index of updated edge has been updated with properties
+            if (this.updatedEdges.get(e.id()) == e) {
+                continue;
+            }
             // Update index of edge
             this.indexTx.updateEdgeIndex(e, false);
             this.indexTx.updateLabelIndex(e, false);
@@ -305,6 +323,27 @@ public class GraphTransaction extends IndexableTransaction {
         }
     }
 
+    /**
+     * Read a consistent view of the graph by the following queries of this
+     * transaction until endSnapshot(), like a traversal of multi queries,
+     * if the backend store supports snapshot read
+     */
+    public void beginSnapshot() {
+        if (this.store().beginSnapshot()) {
+            this.snapshots++;
+        }
+    }
+
+    public void endSnapshot() {
+        if (this.store().endSnapshot()) {
+            this.snapshots--;
+        }
+    }
+
+    protected final boolean inSnapshot() {
+        return this.snapshots > 0;
+    }
+
     @Override
     public Iterator<BackendEntry> query(Query query) {
         if (!(query instanceof ConditionQuery)) {
@@ -684,12 +723,13 @@ public class GraphTransaction extends IndexableTransaction {
 
         // Do property update
         this.lockForUpdateProperty(vertex.schemaLabel(), prop, () -> {
-            // Update old vertex to remove index (without new property)
-            this.indexTx.updateVertexIndex(vertex, true);
+            // Collect index values of old vertex (without new property)
+            Map<Id, List<Object>> oldValues = this.indexTx.indexFieldValues(
+                                              vertex, prop.propertyKey().id());
 
-            // Update index of current vertex (with new property)
+            // Update changed index of current vertex (with new property)
             this.propertyUpdated(vertex, vertex.setProperty(prop));
-            this.indexTx.updateVertexIndex(vertex, false);
+            this.indexTx.updateIndex(vertex, oldValues);
 
             if (this.store().features().supportsUpdateVertexProperty()) {
                 // Append new property(OUT and IN owner edge)
@@ -734,12 +774,13 @@ public class GraphTransaction extends IndexableTransaction {
 
         // Do property update
         this.lockForUpdateProperty(vertex.schemaLabel(), prop, () -> {
-            // Update old vertex to remove index (with the property)
-            this.indexTx.updateVertexIndex(vertex, true);
+            // Collect index values of old vertex (with the property)
+            Map<Id, List<Object>> oldValues = this.indexTx.indexFieldValues(
+                                              vertex, propKey.id());
 
-            // Update index of current vertex (without the property)
+            // Update changed index of current vertex (without the property)
             this.propertyUpdated(vertex, vertex.removeProperty(propKey.id()));
-            this.indexTx.updateVertexIndex(vertex, false);
+            this.indexTx.updateIndex(vertex, oldValues);
 
             if (this.store().features().supportsUpdateVertexProperty()) {
                 // Eliminate the property(OUT and IN owner edge)
@@ -781,12 +822,13 @@ public class GraphTransaction extends IndexableTransaction {
 
         // Do property update
         this.lockForUpdateProperty(edge.schemaLabel(), prop, () -> {
-            // Update old edge to remove index (without new property)
-            this.indexTx.updateEdgeIndex(edge, true);
+            // Collect index values of old edge (without new property)
+            Map<Id, List<Object>> oldValues = this.indexTx.indexFieldValues(
+                                              edge, prop.propertyKey().id());
 
-            // Update index of current edge (with new property)
+            // Update changed index of current edge (with new property)
             this.propertyUpdated(edge, edge.setProperty(prop));
-            this.indexTx.updateEdgeIndex(edge, false);
+            this.indexTx.updateIndex(edge, oldValues);
 
             if (this.store().features().supportsUpdateEdgeProperty()) {
                 // Append new property(OUT and IN owner edge)
@@ -832,12 +874,13 @@ public class GraphTransaction extends IndexableTransaction {
 
         // Do property update
         this.lockForUpdateProperty(edge.schemaLabel(), prop, () -> {
-            // Update old edge to remove index (with the property)
-            this.indexTx.updateEdgeIndex(edge, true);
+            // Collect index values of old edge (with the property)
+            Map<Id, List<Object>> oldValues = this.indexTx.indexFieldValues(
+                                              edge, propKey.id());
 
-            // Update index of current edge (without the property)
+            // Update changed index of current edge (without the property)
             this.propertyUpdated(edge, edge.removeProperty(propKey.id()));
-            this.indexTx.updateEdgeIndex(edge, false);
+            this.indexTx.updateIndex(edge, oldValues);
 
             if (this.store().features().supportsUpdateEdgeProperty()) {
                 // Eliminate the property(OUT and IN owner edge)
@@ -1349,10 +1392,18 @@ public class GraphTransaction extends IndexableTransaction {
         // Commit data already in tx firstly
         this.commit();
         try {
+            /*
+             * The vertex label is not allowed to be removed while any edge
+             * label links with it, and the index labels of it are removed
+             * by range before, so just remove the vertices here without
+             * querying the edges of each vertex and updating the indexes
+             */
             this.traverseVerticesByLabel(vertexLabel, vertex -> {
-                this.removeVertex((HugeVertex) vertex);
+                HugeVertex v = (HugeVertex) vertex;
+                this.doRemove(this.serializer.writeVertex(v.prepareRemoved()));
                 this.commitIfGtSize(COMMIT_BATCH);
             });
+            this.indexTx.removeLabelIndex(vertexLabel);
             this.commit();
         } catch (Exception e) {
             LOG.error("Failed to remove vertices", e);
@@ -1378,6 +1429,7 @@ public class GraphTransaction extends IndexableTransaction {
                                                       edgeLabel.id()));
                 this.doRemove(this.serializer.writeId(HugeType.EDGE_IN,
                                                       edgeLabel.id()));
+                this.indexTx.removeLabelIndex(edgeLabel);
             } else {
                 this.traverseEdgesByLabel(edgeLabel, edge -> {
                     this.removeEdge((HugeEdge) edge);
@@ -1403,6 +1455,20 @@ public class GraphTransaction extends IndexableTransaction {
         this.traverseByLabel(label, this::queryEdges, consumer);
     }
 
+    /**
+     * Traverse the vertices of a label in a shard, the shards of a table can
+     * be traversed concurrently, each one by the transaction of a thread
+     */
+    public void traverseVerticesByShard(VertexLabel label, Shard shard,
+                                        Consumer<Vertex> consumer) {
+        this.traverseByShard(label, shard, this::queryVertices, consumer);
+    }
+
+    public void traverseEdgesByShard(EdgeLabel label, Shard shard,
+                                     Consumer<Edge> consumer) {
+        this.traverseByShard(label, shard, this::queryEdges, consumer);
+    }
+
     private <T> void traverseByLabel(SchemaLabel label,
                                      Function<Query, Iterator<T>> fetcher,
                                      Consumer<T> consumer) {
@@ -1414,10 +1480,29 @@ public class GraphTransaction extends IndexableTransaction {
             query.showHidden(true);
         }
 
+        // Scan all shards in parallel and filter by label
+        if (this.store().features().supportsScanInParallel()) {
+            this.traverseByScan(type, label, consumer);
+            return;
+        }
+
+        /*
+         * Page by label condition if the store can query by label directly,
+         * or else page all and filter by label, since the label index query
+         * can't be paged
+         */
+        if (this.store().features().supportsQueryByPage()) {
+            this.traverseByPage(type, label, consumer);
+            return;
+        }
+
         // Not support label index, query all and filter by label
         if (!label.enableLabelIndex()) {
-            query.capacity(Query.NO_CAPACITY);
-            Iterator<T> itor = fetcher.apply(query);
+            // The condition query without any condition is taken as empty
+            Query all = new Query(type);
+            all.showHidden(label.hidden());
+            all.capacity(Query.NO_CAPACITY);
+            Iterator<T> itor = fetcher.apply(all);
             while (itor.hasNext()) {
                 T e = itor.next();
                 SchemaLabel elemLabel = ((HugeElement) e).schemaLabel();
@@ -1430,7 +1515,8 @@ public class GraphTransaction extends IndexableTransaction {
 
         /*
          * Support label index, query by label. Set limit&capacity to
-         * Query.DEFAULT_CAPACITY to limit elements number per pass
+         * Query.DEFAULT_CAPACITY to limit elements number per pass, which
+         * only happens on the stores not support paging like memory
          */
         query.limit(Query.DEFAULT_CAPACITY);
         query.capacity(Query.NO_CAPACITY);
@@ -1447,4 +1533,119 @@ public class GraphTransaction extends IndexableTransaction {
             assert counter <= Query.DEFAULT_CAPACITY;
         } while (counter == Query.DEFAULT_CAPACITY); // If not, means finish
     }
+
+    private <T> void traverseByPage(HugeType type, SchemaLabel label,
+                                    Consumer<T> consumer) {
+        Query query;
+        // Query by label if the store supports, or else query all
+
+        if (this.store().features().supportsQueryByLabel()) {
+            ConditionQuery cq = new ConditionQuery(type);
+            cq.eq(HugeKeys.LABEL, label.id());
+            query = cq;
+        } else {
+            query = new Query(type);
+        }
+        query.showHidden(label.hidden());
+
+        /*
+         * Each pass continues from the position where the last one stopped
+         * rather than skipping an offset, and the elements of a pass are
+         * fetched into a bounded batch before being consumed, so that the
+         * consumer can update or remove them during traversal
+         */
+        query.limit(this.traverseBatch);
+        query.capacity(Query.NO_CAPACITY);
+        String page = PAGE_START;
+        List<T> batch = new ArrayList<>();
+        do {
+            query.page(page);
+            Iterator<BackendEntry> entries = this.query(query);
+            try {
+                // No more pages if nothing is fetched from the last page
+                if (!entries.hasNext()) {
+                    break;
+                }
+                while (entries.hasNext()) {
+                    this.<T>readByLabel(type, label, entries.next(),
+                                        batch::add);
+                }
+                page = (String) ((Metadatable) entries).metadata("page");
+            } finally {
+                closeIterator(entries);
+            }
+
+            for (T e : batch) {
+                consumer.accept(e);
+            }
+            batch.clear();
+        } while (page != null);
+    }
+
+    private <T> void traverseByShard(SchemaLabel label, Shard shard,
+                                     Function<Query, Iterator<T>> fetcher,
+                                     Consumer<T> consumer) {
+        // Scan the OUT edges table is enough to get all edges
+        HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE_OUT;
+        ConditionQuery query = new ConditionQuery(type);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+        query.showHidden(label.hidden());
+
+        Iterator<T> itor = fetcher.apply(query);
+        while (itor.hasNext()) {
+            T e = itor.next();
+            if (label.equals(((HugeElement) e).schemaLabel())) {
+                consumer.accept(e);
+            }
+        }
+    }
+
+    private <T> void traverseByScan(HugeType type, SchemaLabel label,
+                                    Consumer<T> consumer) {
+        assert !this.hasUpdates();
+        // Scan the OUT edges table is enough to get all edges
+        HugeType table = type == HugeType.VERTEX ? type : HugeType.EDGE_OUT;
+        Iterator<BackendEntry> entries = this.store().scanInParallel(table);
+        try {
+            /*
+             * Entries are fetched by multi threads, but deserialized and
+             * consumed in current thread, which owns the transaction
+             */
+            while (entries.hasNext()) {
+                this.readByLabel(type, label, entries.next(), consumer);
+            }
+        } finally {
+            closeIterator(entries);
+        }
+    }
+
+    private static void closeIterator(Iterator<?> iterator) {
+        if (iterator instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (Exception e) {
+                LOG.warn("Failed to close iterator", e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void readByLabel(HugeType type, SchemaLabel label,
+                                 BackendEntry entry, Consumer<T> consumer) {
+        // Edges are in a vertex of the OUT edges table
+        HugeVertex vertex = this.serializer.readVertex(graph(), entry);
+        if (type == HugeType.VERTEX) {
+            if (label.equals(vertex.schemaLabel())) {
+                consumer.accept((T) vertex);
+            }
+            return;
+        }
+        for (HugeEdge edge : ImmutableList.copyOf(vertex.getEdges())) {
+            if (label.equals(edge.schemaLabel())) {
+                consumer.accept((T) edge);
+            }
+        }
+    }
 }
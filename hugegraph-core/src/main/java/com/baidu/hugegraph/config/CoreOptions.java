@@ -23,6 +23,8 @@ import static com.baidu.hugegraph.backend.tx.GraphTransaction.COMMIT_BATCH;
 import static com.baidu.hugegraph.config.OptionChecker.disallowEmpty;
 import static com.baidu.hugegraph.config.OptionChecker.rangeInt;
 
+import com.google.common.collect.ImmutableList;
+
 public class CoreOptions extends OptionHolder {
 
     private CoreOptions() {
@@ -113,6 +115,100 @@ public class CoreOptions extends OptionHolder {
                     10L
             );
 
+    public static final ConfigOption<Integer> TASK_WORKERS =
+            new ConfigOption<>(
+                    "task.workers",
+                    "The number of threads to execute the tasks of a graph.",
+                    rangeInt(1, 256),
+                    4
+            );
+
+    public static final ConfigOption<Integer> TASK_MAX_PENDING =
+            new ConfigOption<>(
+                    "task.max_pending_tasks",
+                    "The max number of queued tasks of a graph, including " +
+                    "the ones waiting for the type quota, new tasks will be " +
+                    "rejected by the task executor once reached.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    10000
+            );
+
+    public static final ConfigListOption<String> TASK_PRIOR_TYPES =
+            new ConfigListOption<>(
+                    "task.prior_types",
+                    false,
+                    "The task types to be executed in priority to the others " +
+                    "in the queue, like the schema tasks.",
+                    null,
+                    String.class,
+                    ImmutableList.of("remove_schema", "rebuild_index")
+            );
+
+    public static final ConfigListOption<String> TASK_TYPE_QUOTAS =
+            new ConfigListOption<>(
+                    "task.type_quotas",
+                    false,
+                    "The max number of concurrent tasks of a type, the " +
+                    "others of the type will wait for execution, the format " +
+                    "of each element: `TYPE: QUOTA`.",
+                    null,
+                    String.class,
+                    ImmutableList.of("gremlin:2")
+            );
+
+    public static final ConfigOption<String> TASK_SERVER_ID =
+            new ConfigOption<>(
+                    "task.server_id",
+                    "The id of this server to own the tasks, should be " +
+                    "unique among the servers sharing the backend, " +
+                    "use the host name if it's empty, which must be set " +
+                    "if multiple servers run on the same host.",
+                    null,
+                    ""
+            );
+
+    public static final ConfigOption<Long> TASK_LEASE_TIMEOUT =
+            new ConfigOption<>(
+                    "task.lease_timeout",
+                    "The lease timeout in seconds of the tasks owned by a " +
+                    "server, which are renewed every third of it, and can " +
+                    "be taken over by other servers once expired. Note " +
+                    "that taking over is not atomic, a task may be run by " +
+                    "several servers taking over it at the same time, " +
+                    "until the losers are fenced at their next renewal " +
+                    "within a third of the timeout.",
+                    rangeInt(1L, Long.MAX_VALUE),
+                    30L
+            );
+
+    public static final ConfigOption<Integer> TASK_REBUILD_INDEX_WORKERS =
+            new ConfigOption<>(
+                    "task.rebuild_index_workers",
+                    "The number of threads to rebuild the index of a label " +
+                    "concurrently, each one rebuilds a shard of the label.",
+                    rangeInt(1, 64),
+                    4
+            );
+
+    public static final ConfigOption<Long> TASK_REBUILD_INDEX_SHARD_SIZE =
+            new ConfigOption<>(
+                    "task.rebuild_index_shard_size",
+                    "The size in MB of the shard to be rebuilt by a thread, " +
+                    "only used by the backends which support scan by shard.",
+                    rangeInt(1L, 1024L * 1024L),
+                    64L
+            );
+
+    public static final ConfigOption<Long> TASK_TRAVERSE_BATCH_SIZE =
+            new ConfigOption<>(
+                    "task.traverse_batch_size",
+                    "The max number of elements fetched in a page when " +
+                    "traversing a label by page, like removing a label or " +
+                    "rebuilding the index of a label.",
+                    rangeInt(1L, 1000L * 1000L),
+                    10000L
+            );
+
     public static final ConfigOption<String> VERTEX_DEFAULT_LABEL =
             new ConfigOption<>(
                     "vertex.default_label",
@@ -19,17 +19,30 @@
 
 package com.baidu.hugegraph.job.schema;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.store.BackendFeatures;
+import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.SchemaElement;
@@ -38,11 +51,19 @@ import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeElement;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.SchemaStatus;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.JsonUtil;
 import com.baidu.hugegraph.util.LockUtil;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 public class RebuildIndexCallable extends SchemaCallable {
 
+    private static final String REBUILD_WORKER = "rebuild-index-worker-%d";
+
     @Override
     public String type() {
         return SchemaCallable.REBUILD_INDEX;
@@ -83,17 +104,6 @@ public class RebuildIndexCallable extends SchemaCallable {
         SchemaTransaction schemaTx = this.graph().schemaTransaction();
         GraphTransaction graphTx = this.graph().graphTransaction();
 
-        Consumer<?> indexUpdater = (elem) -> {
-            for (Id id : indexLabelIds) {
-                graphTx.updateIndex(id, (HugeElement) elem);
-                /*
-                 * Commit per batch to avoid too much data in single commit,
-                 * especially for Cassandra backend
-                 */
-                graphTx.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
-            }
-        };
-
         LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
         try {
             locks.lockWrites(LockUtil.INDEX_LABEL_REBUILD, indexLabelIds);
@@ -102,35 +112,37 @@ public class RebuildIndexCallable extends SchemaCallable {
             Set<IndexLabel> ils = indexLabelIds.stream()
                                                .map(schemaTx::getIndexLabel)
                                                .collect(Collectors.toSet());
-            for (IndexLabel il : ils) {
-                if (il.status() == SchemaStatus.CREATING) {
-                    continue;
+
+            // Resume from the shards rebuilt before the task was interrupted
+            Checkpoint checkpoint = Checkpoint.fromJson(this.task().input());
+            if (checkpoint == null) {
+                for (IndexLabel il : ils) {
+                    if (il.status() == SchemaStatus.CREATING) {
+                        continue;
+                    }
+                    schemaTx.updateSchemaStatus(il, SchemaStatus.REBUILDING);
                 }
-                schemaTx.updateSchemaStatus(il, SchemaStatus.REBUILDING);
+
+                this.removeIndex(indexLabelIds);
+                /*
+                 * Note: Here must commit index transaction firstly.
+                 * Because remove index convert to (id like <?>:personByCity):
+                 * `delete from index table where label = ?`,
+                 * But append index will convert to (id like
+                 * Beijing:personByCity): `update index element_ids += xxx
+                 * where field_value = ? and index_label_name = ?`,
+                 * They have different id lead to it can't compare and
+                 * optimize
+                 */
+                graphTx.commit();
+                checkpoint = this.checkpoint(label);
             }
 
-            this.removeIndex(indexLabelIds);
-            /*
-             * Note: Here must commit index transaction firstly.
-             * Because remove index convert to (id like <?>:personByCity):
-             * `delete from index table where label = ?`,
-             * But append index will convert to (id like Beijing:personByCity):
-             * `update index element_ids += xxx where field_value = ?
-             * and index_label_name = ?`,
-             * They have different id lead to it can't compare and optimize
-             */
-            graphTx.commit();
-            if (label.type() == HugeType.VERTEX_LABEL) {
-                @SuppressWarnings("unchecked")
-                Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
-                graphTx.traverseVerticesByLabel((VertexLabel) label, consumer);
+            if (checkpoint == null) {
+                this.rebuildLabel(label, indexLabelIds);
             } else {
-                assert label.type() == HugeType.EDGE_LABEL;
-                @SuppressWarnings("unchecked")
-                Consumer<Edge> consumer = (Consumer<Edge>) indexUpdater;
-                graphTx.traverseEdgesByLabel((EdgeLabel) label, consumer);
+                this.rebuildShards(label, indexLabelIds, checkpoint);
             }
-            graphTx.commit();
 
             for (IndexLabel il : ils) {
                 schemaTx.updateSchemaStatus(il, SchemaStatus.CREATED);
@@ -140,6 +152,135 @@ public class RebuildIndexCallable extends SchemaCallable {
         }
     }
 
+    private void rebuildLabel(SchemaLabel label, Collection<Id> indexLabelIds) {
+        GraphTransaction graphTx = this.graph().graphTransaction();
+        Consumer<?> indexUpdater = (elem) -> {
+            updateIndex(graphTx, indexLabelIds, (HugeElement) elem);
+        };
+        if (label.type() == HugeType.VERTEX_LABEL) {
+            @SuppressWarnings("unchecked")
+            Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
+            graphTx.traverseVerticesByLabel((VertexLabel) label, consumer);
+        } else {
+            assert label.type() == HugeType.EDGE_LABEL;
+            @SuppressWarnings("unchecked")
+            Consumer<Edge> consumer = (Consumer<Edge>) indexUpdater;
+            graphTx.traverseEdgesByLabel((EdgeLabel) label, consumer);
+        }
+        graphTx.commit();
+    }
+
+    private void rebuildShards(SchemaLabel label, Collection<Id> indexLabelIds,
+                               Checkpoint checkpoint) {
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>(
+                                 checkpoint.pendingShards());
+        if (pending.isEmpty()) {
+            return;
+        }
+        int workers = this.graph().configuration()
+                          .get(CoreOptions.TASK_REBUILD_INDEX_WORKERS);
+        workers = Math.min(workers, pending.size());
+
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   workers, REBUILD_WORKER);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> {
+                // Each worker commits by its own thread-local transaction
+                try {
+                    Integer shard;
+                    while ((shard = pending.poll()) != null) {
+                        this.rebuildShard(label, indexLabelIds,
+                                          checkpoint.shard(shard));
+                        this.shardDone(checkpoint, shard);
+                    }
+                } catch (Throwable e) {
+                    // Stop the other workers as soon as possible
+                    pending.clear();
+                    throw e;
+                } finally {
+                    this.graph().closeTx();
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            pending.clear();
+            throw new HugeException("Interrupted when rebuilding index of " +
+                                    "'%s'", e, label.name());
+        } catch (ExecutionException e) {
+            throw new HugeException("Failed to rebuild index of '%s'",
+                                    e.getCause(), label.name());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void rebuildShard(SchemaLabel label, Collection<Id> indexLabelIds,
+                              Shard shard) {
+        GraphTransaction graphTx = this.graph().graphTransaction();
+        if (label.type() == HugeType.VERTEX_LABEL) {
+            graphTx.traverseVerticesByShard((VertexLabel) label, shard, v -> {
+                updateIndex(graphTx, indexLabelIds, (HugeElement) v);
+            });
+        } else {
+            assert label.type() == HugeType.EDGE_LABEL;
+            graphTx.traverseEdgesByShard((EdgeLabel) label, shard, e -> {
+                updateIndex(graphTx, indexLabelIds, (HugeElement) e);
+            });
+        }
+        graphTx.commit();
+    }
+
+    private Checkpoint checkpoint(SchemaLabel label) {
+        /*
+         * Split the table to shards whether the label enables label index
+         * or not, the elements of other labels are filtered out when
+         * scanning a shard, which is resumable unlike the label index query
+         */
+        BackendFeatures features = this.graph().graphTransaction().store()
+                                       .features();
+        if (!features.supportsScanToken() && !features.supportsScanKeyRange()) {
+            return null;
+        }
+
+        HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE_OUT;
+        long shardSize = this.graph().configuration()
+                             .get(CoreOptions.TASK_REBUILD_INDEX_SHARD_SIZE);
+        List<Shard> shards = this.graph().graphTransaction()
+                                 .metadata(type, "splits", shardSize * Bytes.MB);
+        Checkpoint checkpoint = new Checkpoint(shards);
+
+        // Save shards before rebuilding, the task will resume from them
+        this.task().input(checkpoint.toJson());
+        this.save();
+        return checkpoint;
+    }
+
+    private synchronized void shardDone(Checkpoint checkpoint, int shard) {
+        checkpoint.done(shard);
+        this.task().input(checkpoint.toJson());
+        this.updateProgress(checkpoint.progress());
+    }
+
+    private static void updateIndex(GraphTransaction graphTx,
+                                    Collection<Id> indexLabelIds,
+                                    HugeElement elem) {
+        for (Id id : indexLabelIds) {
+            graphTx.updateIndex(id, elem);
+            /*
+             * Commit per batch to avoid too much data in single commit,
+             * especially for Cassandra backend
+             */
+            graphTx.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
+        }
+    }
+
     private void removeIndex(Collection<Id> indexLabelIds) {
         SchemaTransaction schemaTx = this.graph().schemaTransaction();
         GraphTransaction graphTx = this.graph().graphTransaction();
@@ -173,4 +314,81 @@ public class RebuildIndexCallable extends SchemaCallable {
                           "Invalid HugeType '%s' for rebuild", type));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The shards of a label to be rebuilt and the ones have been rebuilt,
+     * which is saved as the input of task to resume rebuilding from
+     */
+    private static class Checkpoint {
+
+        private static final String SHARDS = "shards";
+        private static final String DONE = "done";
+
+        private final List<Shard> shards;
+        private final Set<Integer> done;
+
+        public Checkpoint(List<Shard> shards) {
+            this(shards, new TreeSet<>());
+        }
+
+        private Checkpoint(List<Shard> shards, Set<Integer> done) {
+            this.shards = shards;
+            this.done = done;
+        }
+
+        public Shard shard(int index) {
+            return this.shards.get(index);
+        }
+
+        public List<Integer> pendingShards() {
+            List<Integer> pending = new ArrayList<>(this.shards.size());
+            for (int i = 0; i < this.shards.size(); i++) {
+                if (!this.done.contains(i)) {
+                    pending.add(i);
+                }
+            }
+            return pending;
+        }
+
+        public void done(int index) {
+            this.done.add(index);
+        }
+
+        public int progress() {
+            if (this.shards.isEmpty()) {
+                return 100;
+            }
+            return this.done.size() * 100 / this.shards.size();
+        }
+
+        public String toJson() {
+            List<List<Object>> shards = new ArrayList<>(this.shards.size());
+            for (Shard shard : this.shards) {
+                shards.add(ImmutableList.of(shard.start(), shard.end(),
+                                            shard.length()));
+            }
+            return JsonUtil.toJson(ImmutableMap.of(SHARDS, shards,
+                                                   DONE, this.done));
+        }
+
+        @SuppressWarnings("unchecked")
+        public static Checkpoint fromJson(String json) {
+            if (json == null) {
+                return null;
+            }
+            Map<String, Object> map = JsonUtil.fromJson(json, Map.class);
+            List<List<Object>> values = (List<List<Object>>) map.get(SHARDS);
+            List<Integer> done = (List<Integer>) map.get(DONE);
+            E.checkState(values != null && done != null,
+                         "Invalid checkpoint of rebuilding index: %s", json);
+
+            List<Shard> shards = new ArrayList<>(values.size());
+            for (List<Object> value : values) {
+                shards.add(new Shard((String) value.get(0),
+                                     (String) value.get(1),
+                                     ((Number) value.get(2)).longValue()));
+            }
+            return new Checkpoint(shards, new TreeSet<>(done));
+        }
+    }
+}
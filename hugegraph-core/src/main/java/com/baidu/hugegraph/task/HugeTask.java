@@ -63,6 +63,10 @@ public class HugeTask<V> extends FutureTask<V> {
     private volatile int retries;
     private volatile String input;
     private volatile String result;
+    // The server owns the task until the lease expired, fenced by epoch
+    private volatile String server;
+    private volatile Date lease;
+    private volatile int epoch;
 
     public HugeTask(Id id, Id parent, String callable, String input) {
         this(id, parent, TaskCallable.fromClass(callable));
@@ -90,6 +94,9 @@ public class HugeTask<V> extends FutureTask<V> {
         this.retries = 0;
         this.input = null;
         this.result = null;
+        this.server = null;
+        this.lease = null;
+        this.epoch = 0;
     }
 
     public Id id() {
@@ -185,6 +192,30 @@ public class HugeTask<V> extends FutureTask<V> {
         return this.result;
     }
 
+    public void server(String server) {
+        this.server = server;
+    }
+
+    public String server() {
+        return this.server;
+    }
+
+    public void lease(Date lease) {
+        this.lease = lease;
+    }
+
+    public Date lease() {
+        return this.lease;
+    }
+
+    public void epoch(int epoch) {
+        this.epoch = epoch;
+    }
+
+    public int epoch() {
+        return this.epoch;
+    }
+
     public boolean completed() {
         return TaskStatus.COMPLETED_STATUSES.contains(this.status);
     }
@@ -333,6 +364,15 @@ public class HugeTask<V> extends FutureTask<V> {
             case P.RESULT:
                 this.result = (String) value;
                 break;
+            case P.SERVER:
+                this.server = (String) value;
+                break;
+            case P.LEASE:
+                this.lease = (Date) value;
+                break;
+            case P.EPOCH:
+                this.epoch = (int) value;
+                break;
             default:
                 throw new AssertionError("Unsupported key: " + key);
         }
@@ -342,7 +382,7 @@ public class HugeTask<V> extends FutureTask<V> {
         E.checkState(this.type != null, "Task type can't be null");
         E.checkState(this.name != null, "Task name can't be null");
 
-        List<Object> list = new ArrayList<>(28);
+        List<Object> list = new ArrayList<>(34);
 
         list.add(T.label);
         list.add(P.TASK);
@@ -371,6 +411,9 @@ public class HugeTask<V> extends FutureTask<V> {
         list.add(P.RETRIES);
         list.add(this.retries);
 
+        list.add(P.EPOCH);
+        list.add(this.epoch);
+
         if (this.description != null) {
             list.add(P.DESCRIPTION);
             list.add(this.description);
@@ -397,6 +440,16 @@ public class HugeTask<V> extends FutureTask<V> {
             list.add(this.result);
         }
 
+        if (this.server != null) {
+            list.add(P.SERVER);
+            list.add(this.server);
+        }
+
+        if (this.lease != null) {
+            list.add(P.LEASE);
+            list.add(this.lease);
+        }
+
         return list.toArray();
     }
 
@@ -440,6 +493,9 @@ public class HugeTask<V> extends FutureTask<V> {
             if (this.result != null) {
                 map.put(Hidden.unHide(P.RESULT), this.result);
             }
+            if (this.server != null) {
+                map.put(Hidden.unHide(P.SERVER), this.server);
+            }
         }
 
         return map;
@@ -486,6 +542,9 @@ public class HugeTask<V> extends FutureTask<V> {
         public static final String INPUT = "~task_input";
         public static final String RESULT = "~task_result";
         public static final String DEPENDENCIES = "~task_dependencies";
+        public static final String SERVER = "~task_server";
+        public static final String LEASE = "~task_lease";
+        public static final String EPOCH = "~task_epoch";
 
         //public static final String PARENT = hide("parent");
         //public static final String CHILDREN = hide("children");
@@ -20,95 +20,49 @@
 package com.baidu.hugegraph.task;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.util.E;
-import com.baidu.hugegraph.util.ExecutorUtil;
 
 public class TaskManager {
 
     public static final String TASK_WORKER = "task-worker-%d";
     public static final String TASK_DB_WORKER = "task-db-worker-%d";
 
-    private static final int THREADS = 4;
-    private static final TaskManager MANAGER = new TaskManager(THREADS);
+    private static final TaskManager MANAGER = new TaskManager();
 
     private final Map<HugeGraph, TaskScheduler> schedulers;
-
-    private final ExecutorService taskExecutor;
-    private final ExecutorService dbExecutor;
+    // The schedulers of closed graphs, they may still have running tasks
+    private final List<TaskScheduler> closedSchedulers;
 
     public static TaskManager instance() {
         return MANAGER;
     }
 
-    private TaskManager(int pool) {
-        this.schedulers = new HashMap<>();
-
-        // For execute tasks
-        this.taskExecutor = ExecutorUtil.newFixedThreadPool(pool, TASK_WORKER);
-        // For save/query task state, just one thread is ok
-        this.dbExecutor = ExecutorUtil.newFixedThreadPool(1, TASK_DB_WORKER);
+    private TaskManager() {
+        this.schedulers = new ConcurrentHashMap<>();
+        this.closedSchedulers = new ArrayList<>();
     }
 
     public void addScheduler(HugeGraph graph) {
         E.checkArgumentNotNull(graph, "The graph can't be null");
-        ExecutorService task = this.taskExecutor;
-        ExecutorService db = this.dbExecutor;
-        this.schedulers.put(graph, new TaskScheduler(graph, task, db));
+        // Each graph has its own task workers and db worker
+        this.schedulers.put(graph, new TaskScheduler(graph));
     }
 
     public void closeScheduler(HugeGraph graph) {
         TaskScheduler scheduler = this.schedulers.get(graph);
         if (scheduler != null && scheduler.close()) {
             this.schedulers.remove(graph);
-        }
-        this.closeTaskTx(graph);
-    }
-
-    private void closeTaskTx(HugeGraph graph) {
-        final Map<Thread, Integer> threadsTimes = new ConcurrentHashMap<>();
-        final List<Callable<Void>> tasks = new ArrayList<>();
-
-        final Callable<Void> closeTx = () -> {
-            Thread current = Thread.currentThread();
-            threadsTimes.putIfAbsent(current, 0);
-            int times = threadsTimes.get(current);
-            if (times == 0) {
-                // Do close-tx for current thread
-                graph.closeTx();
-                // Let other threads run
-                Thread.yield();
-            } else {
-                assert times < THREADS;
-                assert threadsTimes.size() < THREADS;
-                E.checkState(tasks.size() == THREADS,
-                             "Bad tasks size: %s", tasks.size());
-                // Let another thread run and wait for it
-                this.taskExecutor.invokeAny(tasks.subList(0, 1));
+            synchronized (this.closedSchedulers) {
+                this.closedSchedulers.add(scheduler);
             }
-            threadsTimes.put(current, ++times);
-            return null;
-        };
-
-        // NOTE: expect each thread to perform a close operation
-        for (int i = 0; i < THREADS; i++) {
-            tasks.add(closeTx);
-        }
-        try {
-            this.taskExecutor.invokeAll(tasks);
-        } catch (Exception e) {
-            throw new HugeException("Exception when closing task tx", e);
         }
     }
 
@@ -120,24 +74,25 @@ public class TaskManager {
         assert this.schedulers.isEmpty() : this.schedulers.size();
 
         Throwable ex = null;
-        boolean terminated = this.taskExecutor.isTerminated();
-        final TimeUnit unit = TimeUnit.SECONDS;
-
-        if (!this.taskExecutor.isShutdown()) {
-            this.taskExecutor.shutdown();
-            try {
-                terminated = this.taskExecutor.awaitTermination(timeout, unit);
-            } catch (Throwable e) {
-                ex = e;
+        boolean terminated = true;
+        long deadline = System.currentTimeMillis() +
+                        TimeUnit.SECONDS.toMillis(timeout);
+
+        synchronized (this.closedSchedulers) {
+            for (TaskScheduler scheduler : this.closedSchedulers) {
+                long remaining = deadline - System.currentTimeMillis();
+                try {
+                    terminated = scheduler.shutdown(TimeUnit.MILLISECONDS
+                                                    .toSeconds(remaining));
+                } catch (Throwable e) {
+                    ex = e;
+                }
+                if (!terminated || ex != null) {
+                    break;
+                }
             }
-        }
-
-        if (terminated && !this.dbExecutor.isShutdown()) {
-            this.dbExecutor.shutdown();
-            try {
-                terminated = this.dbExecutor.awaitTermination(timeout, unit);
-            } catch (Throwable e) {
-                ex = e;
+            if (terminated && ex == null) {
+                this.closedSchedulers.clear();
             }
         }
 
@@ -150,7 +105,11 @@ public class TaskManager {
     }
 
     public int workerPoolSize() {
-        return ((ThreadPoolExecutor) this.taskExecutor).getCorePoolSize();
+        int size = 0;
+        for (TaskScheduler scheduler : this.schedulers.values()) {
+            size += scheduler.workers();
+        }
+        return size;
     }
 
     public int pendingTasks() {
@@ -160,4 +119,33 @@ public class TaskManager {
         }
         return size;
     }
+
+    public int runningTasks() {
+        int size = 0;
+        for (TaskScheduler scheduler : this.schedulers.values()) {
+            size += scheduler.runningTasks();
+        }
+        return size;
+    }
+
+    public int queuedTasks() {
+        int size = 0;
+        for (TaskScheduler scheduler : this.schedulers.values()) {
+            size += scheduler.queuedTasks();
+        }
+        return size;
+    }
+
+    /**
+     * The average time in milliseconds of the started tasks waited in queue
+     */
+    public long averageWaitedTime() {
+        long time = 0L;
+        long tasks = 0L;
+        for (TaskScheduler scheduler : this.schedulers.values()) {
+            time += scheduler.waitedTime();
+            tasks += scheduler.startedTasks();
+        }
+        return tasks == 0L ? 0L : time / tasks;
+    }
 }
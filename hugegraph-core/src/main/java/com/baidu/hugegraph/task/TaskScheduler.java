@@ -19,21 +19,43 @@
 
 package com.baidu.hugegraph.task;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.tinkerpop.gremlin.structure.Graph.Hidden;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.slf4j.Logger;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
@@ -42,6 +64,8 @@ import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.event.EventListener;
 import com.baidu.hugegraph.exception.NotFoundException;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
@@ -58,37 +82,135 @@ import com.baidu.hugegraph.type.define.DataType;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Events;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 public class TaskScheduler {
 
+    private static final Logger LOG = Log.logger(TaskScheduler.class);
+
     private final HugeGraph graph;
-    private final ExecutorService taskExecutor;
+    private final ThreadPoolExecutor taskExecutor;
     private final ExecutorService dbExecutor;
 
+    /*
+     * The tasks are owned by the server which scheduled or took over them,
+     * the lease of the owned tasks is renewed periodically, and the tasks
+     * whose lease expired can be taken over by the idle servers
+     */
+    private final String server;
+    private final long leaseTimeout;
+    private final ScheduledExecutorService leaseExecutor;
+    private final AtomicBoolean leaseKeeping;
+    private volatile boolean takingOver;
+
     private final EventListener eventListener;
     private final Map<Id, HugeTask<?>> tasks;
 
+    private final int maxPendingTasks;
+    private final Set<String> priorTypes;
+
+    /*
+     * The tasks of a type are admitted to the executor until the quota of
+     * the type is reached, the others wait for the admitted ones completed
+     */
+    private final Map<String, Integer> typeQuotas;
+    private final Map<String, Integer> admittedTypes;
+    private final Set<Id> admittedTasks;
+    private final Map<String, Queue<HugeTask<?>>> waitingTasks;
+
+    // The nano time of tasks submitted, used to time the queue
+    private final Map<Id, Long> submitTimes;
+    // The sequence of tasks queued, used to order the queue
+    private final AtomicLong queuedSequence;
+    private final AtomicLong startedTasks;
+    private final AtomicLong waitedTime;
+
+    // The tasks to be saved by the next batch of the db worker
+    private final Map<Id, HugeTask<?>> unsavedTasks;
+
+    /*
+     * The waiters of task completion are notified through this lock when
+     * any task is submitted or removed, the changes counter is used to
+     * detect the notifications missed before waiting
+     */
+    private final Object tasksChangedLock;
+    private long tasksChanges;
+
+    // The asynchronous waiters of task completion, like long polling
+    private final Map<Id, List<CompletableFuture<HugeTask<?>>>> taskWaiters;
+
     private volatile TaskTransaction taskTx;
 
     private static final long NO_LIMIT = -1L;
-    private static final long QUERY_INTERVAL = 100L;
-    private static final int MAX_PENDING_TASKS = 10000;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final String TASK_LEASE_WORKER = "task-lease-worker-%d";
+    private static final List<TaskStatus> SCAN_STATUSES = ImmutableList.of(
+            TaskStatus.QUEUED, TaskStatus.RESTORING, TaskStatus.RUNNING
+    );
 
-    public TaskScheduler(HugeGraph graph,
-                         ExecutorService taskExecutor,
-                         ExecutorService dbExecutor) {
+    public TaskScheduler(HugeGraph graph) {
+        this(graph, graph.configuration().get(CoreOptions.TASK_SERVER_ID));
+    }
+
+    public TaskScheduler(HugeGraph graph, String server) {
         E.checkNotNull(graph, "graph");
-        E.checkNotNull(taskExecutor, "taskExecutor");
-        E.checkNotNull(dbExecutor, "dbExecutor");
+        E.checkNotNull(server, "server");
 
         this.graph = graph;
-        this.taskExecutor = taskExecutor;
-        this.dbExecutor = dbExecutor;
+
+        HugeConfig config = graph.configuration();
+        if (server.isEmpty()) {
+            /*
+             * Use the host name which is stable across restarts unlike the
+             * process name(pid@host), a restarted server reclaims its tasks
+             * at once without waiting for the lease expired
+             */
+            String process = ManagementFactory.getRuntimeMXBean().getName();
+            server = process.substring(process.indexOf('@') + 1);
+        }
+        this.server = server;
+        long timeout = config.get(CoreOptions.TASK_LEASE_TIMEOUT);
+        this.leaseTimeout = TimeUnit.SECONDS.toMillis(timeout);
+        this.leaseExecutor = Executors.newSingleThreadScheduledExecutor(
+                             new BasicThreadFactory.Builder()
+                             .namingPattern(threadName(TASK_LEASE_WORKER))
+                             .build());
+        this.leaseKeeping = new AtomicBoolean(false);
+        this.takingOver = false;
+
+        this.maxPendingTasks = config.get(CoreOptions.TASK_MAX_PENDING);
+        this.priorTypes = ImmutableSet.copyOf(
+                          config.get(CoreOptions.TASK_PRIOR_TYPES));
+        this.typeQuotas = parseTypeQuotas(
+                          config.get(CoreOptions.TASK_TYPE_QUOTAS));
+        this.admittedTypes = new HashMap<>();
+        this.admittedTasks = new HashSet<>();
+        this.waitingTasks = new HashMap<>();
+
+        this.submitTimes = new ConcurrentHashMap<>();
+        this.queuedSequence = new AtomicLong(0L);
+        this.startedTasks = new AtomicLong(0L);
+        this.waitedTime = new AtomicLong(0L);
+
+        this.unsavedTasks = new ConcurrentHashMap<>();
+
+        // For execute tasks
+        int workers = config.get(CoreOptions.TASK_WORKERS);
+        this.taskExecutor = this.newTaskExecutor(workers);
+        // For save/query task state, just one thread with batch writes
+        this.dbExecutor = ExecutorUtil.newFixedThreadPool(
+                          1, threadName(TaskManager.TASK_DB_WORKER));
 
         this.tasks = new ConcurrentHashMap<>();
 
+        this.tasksChangedLock = new Object();
+        this.tasksChanges = 0L;
+        this.taskWaiters = new ConcurrentHashMap<>();
+
         this.taskTx = null;
 
         this.eventListener = this.listenChanges();
@@ -98,10 +220,121 @@ public class TaskScheduler {
         return this.graph;
     }
 
+    public String server() {
+        return this.server;
+    }
+
     public int pendingTasks() {
         return this.tasks.size();
     }
 
+    public int workers() {
+        return this.taskExecutor.getCorePoolSize();
+    }
+
+    public int runningTasks() {
+        return this.taskExecutor.getActiveCount();
+    }
+
+    public int queuedTasks() {
+        int size = this.taskExecutor.getQueue().size();
+        synchronized (this.admittedTasks) {
+            for (Queue<HugeTask<?>> waiting : this.waitingTasks.values()) {
+                size += waiting.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The total time in milliseconds of the started tasks waited in queue
+     */
+    public long waitedTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.waitedTime.get());
+    }
+
+    public long startedTasks() {
+        return this.startedTasks.get();
+    }
+
+    private String threadName(String pattern) {
+        return this.graph.name() + "-" + pattern;
+    }
+
+    private ThreadPoolExecutor newTaskExecutor(int workers) {
+        ThreadFactory factory = new BasicThreadFactory.Builder()
+                                .namingPattern(threadName(
+                                               TaskManager.TASK_WORKER))
+                                .build();
+        BlockingQueue<Runnable> queue = new TaskQueue(this.maxPendingTasks);
+        RejectedExecutionHandler rejected = (runnable, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException(String.format(
+                          "The task executor of graph '%s' has been shutdown",
+                          this.graph.name()));
+            }
+            throw new IllegalArgumentException(String.format(
+                      "Pending tasks size %s has exceeded the max limit %s",
+                      this.queuedTasks() + 1, this.maxPendingTasks));
+        };
+        return new ThreadPoolExecutor(workers, workers, 0L,
+                                      TimeUnit.MILLISECONDS, queue, factory,
+                                      rejected) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable) {
+                TaskScheduler.this.taskStarted(runnable);
+            }
+
+            @Override
+            protected void terminated() {
+                // The running tasks have been saved, no more db jobs
+                TaskScheduler.this.dbExecutor.shutdown();
+            }
+        };
+    }
+
+    private void execute(HugeTask<?> task, boolean bounded) {
+        int rank = this.priorTypes.contains(task.type()) ? 1 : 2;
+        long time = this.submitTimes.getOrDefault(task.id(),
+                                                  System.nanoTime());
+        this.taskExecutor.execute(new QueuedTask(task, rank,
+                                                 this.queuedSequence
+                                                     .incrementAndGet(),
+                                                 time, bounded));
+    }
+
+    private void taskStarted(Runnable runnable) {
+        if (!(runnable instanceof QueuedTask)) {
+            return;
+        }
+        QueuedTask queued = (QueuedTask) runnable;
+        this.waitedTime.addAndGet(System.nanoTime() - queued.submitTime);
+        this.startedTasks.incrementAndGet();
+    }
+
+    private static Map<String, Integer> parseTypeQuotas(List<String> quotas) {
+        Map<String, Integer> results = new HashMap<>();
+        for (String quota : quotas) {
+            // The format of `quota` like: `gremlin: 2`
+            String[] pair = quota.split(":", 2);
+            E.checkArgument(pair.length == 2,
+                            "Invalid task type quota format: '%s', " +
+                            "expect `TYPE:QUOTA`", quota);
+            int value;
+            try {
+                value = Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format(
+                          "Invalid task type quota value: '%s'", quota));
+            }
+            E.checkArgument(value > 0,
+                            "The task type quota must be > 0, but got '%s'",
+                            quota);
+            results.put(pair[0].trim(), value);
+        }
+        return results;
+    }
+
     private TaskTransaction tx() {
         // NOTE: only the owner thread can access task tx
         if (this.taskTx == null) {
@@ -138,12 +371,110 @@ public class TaskScheduler {
     }
 
     public <V> void restoreTasks() {
-        // Restore 'RESTORING', 'RUNNING' and 'QUEUED' tasks in order.
-        for (TaskStatus status : TaskStatus.PENDING_STATUSES) {
+        // Take over the tasks whose lease expired periodically from now on
+        this.takingOver = true;
+        this.keepLeases();
+        this.takeOverTasks(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Take over the pending tasks whose owner server has been lost (the
+     * lease expired) or is this server (restarted), at most `limit` ones
+     */
+    public <V> int takeOverTasks(int limit) {
+        /*
+         * A task only turns to 'RUNNING' from 'QUEUED' or 'RESTORING', scan
+         * 'RUNNING' tasks at last to find the ones changed status during
+         * scanning, the later loaded one is newer
+         */
+        Map<Id, HugeTask<V>> pendings = new HashMap<>();
+        for (TaskStatus status : SCAN_STATUSES) {
             Iterator<HugeTask<V>> iter = this.findTask(status, NO_LIMIT);
             while (iter.hasNext()) {
                 HugeTask<V> task = iter.next();
+                if (!this.tasks.containsKey(task.id())) {
+                    pendings.put(task.id(), task);
+                }
+            }
+        }
+
+        // Restore 'RESTORING', 'RUNNING' and 'QUEUED' tasks in order
+        List<HugeTask<V>> candidates = new ArrayList<>(pendings.values());
+        candidates.sort(Comparator.comparingInt(task -> {
+            return TaskStatus.PENDING_STATUSES.indexOf(task.status());
+        }));
+
+        int count = 0;
+        for (HugeTask<V> task : candidates) {
+            if (count >= limit) {
+                break;
+            }
+            String owner = task.server();
+            // The status and epoch are checked again when claiming
+            if (this.claim(task)) {
+                LOG.info("Take over task '{}' of server '{}' for graph '{}'",
+                         task.id(), owner, this.graph.name());
                 this.restore(task);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private <V> boolean claim(HugeTask<V> task) {
+        // The owner server is alive if the lease is not expired
+        long now = System.currentTimeMillis();
+        boolean expired = task.lease() == null ||
+                          task.lease().getTime() < now;
+        if (!expired && !this.server.equals(task.server())) {
+            return false;
+        }
+        Date lease = new Date(now + this.leaseTimeout);
+        return this.call(() -> this.tx().claimTask(task, this.server, lease));
+    }
+
+    /**
+     * Renew the lease of the tasks owned by this server, and cancel the
+     * ones which have been taken over or cancelled by other servers
+     */
+    public void renewLeases() {
+        Date lease = new Date(System.currentTimeMillis() + this.leaseTimeout);
+        for (HugeTask<?> task : this.tasks.values()) {
+            if (!task.completed()) {
+                task.lease(lease);
+                this.unsavedTasks.put(task.id(), task);
+            }
+        }
+        if (!this.unsavedTasks.isEmpty()) {
+            this.cancelFenced(this.call(this::saveTasks));
+        }
+    }
+
+    private void keepLeases() {
+        if (!this.leaseKeeping.compareAndSet(false, true)) {
+            return;
+        }
+        long period = Math.max(this.leaseTimeout / 3L, 1L);
+        this.leaseExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                this.renewLeases();
+                int idle = this.workers() - this.pendingTasks();
+                if (this.takingOver && idle > 0) {
+                    this.takeOverTasks(idle);
+                }
+            } catch (Throwable e) {
+                LOG.warn("Failed to keep the task leases of graph '{}'",
+                         this.graph.name(), e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelFenced(List<HugeTask<?>> tasks) {
+        for (HugeTask<?> task : tasks) {
+            if (this.tasks.get(task.id()) == task && !task.completed()) {
+                LOG.info("Cancel task '{}' which is taken over or cancelled " +
+                         "by other servers", task.id());
+                this.cancel(task);
             }
         }
     }
@@ -160,24 +491,54 @@ public class TaskScheduler {
     public <V> Future<?> schedule(HugeTask<V> task) {
         E.checkArgumentNotNull(task, "Task can't be null");
         task.status(TaskStatus.QUEUED);
+        task.server(this.server);
+        task.lease(new Date(System.currentTimeMillis() + this.leaseTimeout));
+        this.keepLeases();
         return this.submitTask(task);
     }
 
     private <V> Future<?> submitTask(HugeTask<V> task) {
-        int size = this.tasks.size() + 1;
-        E.checkArgument(size <= MAX_PENDING_TASKS,
-                        "Pending tasks size %s has exceeded the max limit %s",
-                        size, MAX_PENDING_TASKS);
-        this.tasks.put(task.id(), task);
+        // A re-scheduled task has been counted when submitted at first
+        boolean submitted = this.tasks.putIfAbsent(task.id(), task) == null;
         task.callable().scheduler(this);
         task.callable().task(task);
-        return this.taskExecutor.submit(task);
+        // Keep the submit time of a re-scheduled task
+        this.submitTimes.putIfAbsent(task.id(), System.nanoTime());
+        try {
+            if (this.admit(task, submitted)) {
+                // Rejected by the executor if the queue is full
+                this.execute(task, submitted);
+            }
+        } catch (IllegalArgumentException e) {
+            this.tasks.remove(task.id());
+            this.submitTimes.remove(task.id());
+            HugeTask<?> next = this.release(task);
+            if (next != null) {
+                this.execute(next, false);
+            }
+            throw e;
+        }
+        this.notifyTasksChanged();
+        return task;
     }
 
     public <V> void cancel(HugeTask<V> task) {
         E.checkArgumentNotNull(task, "Task can't be null");
+        if (this.tasks.get(task.id()) != task) {
+            /*
+             * The task is not running in this server, mark it cancelled in
+             * the backend, and the owner server will cancel it at the next
+             * time of saving the task or renewing the lease
+             */
+            this.call(() -> this.tx().cancelTask(task));
+            return;
+        }
         if (!task.completed()) {
             task.cancel(true);
+            this.taskExecutor.getQueue().removeIf(runnable -> {
+                return runnable instanceof QueuedTask &&
+                       ((QueuedTask) runnable).task == task;
+            });
             this.remove(task.id());
         }
     }
@@ -185,21 +546,144 @@ public class TaskScheduler {
     protected void remove(Id id) {
         HugeTask<?> task = this.tasks.remove(id);
         assert task == null || task.completed();
+        this.submitTimes.remove(id);
+        if (task != null) {
+            HugeTask<?> next = this.release(task);
+            if (next != null) {
+                // The waiting task has been counted in the pending tasks
+                this.execute(next, false);
+            }
+            this.completeWaiters(id, task);
+        }
+        this.notifyTasksChanged();
+    }
+
+    private boolean admit(HugeTask<?> task, boolean bounded) {
+        String type = task.type();
+        synchronized (this.admittedTasks) {
+            if (this.admittedTasks.contains(task.id())) {
+                // The task is re-scheduled (waiting for dependencies)
+                return true;
+            }
+            Integer quota = this.typeQuotas.get(type);
+            int admitted = this.admittedTypes.getOrDefault(type, 0);
+            if (quota != null && admitted >= quota) {
+                int size = this.queuedTasks() + 1;
+                E.checkArgument(!bounded || size <= this.maxPendingTasks,
+                                "Pending tasks size %s has exceeded the " +
+                                "max limit %s", size, this.maxPendingTasks);
+                this.waitingTasks.computeIfAbsent(type,
+                                                  k -> new ArrayDeque<>())
+                                 .add(task);
+                return false;
+            }
+            this.admittedTypes.put(type, admitted + 1);
+            this.admittedTasks.add(task.id());
+            return true;
+        }
+    }
+
+    private HugeTask<?> release(HugeTask<?> task) {
+        String type = task.type();
+        synchronized (this.admittedTasks) {
+            Queue<HugeTask<?>> waiting = this.waitingTasks.get(type);
+            if (!this.admittedTasks.remove(task.id())) {
+                // The task is cancelled while waiting for the quota
+                if (waiting != null) {
+                    waiting.remove(task);
+                }
+                return null;
+            }
+            HugeTask<?> next = waiting != null ? waiting.poll() : null;
+            if (next != null) {
+                // Hand over the quota to the next waiting task of the type
+                this.admittedTasks.add(next.id());
+            } else {
+                int admitted = this.admittedTypes.get(type) - 1;
+                if (admitted > 0) {
+                    this.admittedTypes.put(type, admitted);
+                } else {
+                    this.admittedTypes.remove(type);
+                }
+            }
+            return next;
+        }
+    }
+
+    private void notifyTasksChanged() {
+        synchronized (this.tasksChangedLock) {
+            this.tasksChanges++;
+            this.tasksChangedLock.notifyAll();
+        }
+    }
+
+    private long tasksChanges() {
+        synchronized (this.tasksChangedLock) {
+            return this.tasksChanges;
+        }
+    }
+
+    private void waitTasksChanged(long changes, long deadline) {
+        synchronized (this.tasksChangedLock) {
+            long timeout = deadline - System.currentTimeMillis();
+            if (changes != this.tasksChanges || timeout <= 0L) {
+                return;
+            }
+            try {
+                this.tasksChangedLock.wait(timeout);
+            } catch (InterruptedException ignored) {
+                // Ignore InterruptedException
+            }
+        }
     }
 
     public <V> void save(HugeTask<V> task) {
         E.checkArgumentNotNull(task, "Task can't be null");
-        this.call(() -> {
-            // Construct vertex from task
-            HugeVertex vertex = this.tx().constructVertex(task);
-            // TODO: delete index of old vertex
-            // this.tx().deleteIndex(vertex);
-            // Add or update task info in backend store, stale index might exist
-            return this.tx().addVertex(vertex);
-        });
+        this.unsavedTasks.put(task.id(), task);
+        /*
+         * The task will be saved by this call or an earlier one which is
+         * still in the queue of db worker, the tasks saved concurrently
+         * are batched into one commit
+         */
+        this.cancelFenced(this.call(this::saveTasks));
+    }
+
+    private List<HugeTask<?>> saveTasks() {
+        List<HugeTask<?>> tasks = new ArrayList<>();
+        for (Id id : this.unsavedTasks.keySet()) {
+            HugeTask<?> task = this.unsavedTasks.remove(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        if (tasks.isEmpty()) {
+            return ImmutableList.of();
+        }
+        try {
+            return this.tx().saveTasks(tasks);
+        } catch (Throwable e) {
+            // Let the following calls retry to save the tasks
+            for (HugeTask<?> task : tasks) {
+                this.unsavedTasks.putIfAbsent(task.id(), task);
+            }
+            throw e;
+        }
     }
 
     public boolean close() {
+        this.leaseExecutor.shutdownNow();
+        for (Id id : this.taskWaiters.keySet()) {
+            List<CompletableFuture<HugeTask<?>>> waiters;
+            waiters = this.taskWaiters.remove(id);
+            if (waiters == null) {
+                continue;
+            }
+            for (CompletableFuture<HugeTask<?>> waiter : waiters) {
+                waiter.completeExceptionally(new HugeException(
+                       "The task scheduler of graph '%s' has been closed",
+                       this.graph.name()));
+            }
+        }
         this.unlistenChanges();
         if (!this.dbExecutor.isShutdown()) {
             this.call(() -> {
@@ -207,9 +691,64 @@ public class TaskScheduler {
                 this.graph.closeTx();
             });
         }
+        this.closeTaskTx();
+        /*
+         * The running tasks will go on until completed, and the db executor
+         * will be shutdown after the task executor terminated
+         */
+        this.taskExecutor.shutdown();
         return true;
     }
 
+    private void closeTaskTx() {
+        final int workers = this.workers();
+        final Map<Thread, Integer> threadsTimes = new ConcurrentHashMap<>();
+        final List<Callable<Void>> tasks = new ArrayList<>();
+
+        final Callable<Void> closeTx = () -> {
+            Thread current = Thread.currentThread();
+            threadsTimes.putIfAbsent(current, 0);
+            int times = threadsTimes.get(current);
+            if (times == 0) {
+                // Do close-tx for current thread
+                this.graph.closeTx();
+                // Let other threads run
+                Thread.yield();
+            } else {
+                assert times < workers;
+                assert threadsTimes.size() < workers;
+                E.checkState(tasks.size() == workers,
+                             "Bad tasks size: %s", tasks.size());
+                // Let another thread run and wait for it
+                this.taskExecutor.invokeAny(tasks.subList(0, 1));
+            }
+            threadsTimes.put(current, ++times);
+            return null;
+        };
+
+        // NOTE: expect each thread to perform a close operation
+        for (int i = 0; i < workers; i++) {
+            tasks.add(closeTx);
+        }
+        try {
+            this.taskExecutor.invokeAll(tasks);
+        } catch (Exception e) {
+            throw new HugeException("Exception when closing task tx", e);
+        }
+    }
+
+    protected boolean shutdown(long timeout) throws InterruptedException {
+        final TimeUnit unit = TimeUnit.SECONDS;
+        this.taskExecutor.shutdown();
+        boolean terminated = this.taskExecutor.awaitTermination(timeout, unit);
+        if (terminated) {
+            // Has been shutdown by the task executor when terminated
+            assert this.dbExecutor.isShutdown();
+            terminated = this.dbExecutor.awaitTermination(timeout, unit);
+        }
+        return terminated;
+    }
+
     public <V> HugeTask<V> task(Id id) {
         E.checkArgumentNotNull(id, "Parameter task id can't be null");
         @SuppressWarnings("unchecked")
@@ -305,42 +844,125 @@ public class TaskScheduler {
 
     public <V> HugeTask<V> waitUntilTaskCompleted(Id id, long seconds)
                                                   throws TimeoutException {
-        long passes = seconds * 1000 / QUERY_INTERVAL;
-        for (long pass = 0;; pass++) {
-            HugeTask<V> task = this.task(id);
+        long deadline = System.currentTimeMillis() + seconds * 1000L;
+        HugeTask<V> task = null;
+        while (true) {
+            long changes = this.tasksChanges();
+            // Reload the task if it's not the one running in memory
+            if (task == null ||
+                !task.completed() && this.tasks.get(id) != task) {
+                task = this.task(id);
+            }
             if (task.completed()) {
                 return task;
             }
-            if (pass >= passes) {
+            if (System.currentTimeMillis() >= deadline) {
                 break;
             }
-            try {
-                Thread.sleep(QUERY_INTERVAL);
-            } catch (InterruptedException ignored) {
-                // Ignore InterruptedException
+            /*
+             * Wait until the task is removed from memory after completed,
+             * a task only in the backend (like to be restored or running in
+             * other servers) will be reloaded after any task submitted or
+             * removed, or periodically
+             */
+            long until = deadline;
+            if (this.tasks.get(id) != task) {
+                until = Math.min(deadline, System.currentTimeMillis() +
+                                           this.leaseTimeout / 3L);
             }
+            this.waitTasksChanged(changes, until);
         }
         throw new TimeoutException(String.format(
                   "Task '%s' was not completed in %s seconds", id, seconds));
     }
 
+    /**
+     * Like waitUntilTaskCompleted(), but the caller is not blocked: the
+     * returned future is completed with the task once it's completed, by the
+     * thread removing it from memory, or by the lease worker which reloads
+     * it periodically if it's running in other servers, or completed with
+     * the incomplete task after the timeout
+     */
+    public CompletableFuture<HugeTask<?>> waitUntilTaskCompletedAsync(
+                                          Id id, long seconds) {
+        CompletableFuture<HugeTask<?>> waiter = new CompletableFuture<>();
+        HugeTask<?> task = this.task(id);
+        if (task.completed() || seconds <= 0L) {
+            waiter.complete(task);
+            return waiter;
+        }
+
+        this.taskWaiters.compute(id, (key, waiters) -> {
+            if (waiters == null) {
+                waiters = new ArrayList<>();
+            }
+            waiters.add(waiter);
+            return waiters;
+        });
+        /*
+         * Reload the task at once in case it's completed before the waiter
+         * added, then periodically like renewing the leases
+         */
+        long period = Math.max(this.leaseTimeout / 3L, 1L);
+        ScheduledFuture<?> poller = this.leaseExecutor.scheduleWithFixedDelay(
+                                    () -> this.pollTask(id, waiter, false),
+                                    0L, period, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> timer = this.leaseExecutor.schedule(
+                                   () -> this.pollTask(id, waiter, true),
+                                   seconds, TimeUnit.SECONDS);
+        waiter.whenComplete((result, e) -> {
+            poller.cancel(false);
+            timer.cancel(false);
+            this.taskWaiters.computeIfPresent(id, (key, waiters) -> {
+                waiters.remove(waiter);
+                return waiters.isEmpty() ? null : waiters;
+            });
+        });
+        return waiter;
+    }
+
+    private void pollTask(Id id, CompletableFuture<HugeTask<?>> waiter,
+                          boolean timeout) {
+        try {
+            HugeTask<?> task = this.task(id);
+            if (task.completed() || timeout) {
+                waiter.complete(task);
+            }
+        } catch (Throwable e) {
+            waiter.completeExceptionally(e);
+        }
+    }
+
+    private void completeWaiters(Id id, HugeTask<?> task) {
+        List<CompletableFuture<HugeTask<?>>> waiters;
+        waiters = this.taskWaiters.remove(id);
+        if (waiters == null) {
+            return;
+        }
+        // Not to respond the waiters by the worker thread of the task
+        for (CompletableFuture<HugeTask<?>> waiter : waiters) {
+            try {
+                this.leaseExecutor.execute(() -> waiter.complete(task));
+            } catch (RejectedExecutionException e) {
+                waiter.complete(task);
+            }
+        }
+    }
+
     public void waitUntilAllTasksCompleted(long seconds)
                                            throws TimeoutException {
-        long passes = seconds * 1000 / QUERY_INTERVAL;
+        long deadline = System.currentTimeMillis() + seconds * 1000L;
         int taskSize = 0;
-        for (long pass = 0;; pass++) {
+        while (true) {
+            long changes = this.tasksChanges();
             taskSize = this.pendingTasks();
             if (taskSize == 0) {
                 return;
             }
-            if (pass >= passes) {
+            if (System.currentTimeMillis() >= deadline) {
                 break;
             }
-            try {
-                Thread.sleep(QUERY_INTERVAL);
-            } catch (InterruptedException ignored) {
-                // Ignore InterruptedException
-            }
+            this.waitTasksChanged(changes, deadline);
         }
         throw new TimeoutException(String.format(
                   "There are still %s incomplete tasks after %s seconds",
@@ -398,6 +1020,79 @@ public class TaskScheduler {
         }
     }
 
+    /**
+     * The queue of task executor, tasks of prior types first, then the
+     * earlier queued first, and the new tasks are rejected once the queued
+     * tasks (including the ones waiting for quota) reach the capacity
+     */
+    private class TaskQueue extends PriorityBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = 4391245893829485201L;
+
+        private final int capacity;
+
+        public TaskQueue(int capacity) {
+            super(QUEUE_CAPACITY, QueuedTask::compare);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(Runnable runnable) {
+            if (runnable instanceof QueuedTask &&
+                ((QueuedTask) runnable).bounded &&
+                TaskScheduler.this.queuedTasks() >= this.capacity) {
+                return false;
+            }
+            return super.offer(runnable);
+        }
+    }
+
+    /**
+     * The task in the queue of task executor, with the order fixed when
+     * queued, the unbounded ones have been counted in the pending tasks
+     */
+    private static class QueuedTask implements Runnable {
+
+        private final HugeTask<?> task;
+        private final int rank;
+        private final long sequence;
+        private final long submitTime;
+        private final boolean bounded;
+
+        public QueuedTask(HugeTask<?> task, int rank, long sequence,
+                          long submitTime, boolean bounded) {
+            this.task = task;
+            this.rank = rank;
+            this.sequence = sequence;
+            this.submitTime = submitTime;
+            this.bounded = bounded;
+        }
+
+        @Override
+        public void run() {
+            this.task.run();
+        }
+
+        private static int compare(Runnable r1, Runnable r2) {
+            int cmp = Integer.compare(rank(r1), rank(r2));
+            if (cmp != 0) {
+                return cmp;
+            }
+            return Long.compare(sequence(r1), sequence(r2));
+        }
+
+        private static int rank(Runnable runnable) {
+            // Internal jobs of scheduler like closing tx are the first
+            return runnable instanceof QueuedTask ?
+                   ((QueuedTask) runnable).rank : 0;
+        }
+
+        private static long sequence(Runnable runnable) {
+            return runnable instanceof QueuedTask ?
+                   ((QueuedTask) runnable).sequence : 0L;
+        }
+    }
+
     private static class TaskTransaction extends GraphTransaction {
 
         public static final String TASK = P.TASK;
@@ -407,6 +1102,104 @@ public class TaskScheduler {
             this.autoCommit(true);
         }
 
+        public List<HugeTask<?>> saveTasks(List<HugeTask<?>> tasks) {
+            List<HugeTask<?>> fenced = new ArrayList<>();
+            // Commit the tasks in batch instead of one by one
+            this.autoCommit(false);
+            try {
+                for (HugeTask<?> task : tasks) {
+                    if (this.fenced(task)) {
+                        fenced.add(task);
+                        continue;
+                    }
+                    // Construct vertex from task
+                    HugeVertex vertex = this.constructVertex(task);
+                    this.deleteIndex(vertex);
+                    // Add or update task info in backend store
+                    this.addVertex(vertex);
+                    this.commitIfGtSize(COMMIT_BATCH);
+                }
+                this.commit();
+            } catch (Throwable e) {
+                this.rollback();
+                throw e;
+            } finally {
+                this.autoCommit(true);
+            }
+            return fenced;
+        }
+
+        public boolean claimTask(HugeTask<?> task, String server, Date lease) {
+            HugeTask<?> stored = this.storedTask(task.id());
+            if (stored == null || !TaskStatus.PENDING_STATUSES.contains(
+                                   stored.status())) {
+                return false;
+            }
+            // Someone else has taken over or renewed it since it was read
+            if (stored.epoch() != task.epoch() ||
+                !Objects.equals(stored.server(), task.server()) ||
+                !Objects.equals(stored.lease(), task.lease())) {
+                return false;
+            }
+
+            task.server(server);
+            task.lease(lease);
+            task.epoch(task.epoch() + 1);
+            HugeVertex vertex = this.constructVertex(task);
+            this.deleteIndex(vertex);
+            this.addVertex(vertex);
+            this.commit();
+
+            /*
+             * There is no compare-and-set in backend store, the last writer
+             * wins if several servers claim the task at the same time, and
+             * the losers are fenced when they save or renew it. If several
+             * servers read back their own claims before the last one is
+             * written, they all run the task until fenced, which is within
+             * a third of the lease timeout
+             */
+            stored = this.storedTask(task.id());
+            return stored != null && server.equals(stored.server()) &&
+                   stored.epoch() == task.epoch();
+        }
+
+        public void cancelTask(HugeTask<?> task) {
+            HugeTask<?> stored = this.storedTask(task.id());
+            if (stored == null || stored.completed()) {
+                return;
+            }
+            stored.status(TaskStatus.CANCELLED);
+            HugeVertex vertex = this.constructVertex(stored);
+            this.deleteIndex(vertex);
+            this.addVertex(vertex);
+            this.commit();
+            task.status(TaskStatus.CANCELLED);
+        }
+
+        private boolean fenced(HugeTask<?> task) {
+            HugeTask<?> stored = this.storedTask(task.id());
+            if (stored == null) {
+                return false;
+            }
+            // Taken over by other server
+            if (stored.epoch() > task.epoch() ||
+                stored.server() != null &&
+                !stored.server().equals(task.server())) {
+                return true;
+            }
+            // Cancelled by other server
+            return stored.status() == TaskStatus.CANCELLED &&
+                   !task.completed();
+        }
+
+        private HugeTask<?> storedTask(Id id) {
+            Iterator<Vertex> vertices = this.queryVertices(id);
+            if (!vertices.hasNext()) {
+                return null;
+            }
+            return HugeTask.fromVertex(vertices.next());
+        }
+
         public HugeVertex constructVertex(HugeTask<?> task) {
             if (this.graph().schemaTransaction().getVertexLabel(TASK) == null) {
                 throw new HugeException("Schema is missing for task(%s) '%s'",
@@ -422,17 +1215,20 @@ public class TaskScheduler {
             return false;
         }
 
-        @SuppressWarnings("unused")
         private void deleteIndex(HugeVertex vertex) {
-            // Delete the old record if exist
+            // Delete the status index of the old record if exist
             Iterator<Vertex> old = this.queryVertices(vertex.id());
             if (old.hasNext()) {
                 HugeVertex oldV = (HugeVertex) old.next();
                 assert !old.hasNext();
                 if (this.indexValueChanged(oldV, vertex)) {
-                    // Only delete vertex if index value changed else override
-                    // TODO: just delete index instead of removing old vertex
-                    this.removeVertex(oldV);
+                    /*
+                     * Only delete index if index value changed, the index of
+                     * new status is added when committing the vertex. The
+                     * pending tasks are scanned by status periodically to
+                     * take over, so don't leave stale index there
+                     */
+                    this.indexTransaction().updateVertexIndex(oldV, true);
                 }
             }
         }
@@ -441,6 +1237,7 @@ public class TaskScheduler {
             HugeGraph graph = this.graph();
             VertexLabel label = graph.schemaTransaction().getVertexLabel(TASK);
             if (label != null) {
+                this.upgradeSchema(label);
                 return;
             }
 
@@ -451,7 +1248,8 @@ public class TaskScheduler {
                          .properties(properties)
                          .useCustomizeNumberId()
                          .nullableKeys(P.DESCRIPTION, P.UPDATE,
-                                       P.INPUT, P.RESULT, P.DEPENDENCIES)
+                                       P.INPUT, P.RESULT, P.DEPENDENCIES,
+                                       P.SERVER, P.LEASE, P.EPOCH)
                          .enableLabelIndex(true)
                          .build();
             graph.schemaTransaction().addVertexLabel(label);
@@ -460,6 +1258,20 @@ public class TaskScheduler {
             this.createIndex(label, P.STATUS);
         }
 
+        private void upgradeSchema(VertexLabel label) {
+            // Add the lease properties to the label created by old version
+            HugeGraph graph = this.graph();
+            if (graph.schemaTransaction().getPropertyKey(P.EPOCH) != null) {
+                return;
+            }
+            for (String key : this.initLeaseProperties()) {
+                Id id = graph.schemaTransaction().getPropertyKey(key).id();
+                label.property(id);
+                label.nullableKey(id);
+            }
+            graph.schemaTransaction().addVertexLabel(label);
+        }
+
         private String[] initProperties() {
             List<String> props = new ArrayList<>();
 
@@ -476,10 +1288,21 @@ public class TaskScheduler {
             props.add(createPropertyKey(P.RESULT));
             props.add(createPropertyKey(P.DEPENDENCIES, DataType.LONG,
                                         Cardinality.SET));
+            props.addAll(this.initLeaseProperties());
 
             return props.toArray(new String[0]);
         }
 
+        private List<String> initLeaseProperties() {
+            List<String> props = new ArrayList<>();
+
+            props.add(createPropertyKey(P.SERVER));
+            props.add(createPropertyKey(P.LEASE, DataType.DATE));
+            props.add(createPropertyKey(P.EPOCH, DataType.INT));
+
+            return props;
+        }
+
         private String createPropertyKey(String name) {
             return this.createPropertyKey(name, DataType.TEXT);
         }
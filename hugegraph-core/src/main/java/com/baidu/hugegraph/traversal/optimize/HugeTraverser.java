@@ -78,18 +78,23 @@ public class HugeTraverser {
                                               sourceV, targetV, dir, labelId,
                                               degree, capacity);
         List<Id> path;
-        while (true) {
-            // Found, reach max depth or reach capacity, stop searching
-            if ((path = traverser.forward()) != PATH_NONE ||
-                --depth <= 0 || traverser.reachCapacity()) {
-                break;
-            }
+        GraphTransaction tx = this.beginSnapshot();
+        try {
+            while (true) {
+                // Found, reach max depth or reach capacity, stop searching
+                if ((path = traverser.forward()) != PATH_NONE ||
+                    --depth <= 0 || traverser.reachCapacity()) {
+                    break;
+                }
 
-            if ((path = traverser.backward()) != PATH_NONE ||
-                --depth <= 0 || traverser.reachCapacity()) {
-                Collections.reverse(path);
-                break;
+                if ((path = traverser.backward()) != PATH_NONE ||
+                    --depth <= 0 || traverser.reachCapacity()) {
+                    Collections.reverse(path);
+                    break;
+                }
             }
+        } finally {
+            tx.endSnapshot();
         }
         return path;
     }
@@ -118,21 +123,26 @@ public class HugeTraverser {
         Id labelId = this.getEdgeLabelId(label);
         PathsTraverser traverser = new PathsTraverser(sourceV, targetV, labelId,
                                                       degree, capacity, limit);
-        while (true) {
-            if (--depth < 0 || traverser.reachLimit()) {
-                break;
-            }
-            List<Path> foundPaths = traverser.forward(sourceDir);
-            paths.addAll(foundPaths);
+        GraphTransaction tx = this.beginSnapshot();
+        try {
+            while (true) {
+                if (--depth < 0 || traverser.reachLimit()) {
+                    break;
+                }
+                List<Path> foundPaths = traverser.forward(sourceDir);
+                paths.addAll(foundPaths);
 
-            if (--depth < 0 || traverser.reachLimit()) {
-                break;
-            }
-            foundPaths = traverser.backward(targetDir);
-            for (Path path : foundPaths) {
-                path.reverse();
-                paths.add(path);
+                if (--depth < 0 || traverser.reachLimit()) {
+                    break;
+                }
+                foundPaths = traverser.backward(targetDir);
+                for (Path path : foundPaths) {
+                    path.reverse();
+                    paths.add(path);
+                }
             }
+        } finally {
+            tx.endSnapshot();
         }
         return paths;
     }
@@ -164,12 +174,17 @@ public class HugeTraverser {
                                                             degree, capacity,
                                                             limit, rings);
         List<Path> paths = new ArrayList<>();
-        while (true) {
-            paths.addAll(traverser.forward(dir));
-            if (--depth < 0 || traverser.reachLimit() ||
-                traverser.finished()) {
-                break;
+        GraphTransaction tx = this.beginSnapshot();
+        try {
+            while (true) {
+                paths.addAll(traverser.forward(dir));
+                if (--depth < 0 || traverser.reachLimit() ||
+                    traverser.finished()) {
+                    break;
+                }
             }
+        } finally {
+            tx.endSnapshot();
         }
         return paths;
     }
@@ -201,30 +216,35 @@ public class HugeTraverser {
 
         long remaining = capacity == NO_LIMIT ?
                          NO_LIMIT : capacity - latest.size();
-        while (depth-- > 0) {
-            // Just get limit nodes in last layer if limit < remaining capacity
-            if (depth == 0 && limit != NO_LIMIT &&
-                (limit < remaining || remaining == NO_LIMIT)) {
-                remaining = limit;
-            }
-            if (nearest) {
-                latest = this.adjacentVertices(latest, dir, labelId, all,
-                                               degree, remaining);
-                all.addAll(latest);
-            } else {
-                latest = this.adjacentVertices(latest, dir, labelId, null,
-                                               degree, remaining);
-            }
-            if (capacity != NO_LIMIT) {
-                // Update 'remaining' value to record remaining capacity
-                remaining -= latest.size();
-
-                if (remaining <= 0 && depth > 0) {
-                    throw new ClientException(
-                              "Reach limit '%s' while remaining depth '%s'",
-                              limit, depth);
+        GraphTransaction tx = this.beginSnapshot();
+        try {
+            while (depth-- > 0) {
+                // Just get limit nodes in last layer if limit < remaining
+                if (depth == 0 && limit != NO_LIMIT &&
+                    (limit < remaining || remaining == NO_LIMIT)) {
+                    remaining = limit;
+                }
+                if (nearest) {
+                    latest = this.adjacentVertices(latest, dir, labelId, all,
+                                                   degree, remaining);
+                    all.addAll(latest);
+                } else {
+                    latest = this.adjacentVertices(latest, dir, labelId, null,
+                                                   degree, remaining);
+                }
+                if (capacity != NO_LIMIT) {
+                    // Update 'remaining' value to record remaining capacity
+                    remaining -= latest.size();
+
+                    if (remaining <= 0 && depth > 0) {
+                        throw new ClientException(
+                                  "Reach limit '%s' while remaining depth " +
+                                  "'%s'", limit, depth);
+                    }
                 }
             }
+        } finally {
+            tx.endSnapshot();
         }
 
         return latest;
@@ -247,14 +267,20 @@ public class HugeTraverser {
         Set<Id> all = newSet();
         all.add(sourceV);
 
-        while (depth-- > 0) {
-            long remaining = limit == NO_LIMIT ? NO_LIMIT : limit - all.size();
-            latest = this.adjacentVertices(latest, dir, labelId, all,
-                                           degree, remaining);
-            all.addAll(latest);
-            if (limit != NO_LIMIT && all.size() >= limit) {
-                break;
+        GraphTransaction tx = this.beginSnapshot();
+        try {
+            while (depth-- > 0) {
+                long remaining = limit == NO_LIMIT ?
+                                 NO_LIMIT : limit - all.size();
+                latest = this.adjacentVertices(latest, dir, labelId, all,
+                                               degree, remaining);
+                all.addAll(latest);
+                if (limit != NO_LIMIT && all.size() >= limit) {
+                    break;
+                }
             }
+        } finally {
+            tx.endSnapshot();
         }
 
         return all;
@@ -300,6 +326,13 @@ public class HugeTraverser {
         return this.graph.edges(query);
     }
 
+    private GraphTransaction beginSnapshot() {
+        // All the queries of a traversal read the same view of the graph
+        GraphTransaction tx = this.graph.graphTransaction();
+        tx.beginSnapshot();
+        return tx;
+    }
+
     private Id getEdgeLabelId(Object label) {
         if (label == null) {
             return null;
@@ -28,8 +28,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import org.slf4j.Logger;
 
@@ -37,6 +39,7 @@ import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.concurrent.LockManager;
 import com.baidu.hugegraph.type.HugeType;
+import com.google.common.collect.ImmutableSet;
 
 public final class LockUtil {
 
@@ -56,11 +59,23 @@ public final class LockUtil {
 
     public static final long WRITE_WAIT_TIMEOUT = 30L;
 
+    /*
+     * The read locks of these groups are acquired by each vertex or edge
+     * writing, use the striped locks instead of the ones of LockManager to
+     * avoid contention between the writing threads
+     */
+    private static final Set<String> GUARD_GROUPS = ImmutableSet.of(
+            INDEX_LABEL_DELETE, EDGE_LABEL_DELETE,
+            VERTEX_LABEL_DELETE, INDEX_LABEL_REBUILD
+    );
+
+    private static final Map<String, Map<Id, ReadWriteLock>> GUARDS =
+                         new ConcurrentHashMap<>();
+
     public static void init(String graph) {
-        LockManager.instance().create(join(graph, INDEX_LABEL_DELETE));
-        LockManager.instance().create(join(graph, EDGE_LABEL_DELETE));
-        LockManager.instance().create(join(graph, VERTEX_LABEL_DELETE));
-        LockManager.instance().create(join(graph, INDEX_LABEL_REBUILD));
+        for (String group : GUARD_GROUPS) {
+            GUARDS.put(join(graph, group), new ConcurrentHashMap<>());
+        }
         LockManager.instance().create(join(graph, INDEX_LABEL_ADD_UPDATE));
         LockManager.instance().create(join(graph, EDGE_LABEL_ADD_UPDATE));
         LockManager.instance().create(join(graph, VERTEX_LABEL_ADD_UPDATE));
@@ -68,10 +83,9 @@ public final class LockUtil {
     }
 
     public static void destroy(String graph) {
-        LockManager.instance().destroy(join(graph, INDEX_LABEL_DELETE));
-        LockManager.instance().destroy(join(graph, EDGE_LABEL_DELETE));
-        LockManager.instance().destroy(join(graph, VERTEX_LABEL_DELETE));
-        LockManager.instance().destroy(join(graph, INDEX_LABEL_REBUILD));
+        for (String group : GUARD_GROUPS) {
+            GUARDS.remove(join(graph, group));
+        }
         LockManager.instance().destroy(join(graph, INDEX_LABEL_ADD_UPDATE));
         LockManager.instance().destroy(join(graph, EDGE_LABEL_ADD_UPDATE));
         LockManager.instance().destroy(join(graph, VERTEX_LABEL_ADD_UPDATE));
@@ -85,6 +99,10 @@ public final class LockUtil {
     private static Lock lockRead(String group, String lock) {
         Lock readLock = LockManager.instance().get(group)
                                    .readWriteLock(lock).readLock();
+        return lockRead(readLock, group, lock);
+    }
+
+    private static Lock lockRead(Lock readLock, String group, Object lock) {
         LOG.debug("Trying to get the read lock '{}' of LockGroup '{}'",
                   lock, group);
         if (!readLock.tryLock()) {
@@ -99,6 +117,11 @@ public final class LockUtil {
     private static Lock lockWrite(String group, String lock, long time) {
         Lock writeLock = LockManager.instance().get(group)
                                     .readWriteLock(lock).writeLock();
+        return lockWrite(writeLock, group, lock, time);
+    }
+
+    private static Lock lockWrite(Lock writeLock, String group, Object lock,
+                                  long time) {
         LOG.debug("Trying to get the write lock '{}' of LockGroup '{}'",
                   lock, group);
         while (true) {
@@ -164,10 +187,12 @@ public final class LockUtil {
 
         private final String graph;
         private final List<Lock> lockList;
+        private final Map<String, Map<Id, ReadWriteLock>> guards;
 
         public Locks(String graph) {
             this.graph = graph;
             this.lockList = new ArrayList<>();
+            this.guards = new HashMap<>();
         }
 
         // NOTE: when used in multi-threads, should add `synchronized`
@@ -185,6 +210,10 @@ public final class LockUtil {
         }
 
         private Lock lockRead(String group, Id lock) {
+            if (GUARD_GROUPS.contains(group)) {
+                Lock readLock = this.guard(group, lock).readLock();
+                return LockUtil.lockRead(readLock, group, lock);
+            }
             return LockUtil.lockRead(join(this.graph, group), lock.asString());
         }
 
@@ -203,11 +232,29 @@ public final class LockUtil {
         }
 
         private Lock lockWrite(String group, Id lock) {
+            if (GUARD_GROUPS.contains(group)) {
+                Lock writeLock = this.guard(group, lock).writeLock();
+                return LockUtil.lockWrite(writeLock, group, lock,
+                                          WRITE_WAIT_TIMEOUT);
+            }
             return LockUtil.lockWrite(join(this.graph, group),
                                       lock.asString(),
                                       WRITE_WAIT_TIMEOUT);
         }
 
+        private ReadWriteLock guard(String group, Id lock) {
+            Map<Id, ReadWriteLock> guards = this.guards.get(group);
+            if (guards == null) {
+                guards = GUARDS.get(join(this.graph, group));
+                E.checkState(guards != null,
+                             "Lock group '%s' of graph '%s' doesn't exist",
+                             group, this.graph);
+                this.guards.put(group, guards);
+            }
+            return guards.computeIfAbsent(lock,
+                                          k -> new StripedReadWriteLock());
+        }
+
         // NOTE: when used in multi-threads, should add `synchronized`
         public void unlock() {
             Collections.reverse(this.lockList);
@@ -239,26 +286,37 @@ public final class LockUtil {
 
         // NOTE: when used in multi-threads, should add `synchronized`
         public void lockReads(String group, Collection<Id> locks) {
-            List<Id> newLocks = new ArrayList<>(locks.size());
+            List<Id> newLocks = null;
             Set<Id> locked = locksOfGroup(group);
             for (Id lock : locks) {
                 if (!locked.contains(lock)) {
+                    if (newLocks == null) {
+                        newLocks = new ArrayList<>(locks.size());
+                    }
                     newLocks.add(lock);
                 }
             }
+            if (newLocks == null) {
+                return;
+            }
             this.locks.lockReads(group, newLocks);
+            // Hold the locks until unlock(), don't lock them again
+            locked.addAll(newLocks);
         }
 
         // NOTE: when used in multi-threads, should add `synchronized`
         public void unlock() {
+            this.table.clear();
             this.locks.unlock();
         }
 
         private Set<Id> locksOfGroup(String group) {
-            if (!this.table.containsKey(group)) {
-                this.table.putIfAbsent(group, new HashSet<>());
+            Set<Id> locked = this.table.get(group);
+            if (locked == null) {
+                locked = new HashSet<>();
+                this.table.put(group, locked);
             }
-            return this.table.get(group);
+            return locked;
         }
     }
 }
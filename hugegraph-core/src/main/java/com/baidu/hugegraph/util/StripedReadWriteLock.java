@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * A read-write lock for the read-mostly schema guards: readers only touch
+ * a counter striped by thread (each in its own cache line) and a volatile
+ * writer flag, so the concurrent writing threads don't contend with each
+ * other. The writer sets the flag to refuse new readers and then waits for
+ * the in-flight readers to release.
+ *
+ * The read lock is expected to be acquired by tryLock() and fails fast if
+ * the write lock is held or being waited, the write lock is reentrant and
+ * its owner thread can also acquire the read lock.
+ */
+public class StripedReadWriteLock implements ReadWriteLock {
+
+    // Each counter takes 128 bytes to avoid false sharing
+    private static final int PADDING = 16;
+    private static final int STRIPES = stripes();
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private final AtomicLongArray readers;
+    private final AtomicReference<Thread> writer;
+    // Only accessed by the writer thread
+    private int writeHolds;
+
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    public StripedReadWriteLock() {
+        this.readers = new AtomicLongArray(STRIPES * PADDING);
+        this.writer = new AtomicReference<>();
+        this.writeHolds = 0;
+        this.readLock = new ReadLock();
+        this.writeLock = new WriteLock();
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    public long readers() {
+        long sum = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += this.readers.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    public boolean writeLocked() {
+        return this.writer.get() != null;
+    }
+
+    private static int stripe() {
+        /*
+         * The stripe of unlock() may differ from the one of lock() if it's
+         * called by other thread, it doesn't matter since only the sum of
+         * the counters is concerned
+         */
+        long id = Thread.currentThread().getId();
+        return (int) (id & (STRIPES - 1)) * PADDING;
+    }
+
+    private static int stripes() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit(Math.max(cpus, 1) * 2 - 1) << 1;
+        return Math.min(Math.max(stripes, 2), 64);
+    }
+
+    private static void await(long deadline) throws InterruptedException {
+        LockSupport.parkNanos(Math.min(WAIT_NANOS,
+                                       deadline - System.nanoTime()));
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private abstract static class AbstractLock implements Lock {
+
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    this.lockInterruptibly();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            while (!this.tryLock(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                // pass
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("newCondition");
+        }
+    }
+
+    private final class ReadLock extends AbstractLock {
+
+        @Override
+        public boolean tryLock() {
+            AtomicReference<Thread> writer = StripedReadWriteLock.this.writer;
+            AtomicLongArray readers = StripedReadWriteLock.this.readers;
+            Thread owner = writer.get();
+            if (owner != null && owner != Thread.currentThread()) {
+                return false;
+            }
+            int stripe = stripe();
+            readers.incrementAndGet(stripe);
+            // Recheck after publishing the reader, the writer does reversely
+            owner = writer.get();
+            if (owner != null && owner != Thread.currentThread()) {
+                readers.decrementAndGet(stripe);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit)
+                               throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            while (!this.tryLock()) {
+                if (System.nanoTime() - deadline >= 0L) {
+                    return false;
+                }
+                await(deadline);
+            }
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            StripedReadWriteLock.this.readers.decrementAndGet(stripe());
+        }
+    }
+
+    private final class WriteLock extends AbstractLock {
+
+        @Override
+        public boolean tryLock() {
+            try {
+                return this.tryLock(0L, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit)
+                               throws InterruptedException {
+            StripedReadWriteLock lock = StripedReadWriteLock.this;
+            Thread current = Thread.currentThread();
+            if (lock.writer.get() == current) {
+                lock.writeHolds++;
+                return true;
+            }
+
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            // Refuse new readers
+            while (!lock.writer.compareAndSet(null, current)) {
+                if (System.nanoTime() - deadline >= 0L) {
+                    return false;
+                }
+                await(deadline);
+            }
+            // Wait for the in-flight readers
+            try {
+                while (lock.readers() > 0L) {
+                    if (System.nanoTime() - deadline >= 0L) {
+                        lock.writer.set(null);
+                        return false;
+                    }
+                    await(deadline);
+                }
+            } catch (InterruptedException e) {
+                lock.writer.set(null);
+                throw e;
+            }
+            lock.writeHolds = 1;
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            StripedReadWriteLock lock = StripedReadWriteLock.this;
+            E.checkState(lock.writer.get() == Thread.currentThread(),
+                         "The write lock is not held by current thread");
+            if (--lock.writeHolds == 0) {
+                lock.writer.set(null);
+            }
+        }
+    }
+}
@@ -9,7 +9,8 @@ CONF=$BASE_DIR/conf/hugegraph.properties
 
 declare -A backend_serializer_map=(["memory"]="text" ["cassandra"]="cassandra" \
                                    ["scylladb"]="scylladb" ["mysql"]="mysql" \
-                                   ["hbase"]="hbase" ["rocksdb"]="binary")
+                                   ["hbase"]="hbase" ["rocksdb"]="binary" \
+                                   ["rocksdbmem"]="binary")
 
 SERIALIZER=${backend_serializer_map[$BACKEND]}
 
@@ -19,4 +20,9 @@ sed -i "s/serializer=.*/serializer=$SERIALIZER/" $CONF
 # Append schema.sync_deletion=true to config file
 echo "schema.sync_deletion=true" >> $CONF
 
+# Keep the data of in-memory backend inited by another process
+if [ "$BACKEND" == "rocksdbmem" ]; then
+    echo "rocksdb.mem_snapshot=true" >> $CONF
+fi
+
 $BIN/init-store.sh && $BIN/start-hugegraph.sh
@@ -109,7 +109,7 @@ public class RegisterUtil {
     public static void registerScyllaDB() {
         // Register config
         OptionSpace.register("scylladb",
-                "com.baidu.hugegraph.backend.store.cassandra.CassandraOptions");
+                "com.baidu.hugegraph.backend.store.scylladb.ScyllaDBOptions");
         // Register serializer
         SerializerFactory.register("scylladb",
                 "com.baidu.hugegraph.backend.store.cassandra.CassandraSerializer");
@@ -139,6 +139,8 @@ public class RegisterUtil {
                 "com.baidu.hugegraph.backend.store.rocksdb.RocksDBStoreProvider");
         BackendProviderFactory.register("rocksdbsst",
                 "com.baidu.hugegraph.backend.store.rocksdbsst.RocksDBSstStoreProvider");
+        BackendProviderFactory.register("rocksdbmem",
+                "com.baidu.hugegraph.backend.store.rocksdbmem.RocksDBMemStoreProvider");
     }
 
     public static void registerMysql() {
@@ -38,6 +38,11 @@ public class HbaseFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsScanInParallel() {
+        return false;
+    }
+
     @Override
     public boolean supportsQuerySchemaByName() {
         // TODO: Supports this feature through HBase secondary index
@@ -79,8 +84,8 @@ public class HbaseFeatures implements BackendFeatures {
 
     @Override
     public boolean supportsDeleteEdgeByLabel() {
-        // TODO: Supports this feature through HBase secondary index
-        return false;
+        // Delete by scanning row keys of edges with the label
+        return true;
     }
 
     @Override
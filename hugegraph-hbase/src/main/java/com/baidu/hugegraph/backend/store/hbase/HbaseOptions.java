@@ -72,4 +72,43 @@ public class HbaseOptions extends OptionHolder {
                     rangeInt(1, 1000),
                     64
             );
+
+    public static final ConfigOption<Integer> HBASE_SCAN_CACHING =
+            new ConfigOption<>(
+                    "hbase.scan_caching",
+                    "The number of rows fetched by one RPC when scanning a " +
+                    "whole table or shard, scans with a limit fetch at " +
+                    "most limit + 1 rows by one RPC.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    1000
+            );
+
+    public static final ConfigOption<Integer> HBASE_QUERY_PARALLELISM =
+            new ConfigOption<>(
+                    "hbase.query_parallelism",
+                    "The max number of regions being read concurrently " +
+                    "when getting multiple rows by ids, rows are got by " +
+                    "one multi-get if it's 1.",
+                    rangeInt(1, 1024),
+                    8
+            );
+
+    public static final ConfigOption<Integer> HBASE_WRITE_BUFFER_SIZE =
+            new ConfigOption<>(
+                    "hbase.write_buffer_size",
+                    "The size in bytes of the write buffer of each table, " +
+                    "buffered mutations are sent to HBase in background " +
+                    "once the buffer is full when committing.",
+                    rangeInt(64 * 1024, 1024 * 1024 * 1024),
+                    8 * 1024 * 1024
+            );
+
+    public static final ConfigOption<Integer> HBASE_WRITE_CONCURRENCY =
+            new ConfigOption<>(
+                    "hbase.write_concurrency",
+                    "The number of threads to send buffered mutations of " +
+                    "all tables to HBase.",
+                    rangeInt(1, 1024),
+                    8
+            );
 }
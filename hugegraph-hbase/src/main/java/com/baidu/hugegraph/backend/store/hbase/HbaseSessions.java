@@ -25,10 +25,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.apache.hadoop.conf.Configuration;
@@ -37,26 +40,38 @@ import org.apache.hadoop.hbase.CellScanner;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.NamespaceDescriptor;
 import org.apache.hadoop.hbase.RegionMetrics;
 import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.Size;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.TableNotEnabledException;
 import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutator.ExceptionListener;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.ColumnFamilyDescriptorBuilder;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
 import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Scan.ReadType;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.FilterList.Operator;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.filter.PageFilter;
@@ -71,17 +86,36 @@ import com.baidu.hugegraph.backend.store.BackendSessionPool;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
 import com.baidu.hugegraph.util.StringEncoding;
 import com.baidu.hugegraph.util.VersionUtil;
 
 public class HbaseSessions extends BackendSessionPool {
 
+    private static final String GET_WORKER = "hbase-get-worker-%d";
+    private static final String WRITE_WORKER = "hbase-write-worker-%d";
+
+    // The number of rows sampled to estimate the average size of rows
+    private static final int SAMPLE_ROWS = 1000;
+
     private final String namespace;
     private Connection hbase;
 
+    private int scanCaching;
+    private int queryParallelism;
+    private ExecutorService getWorkers;
+    private long writeBufferSize;
+    private ExecutorService writeWorkers;
+
     public HbaseSessions(String namespace, String store) {
         super(namespace + "/" + store);
         this.namespace = namespace;
+        this.scanCaching = HbaseOptions.HBASE_SCAN_CACHING.defaultValue();
+        this.queryParallelism = 1;
+        this.getWorkers = null;
+        this.writeBufferSize = HbaseOptions.HBASE_WRITE_BUFFER_SIZE
+                                           .defaultValue();
+        this.writeWorkers = null;
     }
 
     private Table table(String table) throws IOException {
@@ -105,6 +139,21 @@ public class HbaseSessions extends BackendSessionPool {
                       conf.get(HbaseOptions.HBASE_THREADS_MAX));
 
         this.hbase = ConnectionFactory.createConnection(config);
+
+        this.scanCaching = conf.get(HbaseOptions.HBASE_SCAN_CACHING);
+        this.queryParallelism = conf.get(HbaseOptions.HBASE_QUERY_PARALLELISM);
+        if (this.queryParallelism > 1 && this.getWorkers == null) {
+            this.getWorkers = ExecutorUtil.newFixedThreadPool(
+                              this.queryParallelism, GET_WORKER);
+        }
+
+        this.writeBufferSize = conf.get(HbaseOptions.HBASE_WRITE_BUFFER_SIZE);
+        if (this.writeWorkers == null) {
+            int writeConcurrency = conf.get(
+                                   HbaseOptions.HBASE_WRITE_CONCURRENCY);
+            this.writeWorkers = ExecutorUtil.newFixedThreadPool(
+                                writeConcurrency, WRITE_WORKER);
+        }
     }
 
     @Override
@@ -124,6 +173,14 @@ public class HbaseSessions extends BackendSessionPool {
 
     @Override
     protected void doClose() {
+        if (this.getWorkers != null) {
+            this.getWorkers.shutdown();
+            this.getWorkers = null;
+        }
+        if (this.writeWorkers != null) {
+            this.writeWorkers.shutdown();
+            this.writeWorkers = null;
+        }
         if (this.hbase == null || this.hbase.isClosed()) {
             return;
         }
@@ -213,29 +270,134 @@ public class HbaseSessions extends BackendSessionPool {
                 //total += load.getMemStoreSizeMB() * Bytes.MB;
                 TableName tableName = TableName.valueOf(this.namespace, table);
                 for (RegionMetrics m : admin.getRegionMetrics(rs, tableName)) {
-                    total += m.getStoreFileSize().getLongValue();
-                    total += m.getMemStoreSize().getLongValue();
+                    // NOTE: the unit of sizes is MB, getLongValue() is wrong
+                    total += m.getStoreFileSize().get(Size.Unit.BYTE);
+                    total += m.getMemStoreSize().get(Size.Unit.BYTE);
                 }
             }
         }
         return total;
     }
 
+    public long estimateNumKeys(String table) throws IOException {
+        // The uncompressed size of rows reported by region servers
+        long total = 0L;
+        TableName tableName = TableName.valueOf(this.namespace, table);
+        try(Admin admin = this.hbase.getAdmin()) {
+            for (ServerName rs : admin.getRegionServers()) {
+                for (RegionMetrics m : admin.getRegionMetrics(rs, tableName)) {
+                    total += m.getUncompressedStoreFileSize()
+                              .get(Size.Unit.BYTE);
+                    total += m.getMemStoreSize().get(Size.Unit.BYTE);
+                }
+            }
+        }
+
+        // Sample the leading rows to get the average size of rows
+        Scan scan = new Scan().setLimit(SAMPLE_ROWS).setCaching(SAMPLE_ROWS)
+                              .setCacheBlocks(false);
+        long rows = 0L;
+        long bytes = 0L;
+        try (Table htable = this.table(table);
+             ResultScanner scanner = htable.getScanner(scan)) {
+            for (Result result : scanner) {
+                rows++;
+                for (Cell cell : result.rawCells()) {
+                    bytes += CellUtil.estimatedSerializedSizeOf(cell);
+                }
+            }
+        }
+        if (rows < SAMPLE_ROWS || bytes == 0L) {
+            // All rows of the table have been sampled
+            return rows;
+        }
+        return Math.max(rows, total / (bytes / rows));
+    }
+
+    public int queryParallelism() {
+        return this.getWorkers == null ? 1 : this.queryParallelism;
+    }
+
+    protected BufferedMutator mutator(String table,
+                                      ExceptionListener listener)
+                                      throws IOException {
+        E.checkState(this.hbase != null, "HBase connection is not opened");
+        TableName tableName = TableName.valueOf(this.namespace, table);
+        BufferedMutatorParams params = new BufferedMutatorParams(tableName)
+                                       .writeBufferSize(this.writeBufferSize)
+                                       .pool(this.writeWorkers)
+                                       .listener(listener);
+        return this.hbase.getBufferedMutator(params);
+    }
+
+    private Scan tuneFullScan(Scan scan) {
+        /*
+         * Fetch more rows by each RPC, don't pollute the block cache with
+         * blocks read only once, and use stream read for large files
+         */
+        return scan.setCaching(this.scanCaching).setCacheBlocks(false)
+                   .setReadType(ReadType.STREAM);
+    }
+
+    private Scan tuneLimitScan(Scan scan, long limit) {
+        if (limit < 0L) {
+            return scan;
+        }
+        // Fetch one more row to judge whether there is a next page
+        long rows = limit + 1L;
+        if (rows < this.scanCaching) {
+            scan.setCaching((int) rows);
+        }
+        /*
+         * Each row is at least one entry or one element of an entry, so it's
+         * safe to stop scanning each region after reading `rows` rows
+         */
+        Filter page = new PageFilter(rows);
+        Filter filter = scan.getFilter();
+        if (filter == null) {
+            scan.setFilter(page);
+        } else {
+            scan.setFilter(new FilterList(Operator.MUST_PASS_ALL,
+                                          filter, page));
+        }
+        return scan;
+    }
+
+    /**
+     * Get the smallest rowkey greater than all rowkeys with the prefix,
+     * return null if there is no such rowkey (all bytes are 0xff)
+     */
+    protected static byte[] prefixEnd(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xff) {
+                byte[] end = Arrays.copyOf(prefix, i + 1);
+                end[i]++;
+                return end;
+            }
+        }
+        return null;
+    }
+
     /**
      * Session for HBase
      */
     public final class Session extends BackendSession {
 
         private boolean closed;
-        private final Map<String, List<Row>> batch;
+        private final Map<String, List<Mutation>> batch;
+        private final Map<String, BufferedMutator> mutators;
+        // The mutations failed after retries of the HBase client
+        private final List<Failure> failures;
 
         public Session() {
             this.closed = false;
             this.batch = new HashMap<>();
+            this.mutators = new HashMap<>();
+            this.failures = new CopyOnWriteArrayList<>();
         }
 
-        private void batch(String table, Row row) {
-            List<Row> rows = this.batch.get(table);
+        private void batch(String table, Mutation row) {
+            List<Mutation> rows = this.batch.get(table);
             if (rows == null) {
                 rows = new ArrayList<>();
                 this.batch.put(table, rows);
@@ -245,15 +407,55 @@ public class HbaseSessions extends BackendSessionPool {
 
         private int batchSize() {
             int size = 0;
-            for (List<Row> puts : this.batch.values()) {
+            for (List<Mutation> puts : this.batch.values()) {
                 size += puts.size();
             }
             return size;
         }
 
+        private BufferedMutator mutator(String table) throws IOException {
+            BufferedMutator mutator = this.mutators.get(table);
+            if (mutator == null) {
+                mutator = HbaseSessions.this.mutator(table, this::onFailure);
+                this.mutators.put(table, mutator);
+            }
+            return mutator;
+        }
+
+        private void closeMutator(String table) {
+            BufferedMutator mutator = this.mutators.remove(table);
+            if (mutator == null) {
+                return;
+            }
+            try {
+                mutator.close();
+            } catch (IOException ignored) {
+                // The mutations buffered in it are retained in the batch
+            }
+        }
+
+        private void closeMutators() {
+            for (String table : new ArrayList<>(this.mutators.keySet())) {
+                this.closeMutator(table);
+            }
+        }
+
+        private void onFailure(RetriesExhaustedWithDetailsException e,
+                               BufferedMutator mutator) {
+            // Record failed mutations rather than abort the flushing
+            String table = mutator.getName().getQualifierAsString();
+            for (int i = 0; i < e.getNumExceptions(); i++) {
+                this.failures.add(new Failure(table, e.getRow(i),
+                                              e.getCause(i),
+                                              e.getHostnamePort(i)));
+            }
+        }
+
         @Override
         public void close() {
             assert this.closeable();
+            // Nothing to flush after commit()
+            this.closeMutators();
             this.closed = true;
         }
 
@@ -268,6 +470,8 @@ public class HbaseSessions extends BackendSessionPool {
         @Override
         public void clear() {
             this.batch.clear();
+            // Commit with new mutators after the updates are cleared
+            this.closeMutators();
         }
 
         /**
@@ -278,8 +482,19 @@ public class HbaseSessions extends BackendSessionPool {
             return this.batch.size() > 0;
         }
 
+        /**
+         * Any change of a table in the session, the changes not committed
+         * are invisible to the reads, so a table can't be read with changes
+         * of itself, but can be read with the changes of other tables
+         */
+        public boolean hasChanges(String table) {
+            return this.batch.containsKey(table);
+        }
+
         /**
          * Commit all updates(put/delete) to DB
+         * NOTE: it's not atomic across rows, mutations failed to commit are
+         * retained in the session and could be committed again
          */
         @Override
         public Integer commit() {
@@ -288,24 +503,47 @@ public class HbaseSessions extends BackendSessionPool {
                 return 0;
             }
 
-            // TODO: this will not be atomic, to be improved
-            for (Entry<String, List<Row>> action : this.batch.entrySet()) {
-                List<Row> rows = action.getValue();
-                Object[] results = new Object[rows.size()];
-                try (Table table = table(action.getKey())) {
-                    table.batch(rows, results);
-                } catch (InterruptedException e) {
-                    // Try again
-                    continue;
-                } catch (IOException e) {
-                    // TODO: Mark and delete committed records
-                    throw new BackendException(e);
+            this.failures.clear();
+            try {
+                /*
+                 * Mutations of all tables are sent in background once the
+                 * write buffer of a table is full, then wait for the rest
+                 */
+                for (Entry<String, List<Mutation>> e : this.batch.entrySet()) {
+                    this.mutator(e.getKey()).mutate(e.getValue());
+                }
+                for (String table : this.batch.keySet()) {
+                    this.mutator(table).flush();
+                }
+            } catch (IOException e) {
+                /*
+                 * Drop the mutators which may be broken or still buffer some
+                 * mutations, and retain the batch since unknown which
+                 * mutations succeeded
+                 */
+                for (String table : this.batch.keySet()) {
+                    this.closeMutator(table);
                 }
+                throw new BackendException("Failed to commit %s mutations " +
+                                           "to HBase", e, count);
             }
 
             // Clear batch if write() successfully (retained if failed)
             this.batch.clear();
 
+            if (!this.failures.isEmpty()) {
+                // Just retain the failed mutations to be committed again
+                for (Failure failure : this.failures) {
+                    this.batch(failure.table, (Mutation) failure.row);
+                }
+                Failure first = this.failures.get(0);
+                throw new BackendException(
+                          "Failed to commit %s of %s mutations to HBase, " +
+                          "the first one is %s of table '%s' on server %s",
+                          first.cause, this.failures.size(), count,
+                          first.row, first.table, first.server);
+            }
+
             return count;
         }
 
@@ -367,7 +605,7 @@ public class HbaseSessions extends BackendSessionPool {
          */
         public RowIterator get(String table, byte[] family,
                                byte[] rowkey, byte[] qualifier) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
 
             Get get = new Get(rowkey);
             get.addColumn(family, qualifier);
@@ -383,7 +621,7 @@ public class HbaseSessions extends BackendSessionPool {
          * Get a record by rowkey from a table
          */
         public RowIterator get(String table, byte[] family, byte[] rowkey) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
 
             Get get = new Get(rowkey);
             if (family != null) {
@@ -401,8 +639,8 @@ public class HbaseSessions extends BackendSessionPool {
          * Get multi records by rowkeys from a table
          */
         public RowIterator get(String table, byte[] family,
-                               Set<byte[]> rowkeys) {
-            assert !this.hasChanges();
+                               List<byte[]> rowkeys) {
+            assert !this.hasChanges(table);
 
             List<Get> gets = new ArrayList<>(rowkeys.size());
             for (byte[] rowkey : rowkeys) {
@@ -420,14 +658,56 @@ public class HbaseSessions extends BackendSessionPool {
             }
         }
 
+        /**
+         * Get multi records by rowkeys from a table asynchronously
+         */
+        public Future<RowIterator> getAsync(String table, byte[] family,
+                                            List<byte[]> rowkeys) {
+            E.checkState(getWorkers != null,
+                         "HBase get workers are not started");
+            return getWorkers.submit(() -> this.get(table, family, rowkeys));
+        }
+
+        /**
+         * Group rowkeys by the regions they belong to, keep the order of
+         * rowkeys in each group
+         */
+        public Collection<List<byte[]>> groupByRegion(String table,
+                                                      List<byte[]> rowkeys) {
+            TableName tableName = TableName.valueOf(namespace, table);
+            Map<String, List<byte[]>> groups = new LinkedHashMap<>();
+            try (RegionLocator locator = hbase.getRegionLocator(tableName)) {
+                for (byte[] rowkey : rowkeys) {
+                    // The region locations are cached by the connection
+                    HRegionLocation location = locator.getRegionLocation(
+                                               rowkey);
+                    String region = location.getRegion().getEncodedName();
+                    List<byte[]> group = groups.get(region);
+                    if (group == null) {
+                        group = new ArrayList<>();
+                        groups.put(region, group);
+                    }
+                    group.add(rowkey);
+                }
+            } catch (IOException e) {
+                throw new BackendException(e);
+            }
+            return groups.values();
+        }
+
+        public int queryParallelism() {
+            return HbaseSessions.this.queryParallelism();
+        }
+
         /**
          * Scan all records from a table
          */
         public RowIterator scan(String table, long limit) {
-            assert !this.hasChanges();
-            Scan scan = new Scan();
+            assert !this.hasChanges(table);
+            Scan scan = tuneFullScan(new Scan());
             if (limit >= 0) {
-                scan.setFilter(new PageFilter(limit));
+                scan.setLimit((int) Math.min(limit, Integer.MAX_VALUE));
+                tuneLimitScan(scan, limit);
             }
             return this.scan(table, scan);
         }
@@ -436,15 +716,29 @@ public class HbaseSessions extends BackendSessionPool {
          * Scan records by rowkey prefix from a table
          */
         public RowIterator scan(String table, byte[] prefix) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
             return this.scan(table, prefix, true, prefix);
         }
 
+        /**
+         * Scan rowkeys (without columns) by rowkey prefix from a table
+         */
+        public RowIterator scanKeys(String table, byte[] prefix) {
+            assert !this.hasChanges(table);
+            // Just return the first cell of each row and strip its value
+            FilterList filters = new FilterList(Operator.MUST_PASS_ALL);
+            filters.addFilter(new FirstKeyOnlyFilter());
+            filters.addFilter(new KeyOnlyFilter());
+            Scan scan = new Scan().setRowPrefixFilter(prefix)
+                                  .setFilter(filters);
+            return this.scan(table, scan);
+        }
+
         /**
          * Scan records by multi rowkey prefixs from a table
          */
         public RowIterator scan(String table, Set<byte[]> prefixs) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
 
             FilterList orFilters = new FilterList(Operator.MUST_PASS_ONE);
             for (byte[] prefix : prefixs) {
@@ -466,18 +760,34 @@ public class HbaseSessions extends BackendSessionPool {
          */
         public RowIterator scan(String table, byte[] startRow,
                                 boolean inclusiveStart, byte[] prefix) {
-            assert !this.hasChanges();
+            return this.scan(table, startRow, inclusiveStart, prefix, -1L);
+        }
+
+        /**
+         * Scan records by rowkey start and prefix from a table,
+         * the limit is just a hint of the number of rows to be read
+         */
+        public RowIterator scan(String table, byte[] startRow,
+                                boolean inclusiveStart, byte[] prefix,
+                                long limit) {
+            assert !this.hasChanges(table);
             Scan scan = new Scan().withStartRow(startRow, inclusiveStart)
                                   .setFilter(new PrefixFilter(prefix));
-            return this.scan(table, scan);
+            // Stop at the end of prefix rather than filter remaining regions
+            byte[] stopRow = prefixEnd(prefix);
+            if (stopRow != null) {
+                scan.withStopRow(stopRow);
+            }
+            return this.scan(table, tuneLimitScan(scan, limit));
         }
 
         /**
          * Scan records by rowkey range from a table
          */
         public RowIterator scan(String table, byte[] startRow, byte[] stopRow) {
-            assert !this.hasChanges();
-            return this.scan(table, startRow, true, stopRow, false);
+            assert !this.hasChanges(table);
+            Scan scan = tuneFullScan(new Scan());
+            return this.scan(table, scan, startRow, true, stopRow, false);
         }
 
         /**
@@ -486,8 +796,28 @@ public class HbaseSessions extends BackendSessionPool {
         public RowIterator scan(String table,
                                 byte[] startRow, boolean inclusiveStart,
                                 byte[] stopRow, boolean inclusiveStop) {
-            assert !this.hasChanges();
-            Scan scan = new Scan().withStartRow(startRow, inclusiveStart);
+            return this.scan(table, startRow, inclusiveStart,
+                             stopRow, inclusiveStop, -1L);
+        }
+
+        /**
+         * Scan records by rowkey range from a table,
+         * the limit is just a hint of the number of rows to be read
+         */
+        public RowIterator scan(String table,
+                                byte[] startRow, boolean inclusiveStart,
+                                byte[] stopRow, boolean inclusiveStop,
+                                long limit) {
+            assert !this.hasChanges(table);
+            Scan scan = tuneLimitScan(new Scan(), limit);
+            return this.scan(table, scan, startRow, inclusiveStart,
+                             stopRow, inclusiveStop);
+        }
+
+        private RowIterator scan(String table, Scan scan,
+                                 byte[] startRow, boolean inclusiveStart,
+                                 byte[] stopRow, boolean inclusiveStop) {
+            scan.withStartRow(startRow, inclusiveStart);
             if (stopRow != null) {
                 String version = VersionInfo.getVersion();
                 if (inclusiveStop && !VersionUtil.gte(version, "2.0")) {
@@ -538,6 +868,13 @@ public class HbaseSessions extends BackendSessionPool {
             return HbaseSessions.this.storeSize(table);
         }
 
+        /**
+         * Estimate the number of keys of specified table
+         */
+        public long estimateNumKeys(String table) throws IOException {
+            return HbaseSessions.this.estimateNumKeys(table);
+        }
+
         /**
          * Just for debug
          */
@@ -562,6 +899,21 @@ public class HbaseSessions extends BackendSessionPool {
         }
     }
 
+    private static class Failure {
+
+        private final String table;
+        private final Row row;
+        private final Throwable cause;
+        private final String server;
+
+        public Failure(String table, Row row, Throwable cause, String server) {
+            this.table = table;
+            this.row = row;
+            this.cause = cause;
+            this.server = server;
+        }
+    }
+
     protected static class RowIterator implements BackendIterator<Result> {
 
         private final ResultScanner resultScanner;
@@ -586,6 +938,12 @@ public class HbaseSessions extends BackendSessionPool {
             this.results = rs.iterator();
         }
 
+        public RowIterator(Iterator<Result> results) {
+            // Like the results merged from the gets of multi regions
+            this.resultScanner = null;
+            this.results = results;
+        }
+
         @Override
         public boolean hasNext() {
             boolean has = this.results.hasNext();
@@ -613,6 +971,12 @@ public class HbaseSessions extends BackendSessionPool {
         public void close() {
             if (this.resultScanner != null) {
                 this.resultScanner.close();
+            } else if (this.results instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) this.results).close();
+                } catch (Exception e) {
+                    throw new BackendException("Failed to close results", e);
+                }
             }
         }
 
@@ -20,10 +20,11 @@
 package com.baidu.hugegraph.backend.store.hbase;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellScanner;
@@ -45,6 +46,7 @@ import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntryIterator;
 import com.baidu.hugegraph.backend.store.BackendTable;
+import com.baidu.hugegraph.backend.store.ParallelQueryIterator;
 import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.RowIterator;
 import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.Session;
@@ -152,6 +154,8 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
             if (query.ids().size() == 1) {
                 Id id = query.ids().iterator().next();
                 rowIterator = this.queryById(session, id);
+            } else if (session.queryParallelism() > 1) {
+                return this.queryByIdsInParallel(session, query);
             } else {
                 rowIterator = this.queryByIds(session, query.ids());
             }
@@ -167,9 +171,10 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         if (query.paging()) {
             PageState page = PageState.fromString(query.page());
             byte[] begin = page.position();
-            return session.scan(this.table(), begin, null);
+            return session.scan(this.table(), begin, true, null, false,
+                                scanLimit(query));
         } else {
-            return session.scan(this.table(), -1);
+            return session.scan(this.table(), scanLimit(query));
         }
     }
 
@@ -178,21 +183,45 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
     }
 
     protected RowIterator queryByIds(Session session, Set<Id> ids) {
-        Set<byte[]> rowkeys = ids.stream().map(Id::asBytes)
-                                 .collect(Collectors.toSet());
-        return session.get(this.table(), null, rowkeys);
+        return session.get(this.table(), null, rowkeys(ids));
+    }
+
+    protected Iterator<BackendEntry> queryByIdsInParallel(Session session,
+                                                          Query query) {
+        List<byte[]> rowkeys = rowkeys(query.ids());
+        Collection<List<byte[]>> groups = session.groupByRegion(this.table(),
+                                                                rowkeys);
+        if (groups.size() <= 1) {
+            RowIterator rows = session.get(this.table(), null, rowkeys);
+            return newEntryIterator(rows, query);
+        }
+        /*
+         * Get rows of each region concurrently, results are in order, and
+         * the rows of all regions are parsed by one entry iterator to apply
+         * the limit of query and merge the rows of an entry across regions
+         */
+        LOG.debug("Query {} from {} regions in parallel",
+                  query, groups.size());
+        Iterator<Result> rows = new ParallelQueryIterator<>(
+                                new ArrayList<>(groups),
+                                session.queryParallelism(),
+                                keys -> session.getAsync(this.table(),
+                                                         null, keys),
+                                results -> results);
+        return newEntryIterator(new RowIterator(rows), query);
     }
 
     protected RowIterator queryByPrefix(Session session, IdPrefixQuery query) {
         return session.scan(this.table(), query.start().asBytes(),
-                            query.inclusiveStart(), query.prefix().asBytes());
+                            query.inclusiveStart(), query.prefix().asBytes(),
+                            scanLimit(query));
     }
 
     protected RowIterator queryByRange(Session session, IdRangeQuery query) {
         byte[] start = query.start().asBytes();
         byte[] end = query.end() == null ? null : query.end().asBytes();
         return session.scan(this.table(), start, query.inclusiveStart(),
-                            end, query.inclusiveEnd());
+                            end, query.inclusiveEnd(), scanLimit(query));
     }
 
     protected RowIterator queryByCond(Session session, ConditionQuery query) {
@@ -212,6 +241,23 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         return session.scan(this.table(), start, end);
     }
 
+    protected static long scanLimit(Query query) {
+        // The max number of rows may be read, -1 means no limit
+        if (query.limit() == Query.NO_LIMIT) {
+            return -1L;
+        }
+        return query.offset() + query.limit();
+    }
+
+    private static List<byte[]> rowkeys(Set<Id> ids) {
+        // NOTE: don't collect to a Set<byte[]>, arrays are compared by ref
+        List<byte[]> rowkeys = new ArrayList<>(ids.size());
+        for (Id id : ids) {
+            rowkeys.add(id.asBytes());
+        }
+        return rowkeys;
+    }
+
     private BackendEntryIterator newEntryIterator(RowIterator rows,
                                                   Query query) {
         return new BinaryEntryIterator<>(rows, query, (entry, row) -> {
@@ -258,8 +304,11 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
 
         @Override
         public long estimateNumKeys(Session session) {
-            // TODO: improve
-            return 100000L;
+            try {
+                return session.estimateNumKeys(this.table());
+            } catch (IOException ignored) {
+                return -1L;
+            }
         }
     }
 }
@@ -20,12 +20,14 @@
 package com.baidu.hugegraph.backend.store.hbase;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellScanner;
 import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.util.Bytes;
 
@@ -34,10 +36,13 @@ import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.RowIterator;
 import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.Session;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.E;
@@ -138,6 +143,80 @@ public class HbaseTables {
             return new Edge(store, false);
         }
 
+        @Override
+        public void delete(Session session, BackendEntry entry) {
+            if (!entry.columns().isEmpty()) {
+                super.delete(session, entry);
+                return;
+            }
+
+            /*
+             * Delete edges by label: the edges of an owner vertex with the
+             * same label are adjacent, so seek to each owner vertex and scan
+             * the row keys with (owner-vertex + dir + edge-label) prefix.
+             * The row deletions are collected before queued in the batch,
+             * since the changes not committed are invisible to the reads,
+             * and committed every COMMIT_BATCH ones to bound the batch size
+             */
+            Id label = BytesBuffer.wrap(entry.id().asBytes()).readId();
+            List<byte[]> keys = new ArrayList<>();
+            byte[] owner = this.nextOwner(session, HConstants.EMPTY_START_ROW);
+            while (owner != null) {
+                byte[] prefix = BytesBuffer.allocate(owner.length + 1 +
+                                                     label.length())
+                                           .write(owner).writeId(label)
+                                           .bytes();
+                RowIterator iter = session.scanKeys(this.table(), prefix);
+                try {
+                    while (iter.hasNext()) {
+                        keys.add(iter.next().getRow());
+                        if (keys.size() >= GraphTransaction.COMMIT_BATCH) {
+                            break;
+                        }
+                    }
+                } finally {
+                    iter.close();
+                }
+                if (keys.size() >= GraphTransaction.COMMIT_BATCH) {
+                    this.deleteRows(session, keys);
+                    session.commit();
+                    keys.clear();
+                    // Continue with the rest edges of the owner vertex
+                    continue;
+                }
+                // Skip the remaining edges of the owner vertex
+                byte[] next = Arrays.copyOf(owner, owner.length);
+                owner = this.nextOwner(session,
+                                       BinarySerializer.increaseOne(next));
+            }
+            // The rest ones are committed with the other changes
+            this.deleteRows(session, keys);
+        }
+
+        private void deleteRows(Session session, List<byte[]> keys) {
+            for (byte[] key : keys) {
+                session.delete(this.table(), CF, key);
+            }
+        }
+
+        private byte[] nextOwner(Session session, byte[] position) {
+            RowIterator iter = session.scan(this.table(), position, true,
+                                            null, false, 1L);
+            try {
+                if (!iter.hasNext()) {
+                    return null;
+                }
+                byte[] key = iter.next().getRow();
+                // owner-vertex + dir + edge-label + sort-values + other
+                BytesBuffer buffer = BytesBuffer.wrap(key);
+                buffer.readId();
+                buffer.read();
+                return Arrays.copyOf(key, key.length - buffer.remaining());
+            } finally {
+                iter.close();
+            }
+        }
+
         @Override
         public void insert(Session session, BackendEntry entry) {
             for (BackendColumn col : entry.columns()) {
@@ -192,7 +271,8 @@ public class HbaseTables {
             for (BackendColumn column : entry.columns()) {
                 session.commit();
                 // Prefix query index label related indexes
-                RowIterator iter = session.scan(this.table(), column.name);
+                RowIterator iter = session.scanKeys(this.table(),
+                                                    column.name);
                 while (iter.hasNext()) {
                     session.delete(this.table(), CF, iter.next().getRow());
                     // Commit once reaching batch size
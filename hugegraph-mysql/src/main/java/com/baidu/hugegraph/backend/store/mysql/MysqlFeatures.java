@@ -38,6 +38,11 @@ public class MysqlFeatures implements BackendFeatures {
         return false;
     }
 
+    @Override
+    public boolean supportsScanInParallel() {
+        return false;
+    }
+
     @Override
     public boolean supportsQuerySchemaByName() {
         // MySQL support secondary index
@@ -89,4 +89,35 @@ public class MysqlOptions extends OptionHolder {
                     rangeInt(1, 10),
                     3
             );
+
+    public static final ConfigOption<Integer> JDBC_BULK_INSERT_SIZE =
+            new ConfigOption<>(
+                    "jdbc.bulk_insert_size",
+                    "The max size in bytes of a multi-row insert statement, " +
+                    "rows inserted into a table in a transaction are " +
+                    "committed by multi-row inserts if it's > 0.",
+                    rangeInt(0, 64 * 1024 * 1024),
+                    0
+            );
+
+    public static final ConfigOption<Integer> JDBC_QUERY_PARALLELISM =
+            new ConfigOption<>(
+                    "jdbc.query_parallelism",
+                    "The max number of sub-queries of a query being executed " +
+                    "concurrently by extra connections, like the query by " +
+                    "multiple ids, sub-queries are executed one by one " +
+                    "if it's 1.",
+                    rangeInt(1, 1024),
+                    4
+            );
+
+    public static final ConfigOption<Integer> JDBC_SCAN_CHUNK_SIZE =
+            new ConfigOption<>(
+                    "jdbc.scan_chunk_size",
+                    "The max number of rows fetched by one statement when " +
+                    "scanning a table without limit, the scan is split into " +
+                    "chunks by primary key ranges if it's > 0.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
 }
@@ -25,8 +25,15 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
 import org.apache.http.client.utils.URIBuilder;
@@ -37,6 +44,7 @@ import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
 import com.baidu.hugegraph.util.Log;
 
 public class MysqlSessions extends BackendSessionPool {
@@ -44,16 +52,28 @@ public class MysqlSessions extends BackendSessionPool {
     private static final Logger LOG = Log.logger(MysqlStore.class);
 
     private static final int DROP_DB_TIMEOUT = 10000;
+    // The max number of placeholders in a statement
+    private static final int MAX_PARAMS = 65535;
+
+    private static final String QUERY_WORKER = "mysql-query-worker-%d";
 
     private HugeConfig config;
     private String database;
     private boolean opened;
 
+    private int queryParallelism;
+    private ExecutorService queryWorkers;
+    // The idle sessions used by query workers
+    private final Queue<Session> querySessions;
+
     public MysqlSessions(HugeConfig config, String database, String store) {
         super(database + "/" + store);
         this.config = config;
         this.database = database;
         this.opened = false;
+        this.queryParallelism = 1;
+        this.queryWorkers = null;
+        this.querySessions = new ConcurrentLinkedQueue<>();
     }
 
     public HugeConfig config() {
@@ -70,6 +90,11 @@ public class MysqlSessions extends BackendSessionPool {
      */
     @Override
     public void open(HugeConfig config) throws Exception {
+        this.queryParallelism = config.get(MysqlOptions.JDBC_QUERY_PARALLELISM);
+        if (this.queryParallelism > 1 && this.queryWorkers == null) {
+            this.queryWorkers = ExecutorUtil.newFixedThreadPool(
+                                this.queryParallelism, QUERY_WORKER);
+        }
         try (Connection conn = this.open(false)) {
             this.opened = true;
         }
@@ -83,7 +108,7 @@ public class MysqlSessions extends BackendSessionPool {
     /**
      * Connect DB with specified database
      */
-    private Connection open(boolean autoReconnect) throws SQLException {
+    protected Connection open(boolean autoReconnect) throws SQLException {
         String url = this.config.get(MysqlOptions.JDBC_URL);
         if (url.endsWith("/")) {
             url = String.format("%s%s", url, this.database);
@@ -125,7 +150,43 @@ public class MysqlSessions extends BackendSessionPool {
 
     @Override
     protected void doClose() {
-        // pass
+        if (this.queryWorkers != null) {
+            this.queryWorkers.shutdownNow();
+            this.queryWorkers = null;
+        }
+        for (Session session; (session = this.querySessions.poll()) != null;) {
+            try {
+                session.forceClose();
+            } catch (Throwable e) {
+                LOG.warn("Failed to close query session", e);
+            }
+        }
+    }
+
+    public int queryParallelism() {
+        return this.queryWorkers == null ? 1 : this.queryParallelism;
+    }
+
+    /**
+     * Execute the sql by a query worker with an idle session, the session
+     * is returned to idle after executing since the ResultSet has been
+     * fetched into memory (not a streaming ResultSet)
+     */
+    private Future<ResultSet> selectAsync(String sql) {
+        E.checkState(this.queryWorkers != null,
+                     "Parallel query is disabled for '%s'", this);
+        return this.queryWorkers.submit(() -> {
+            Session session = this.querySessions.poll();
+            if (session == null) {
+                session = new Session();
+            }
+            try {
+                session.open();
+                return session.select(sql);
+            } finally {
+                this.querySessions.add(session);
+            }
+        });
     }
 
     @Override
@@ -212,14 +273,26 @@ public class MysqlSessions extends BackendSessionPool {
 
         private Connection conn;
         private Map<String, PreparedStatement> statements;
+        // The rows of each table and insert template to be inserted in bulk
+        private final Map<String, Map<String, List<Object[]>>> bulkRows;
+        private final int bulkInsertSize;
+        private final int scanChunkSize;
         private boolean opened;
         private int count;
+        // The updated rows executed before committing
+        private int flushed;
 
         public Session() {
             this.conn = null;
             this.statements = new HashMap<>();
+            this.bulkRows = new LinkedHashMap<>();
+            this.bulkInsertSize = config().get(
+                                  MysqlOptions.JDBC_BULK_INSERT_SIZE);
+            this.scanChunkSize = config().get(
+                                 MysqlOptions.JDBC_SCAN_CHUNK_SIZE);
             this.opened = false;
             this.count = 0;
+            this.flushed = 0;
             try {
                 this.open();
             } catch (SQLException ignored) {
@@ -269,9 +342,16 @@ public class MysqlSessions extends BackendSessionPool {
             return !this.opened;
         }
 
+        private void forceClose() {
+            this.detach();
+            this.close();
+        }
+
         @Override
         public void clear() {
             this.count = 0;
+            this.flushed = 0;
+            this.bulkRows.clear();
             SQLException exception = null;
             for (PreparedStatement statement : this.statements.values()) {
                 try {
@@ -299,11 +379,19 @@ public class MysqlSessions extends BackendSessionPool {
 
         @Override
         public Integer commit() {
-            int updated = 0;
+            int updated = this.flushed;
             try {
                 for (PreparedStatement statement : this.statements.values()) {
                     updated += IntStream.of(statement.executeBatch()).sum();
                 }
+                /*
+                 * Insert after deleting, in case of updating the same rows,
+                 * the rows inserted before deleting have been flushed
+                 */
+                for (Map<String, List<Object[]>> rows :
+                     this.bulkRows.values()) {
+                    updated += this.executeBulk(rows);
+                }
                 this.conn.commit();
                 this.clear();
             } catch (SQLException e) {
@@ -339,6 +427,18 @@ public class MysqlSessions extends BackendSessionPool {
             return this.conn.createStatement().executeQuery(sql);
         }
 
+        public Future<ResultSet> selectAsync(String sql) {
+            return MysqlSessions.this.selectAsync(sql);
+        }
+
+        public int queryParallelism() {
+            return MysqlSessions.this.queryParallelism();
+        }
+
+        public int scanChunkSize() {
+            return this.scanChunkSize;
+        }
+
         public boolean execute(String sql) throws SQLException {
             return this.conn.createStatement().execute(sql);
         }
@@ -354,6 +454,120 @@ public class MysqlSessions extends BackendSessionPool {
             }
         }
 
+        public boolean bulkInsert() {
+            return this.bulkInsertSize > 0;
+        }
+
+        /**
+         * Add a row to be inserted by a multi-row insert statement
+         * @param table the table to insert into
+         * @param template the single-row insert statement with placeholders
+         *        like "INSERT INTO table (c1, c2) VALUES (?, ?)"
+         * @param values the values of the row
+         */
+        public void addBulk(String table, String template, Object[] values) {
+            this.bulkRows.computeIfAbsent(table, k -> new LinkedHashMap<>())
+                         .computeIfAbsent(template, k -> new ArrayList<>())
+                         .add(values);
+            this.count++;
+        }
+
+        /**
+         * Execute the rows to be inserted in bulk into a table, must be
+         * called before deleting rows of the table to keep the order of
+         * updates, otherwise the deleted rows would be inserted again
+         * @param table the table to delete from
+         */
+        public void flushBulk(String table) {
+            Map<String, List<Object[]>> rows = this.bulkRows.remove(table);
+            if (rows == null) {
+                return;
+            }
+            try {
+                // The batched statements are added before the bulk rows
+                for (PreparedStatement statement : this.statements.values()) {
+                    this.flushed += IntStream.of(statement.executeBatch())
+                                             .sum();
+                }
+                this.flushed += this.executeBulk(rows);
+            } catch (SQLException e) {
+                throw new BackendException("Failed to insert rows in bulk " +
+                                           "into table '%s'", e, table);
+            }
+        }
+
+        private int executeBulk(Map<String, List<Object[]>> bulkRows)
+                                throws SQLException {
+            int updated = 0;
+            for (Map.Entry<String, List<Object[]>> e : bulkRows.entrySet()) {
+                String template = e.getKey();
+                List<Object[]> rows = e.getValue();
+                int start = 0;
+                while (start < rows.size()) {
+                    int end = this.nextBulk(rows, start);
+                    updated += this.executeBulk(template, rows, start, end);
+                    start = end;
+                }
+            }
+            return updated;
+        }
+
+        /**
+         * Get the end of rows which can be inserted by one statement from
+         * the start, limited by `jdbc.bulk_insert_size` and max placeholders
+         */
+        private int nextBulk(List<Object[]> rows, int start) {
+            int columns = rows.get(start).length;
+            long bytes = 0L;
+            int end = start;
+            while (end < rows.size() && (end - start + 1) * columns <=
+                                        MAX_PARAMS) {
+                bytes += sizeOf(rows.get(end));
+                if (bytes > this.bulkInsertSize && end > start) {
+                    break;
+                }
+                end++;
+            }
+            return end;
+        }
+
+        private int executeBulk(String template, List<Object[]> rows,
+                                int start, int end) throws SQLException {
+            int columns = rows.get(start).length;
+            // Like: INSERT INTO table (c1, c2) VALUES (?, ?), (?, ?)
+            StringBuilder sql = new StringBuilder(template);
+            String placeholders = template.substring(
+                                  template.lastIndexOf('('));
+            for (int i = start + 1; i < end; i++) {
+                sql.append(", ").append(placeholders);
+            }
+            try (PreparedStatement statement =
+                 this.conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (int i = start; i < end; i++) {
+                    Object[] row = rows.get(i);
+                    assert row.length == columns;
+                    for (Object value : row) {
+                        statement.setObject(index++, value);
+                    }
+                }
+                return statement.executeUpdate();
+            }
+        }
+
+        private long sizeOf(Object[] row) {
+            // Estimate the size of the row in sql (with separators)
+            long size = 4L;
+            for (Object value : row) {
+                if (value instanceof byte[]) {
+                    size += ((byte[]) value).length * 2 + 4;
+                } else {
+                    size += String.valueOf(value).length() + 4;
+                }
+            }
+            return size;
+        }
+
         public PreparedStatement prepareStatement(String sqlTemplate)
                                                   throws SQLException {
             PreparedStatement statement = this.statements.get(sqlTemplate);
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -35,7 +36,9 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntryIterator;
 import com.baidu.hugegraph.backend.store.BackendTable;
+import com.baidu.hugegraph.backend.store.ParallelQueryIterator;
 import com.baidu.hugegraph.backend.store.TableDefine;
 import com.baidu.hugegraph.backend.store.mysql.MysqlEntryIterator.PageState;
 import com.baidu.hugegraph.backend.store.mysql.MysqlSessions.Session;
@@ -197,6 +200,13 @@ public abstract class MysqlTable
     public void insert(Session session, MysqlBackendEntry.Row entry) {
         String template = this.buildInsertTemplate(entry);
 
+        if (session.bulkInsert()) {
+            // Insert by multi-row statements when committing
+            session.addBulk(this.table(), template,
+                            entry.columns().values().toArray());
+            return;
+        }
+
         PreparedStatement insertStmt;
         try {
             // Create or get insert prepare statement
@@ -217,6 +227,9 @@ public abstract class MysqlTable
         List<HugeKeys> idNames = this.idColumnName();
         String template = this.buildDeleteTemplate(idNames);
 
+        // The rows inserted in bulk before must be deleted
+        session.flushBulk(this.table());
+
         PreparedStatement deleteStmt;
         try {
             deleteStmt = session.prepareStatement(template);
@@ -264,7 +277,23 @@ public abstract class MysqlTable
             return rs;
         }
 
+        if (this.scanByChunks(session, query)) {
+            LOG.debug("Query {} by chunks of {} rows",
+                      query, session.scanChunkSize());
+            return new ChunkedScanIterator(session, query);
+        }
+
         List<StringBuilder> selections = this.query2Select(this.table(), query);
+        int parallelism = session.queryParallelism();
+        if (selections.size() > 1 && parallelism > 1 && query.page() == null) {
+            // Execute the selections by query workers, results are in order
+            LOG.debug("Query {} by {} selections in parallel",
+                      query, selections.size());
+            return new ParallelQueryIterator<>(
+                       selections, parallelism,
+                       selection -> session.selectAsync(selection.toString()),
+                       results -> this.results2Entries(query, results));
+        }
         try {
             for (StringBuilder selection : selections) {
                 ResultSet results = session.select(selection.toString());
@@ -278,6 +307,18 @@ public abstract class MysqlTable
         return rs;
     }
 
+    private boolean scanByChunks(Session session, Query query) {
+        int chunkSize = session.scanChunkSize();
+        if (chunkSize <= 0 || query.paging() || query.offset() > 0) {
+            return false;
+        }
+        // Keyset pagination relies on the primary key order of the rows
+        if (!query.ids().isEmpty() || !query.orders().isEmpty()) {
+            return false;
+        }
+        return query.limit() > chunkSize;
+    }
+
     protected List<StringBuilder> query2Select(String table, Query query) {
         // Set table
         StringBuilder select = new StringBuilder(64);
@@ -302,12 +343,15 @@ public abstract class MysqlTable
         }
         // Set page, order-by and limit
         for (StringBuilder selection : selections) {
+            if (query.paging()) {
+                // The keyset page sets its own order-by and limit
+                this.wrapPage(selection, query);
+                continue;
+            }
             if (!query.orders().isEmpty()) {
                 this.wrapOrderBy(selection, query);
             }
-            if (query.paging()) {
-                this.wrapPage(selection, query);
-            } else if (query.limit() != Query.NO_LIMIT || query.offset() > 0) {
+            if (query.limit() != Query.NO_LIMIT || query.offset() > 0) {
                 this.wrapOffset(selection, query);
             }
         }
@@ -493,13 +537,25 @@ public abstract class MysqlTable
                 values.add(columns.get(key));
             }
 
-            // Need add `where` to `select` when query is IdQuery
-            boolean startWithWhere = query.conditions().isEmpty();
+            // Need add `where` to `select` if there is no id or condition
+            boolean startWithWhere = query.conditions().isEmpty() &&
+                                     query.ids().isEmpty();
             WhereBuilder where = new WhereBuilder(startWithWhere);
+            if (!startWithWhere) {
+                select.append(" AND");
+            }
             where.gte(formatKeys(idColumnNames), values);
             select.append(where.build());
         }
 
+        if (query.orders().isEmpty()) {
+            // The next page starts from the last row in primary key order
+            select.append(" ORDER BY ");
+            select.append(String.join(", ", formatKeys(this.idColumnName())));
+        } else {
+            this.wrapOrderBy(select, query);
+        }
+
         assert query.limit() != Query.NO_LIMIT;
         // Fetch `limit + 1` records for judging whether reached the last page
         select.append(" limit ");
@@ -557,4 +613,94 @@ public abstract class MysqlTable
         }
         return names;
     }
+
+    /**
+     * Scan a table chunk by chunk with keyset pagination on the primary key,
+     * only the rows of one chunk are held in memory at a time
+     */
+    private class ChunkedScanIterator implements Iterator<BackendEntry>,
+                                                 AutoCloseable {
+
+        private final Session session;
+        private final Query query;
+        private final int chunkSize;
+
+        private Iterator<BackendEntry> chunk;
+        private String page;
+        private long count;
+
+        public ChunkedScanIterator(Session session, Query query) {
+            this.session = session;
+            this.query = query;
+            this.chunkSize = session.scanChunkSize();
+            this.chunk = null;
+            // The first chunk starts with an empty page
+            this.page = "";
+            this.count = 0L;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.chunk == null || !this.chunk.hasNext()) {
+                if (this.chunk != null) {
+                    this.page = (String) ((BackendEntryIterator) this.chunk)
+                                         .metadata("page");
+                    this.closeChunk();
+                }
+                if (this.page == null || this.query.reachLimit(this.count)) {
+                    return false;
+                }
+                this.chunk = this.nextChunk();
+            }
+            return true;
+        }
+
+        @Override
+        public BackendEntry next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BackendEntry entry = this.chunk.next();
+            MysqlBackendEntry row = (MysqlBackendEntry) entry;
+            this.count += Math.max(row.subRows().size(), 1);
+            this.query.checkCapacity(this.count);
+            return entry;
+        }
+
+        @Override
+        public void close() {
+            this.closeChunk();
+            this.page = null;
+        }
+
+        private Iterator<BackendEntry> nextChunk() {
+            Query chunkQuery = this.query.copy();
+            long remaining = this.query.limit() - this.count;
+            chunkQuery.limit(Math.min(this.chunkSize, remaining));
+            chunkQuery.page(this.page);
+
+            List<StringBuilder> selections = query2Select(table(), chunkQuery);
+            assert selections.size() == 1;
+            try {
+                String select = selections.get(0).toString();
+                ResultSet results = this.session.select(select);
+                return results2Entries(chunkQuery, results);
+            } catch (SQLException e) {
+                throw new BackendException("Failed to query [%s]", e,
+                                           chunkQuery);
+            }
+        }
+
+        private void closeChunk() {
+            if (this.chunk instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) this.chunk).close();
+                } catch (Exception e) {
+                    LOG.warn("Failed to close chunk of query {}",
+                             this.query, e);
+                }
+            }
+            this.chunk = null;
+        }
+    }
 }
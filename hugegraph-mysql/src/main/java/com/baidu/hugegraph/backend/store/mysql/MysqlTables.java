@@ -285,6 +285,7 @@ public class MysqlTables {
         }
 
         private void deleteEdgesByLabel(Session session, Id label) {
+            session.flushBulk(this.table());
             PreparedStatement deleteStmt;
             try {
                 // Create or get delete prepare statement
@@ -38,6 +38,11 @@ public class PaloFeatures implements BackendFeatures {
         return false;
     }
 
+    @Override
+    public boolean supportsScanInParallel() {
+        return false;
+    }
+
     @Override
     public boolean supportsQuerySchemaByName() {
         return true;
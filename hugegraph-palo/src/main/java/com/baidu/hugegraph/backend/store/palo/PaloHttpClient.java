@@ -19,27 +19,58 @@
 
 package com.baidu.hugegraph.backend.store.palo;
 
+import java.net.URI;
 import java.util.Map;
 
-import javax.ws.rs.core.MultivaluedHashMap;
-import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriBuilder;
 
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+
+import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.config.HugeConfig;
-import com.baidu.hugegraph.rest.RestClient;
-import com.google.common.collect.ImmutableMap;
+import com.baidu.hugegraph.util.JsonUtil;
+import com.google.common.collect.ImmutableSet;
 
 public class PaloHttpClient {
 
-    private final RestClient client;
+    private static final int SECOND = 1000;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_REDIRECTS = 3;
+
+    // The status of a stream load which has been loaded successfully
+    private static final ImmutableSet<String> LOADED = ImmutableSet.of(
+            "Success", "Publish Timeout", "Label Already Exists"
+    );
+
+    private final String url;
+    private final Client client;
 
     public PaloHttpClient(HugeConfig config, String database) {
-        String url = this.buildUrl(config, database);
+        this.url = this.buildUrl(config, database);
         String username = config.get(PaloOptions.PALO_USERNAME);
         String password = config.get(PaloOptions.PALO_PASSWORD);
         Integer timeout = config.get(PaloOptions.PALO_HTTP_TIMEOUT);
 
-        this.client = new Client(url, username, password, timeout);
+        ClientConfig conf = new ClientConfig();
+        conf.property(ClientProperties.CONNECT_TIMEOUT, timeout * SECOND);
+        conf.property(ClientProperties.READ_TIMEOUT, timeout * SECOND);
+        // Send the rows in chunks rather than buffering the whole body again
+        conf.property(ClientProperties.REQUEST_ENTITY_PROCESSING,
+                      RequestEntityProcessing.CHUNKED);
+        conf.property(ClientProperties.CHUNKED_ENCODING_SIZE, CHUNK_SIZE);
+        // The frontend redirects a load to a backend, follow it by ourselves
+        conf.property(ClientProperties.FOLLOW_REDIRECTS, false);
+        conf.register(HttpAuthenticationFeature.basic(username, password));
+        this.client = ClientBuilder.newClient(conf);
     }
 
     private String buildUrl(HugeConfig config, String database) {
@@ -48,30 +79,48 @@ public class PaloHttpClient {
         return String.format("http://%s:%s/api/%s/", host, port, database);
     }
 
-    public void bulkLoadAsync(String table, String body, String label) {
-        // Format path
-        String path = table + "/_load";
-        // Format headers
-        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
-        headers.putSingle("Expect", "100-continue");
-        // Format params
-        Map<String, Object> params = ImmutableMap.of("label", label);
-        // Send request
-        this.client.put(path, body, headers, params);
+    public void streamLoad(String table, String label, StreamingOutput rows) {
+        URI uri = UriBuilder.fromUri(this.url).path(table)
+                            .path("_stream_load").build();
+        for (int i = 0; i <= MAX_REDIRECTS; i++) {
+            Response response = this.client.target(uri).request()
+                                    .header("Expect", "100-continue")
+                                    .header("label", label)
+                                    .put(Entity.entity(rows,
+                                                       MediaType.TEXT_PLAIN));
+            try {
+                if (response.getStatusInfo().getFamily() ==
+                    Response.Status.Family.REDIRECTION) {
+                    uri = response.getLocation();
+                    continue;
+                }
+                this.checkLoaded(table, label, response);
+                return;
+            } finally {
+                response.close();
+            }
+        }
+        throw new BackendException("Too many redirections when loading " +
+                                   "table '%s' with label '%s'", table, label);
     }
 
-    private static class Client extends RestClient {
-
-        private static final int SECOND = 1000;
-
-        public Client(String url, String user, String password, int timeout) {
-            super(url, user, password, timeout * SECOND);
+    private void checkLoaded(String table, String label, Response response) {
+        String content = response.readEntity(String.class);
+        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+            throw new BackendException("Failed to load table '%s' with " +
+                                       "label '%s', status %s: %s", table,
+                                       label, response.getStatus(), content);
         }
-
-        @Override
-        protected void checkStatus(Response response,
-                                   Response.Status... statuses) {
-            // pass
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = JsonUtil.fromJson(content, Map.class);
+        if (!LOADED.contains(result.get("Status"))) {
+            throw new BackendException("Failed to load table '%s' with " +
+                                       "label '%s': %s", table, label,
+                                       result.get("Message"));
         }
     }
+
+    public void close() {
+        this.client.close();
+    }
 }
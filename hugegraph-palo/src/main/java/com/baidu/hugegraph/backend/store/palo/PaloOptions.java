@@ -83,28 +83,29 @@ public class PaloOptions extends OptionHolder {
                     ""
             );
 
-    public static final ConfigOption<Integer> PALO_POLL_INTERVAL =
+    public static final ConfigOption<Integer> PALO_LOAD_SIZE =
             new ConfigOption<>(
-                    "palo.poll_interval",
-                    "The execution peroid of the background thread that " +
-                    "check whether need to load file data into Palo.",
-                    rangeInt(5, Integer.MAX_VALUE),
-                    5
+                    "palo.stream_load_size",
+                    "The buffered size(MB) of rows of a table to trigger " +
+                    "a stream load into Palo.",
+                    rangeInt(1, 1000),
+                    32
             );
 
-    public static final ConfigOption<String> PALO_TEMP_DIR =
+    public static final ConfigOption<Integer> PALO_LOAD_INTERVAL =
             new ConfigOption<>(
-                    "palo.temp_dir",
-                    "The temporary directory to store table files.",
-                    null,
-                    "palo-data"
+                    "palo.stream_load_interval",
+                    "The max time(ms) to buffer rows of a table before " +
+                    "a stream load into Palo.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    50
             );
 
-    public static final ConfigOption<Integer> PALO_FILE_LIMIT_SIZE =
+    public static final ConfigOption<Integer> PALO_LOAD_CONCURRENCY =
             new ConfigOption<>(
-                    "palo.file_limit_size",
-                    "The maximum size(MB) of each file for loading into Palo.",
-                    rangeInt(10, 1000),
-                    50
+                    "palo.stream_load_concurrency",
+                    "The max number of concurrent stream loads of a table.",
+                    rangeInt(1, 64),
+                    4
             );
 }
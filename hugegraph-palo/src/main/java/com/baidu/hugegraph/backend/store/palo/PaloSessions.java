@@ -19,74 +19,26 @@
 
 package com.baidu.hugegraph.backend.store.palo;
 
-import java.nio.file.Paths;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.util.Date;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
-import org.slf4j.Logger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.store.mysql.MysqlSessions;
 import com.baidu.hugegraph.config.HugeConfig;
-import com.baidu.hugegraph.date.SafeDateFormat;
-import com.baidu.hugegraph.util.Log;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 
 public class PaloSessions extends MysqlSessions {
 
-    private static final Logger LOG = Log.logger(PaloStore.class);
-
-    private final AtomicInteger counter;
-    private final Map<Integer, ReadWriteLock> locks;
+    private final PaloStreamLoader loader;
 
-    private final Timer timer;
-    private final PaloLoadTask loadTask;
-
-    public PaloSessions(HugeConfig config, String database, String store,
-                        List<String> tableDirs) {
+    public PaloSessions(HugeConfig config, String database, String store) {
         super(config, database, store);
-        this.counter = new AtomicInteger();
-        this.locks = new ConcurrentHashMap<>();
-        // Scan disk files and restore session information
-        this.restoreSessionInfo(config, tableDirs);
-
-        this.timer = new Timer();
-        long interval = config.get(PaloOptions.PALO_POLL_INTERVAL);
-        this.loadTask = new PaloLoadTask(tableDirs);
-        this.timer.schedule(this.loadTask, 0, interval * 1000);
-    }
-
-    private void restoreSessionInfo(HugeConfig config, List<String> tableDirs) {
-        Set<Integer> sessionIds = PaloFile.scanSessionIds(config, tableDirs);
-        for (Integer sessionId : sessionIds) {
-            if (!this.locks.containsKey(sessionId)) {
-                // Create a read write lock for every session
-                this.locks.put(sessionId, new ReentrantReadWriteLock());
-            }
-        }
-        // Update counter value to avoid new session has duplicate id with old
-        int maxSessionId = 0;
-        for (int sessionId : sessionIds) {
-            if (sessionId > maxSessionId) {
-                maxSessionId = sessionId;
-            }
-        }
-        this.counter.addAndGet(maxSessionId);
+        this.loader = new PaloStreamLoader(config, database);
     }
 
     @Override
@@ -96,9 +48,7 @@ public class PaloSessions extends MysqlSessions {
 
     @Override
     protected final synchronized Session newSession() {
-        int id = this.counter.incrementAndGet();
-        this.locks.put(id, new ReentrantReadWriteLock());
-        return new Session(id);
+        return new Session();
     }
 
     @Override
@@ -108,46 +58,32 @@ public class PaloSessions extends MysqlSessions {
 
     @Override
     public void close() {
-        if (this.loadTask != null) {
-            this.loadTask.join();
-        }
-        if (this.timer != null) {
-            this.timer.cancel();
-        }
+        this.loader.close();
         super.close();
     }
 
     public final class Session extends MysqlSessions.Session {
 
-        private final int id;
-        /**
-         * Stores the number of the file for each table that has been recorded
-         * table1 -> session-part{n}
-         */
-        private final Map<String, Integer> parts;
         /**
          * Store data rows for each table
          * table -> [row-1, row-2, ...row-n]
          */
         private final Multimap<String, String> batch;
 
-        public Session(int id) {
+        public Session() {
             super();
-            this.id = id;
-            this.parts = new HashMap<>();
             this.batch = LinkedListMultimap.create();
         }
 
         public void add(String table, String row) {
             this.batch.put(table, row);
-            this.parts.putIfAbsent(table, 0);
         }
 
         @Override
         public Integer commit() {
             int updated = 0;
             if (!this.batch.isEmpty()) {
-                updated += this.writeBatch();
+                updated += this.loadBatch();
             }
             updated += super.commit();
             this.clear();
@@ -166,35 +102,24 @@ public class PaloSessions extends MysqlSessions {
             this.batch.clear();
         }
 
-        private int writeBatch() {
-            int updated = 0;
-            PaloSessions.this.locks.get(this.id).writeLock().lock();
-            try {
-                for (String table : this.batch.keySet()) {
-                    PaloFile file = this.getOrCreate(table);
-                    updated += file.writeLines(this.batch.get(table));
-                }
-            } finally {
-                PaloSessions.this.locks.get(this.id).writeLock().unlock();
+        private int loadBatch() {
+            PaloStreamLoader loader = PaloSessions.this.loader;
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (String table : this.batch.keySet()) {
+                futures.add(loader.load(table, this.batch.get(table)));
             }
-            return updated;
-        }
-
-        private PaloFile getOrCreate(String table) {
-            String tempDir = config().get(PaloOptions.PALO_TEMP_DIR);
-            long limitSize = PaloFile.limitSize(config());
-
-            // The table data path: 'palo-data/property_keys'
-            String path = Paths.get(tempDir, table).toString();
-            int part = this.parts.get(table);
-            // The full file name: 'palo-data/property_keys/session1-part0'
-            PaloFile file = new PaloFile(path, this.id, part);
-            // Increase part number when file size exceed limit size
-            if (file.length() >= limitSize) {
-                this.parts.put(table, ++part);
-                file = new PaloFile(path, this.id, part);
+            // Wait for the rows to be loaded together with other sessions'
+            try {
+                CompletableFuture.allOf(futures.toArray(
+                                  new CompletableFuture<?>[0])).get();
+            } catch (InterruptedException e) {
+                throw new BackendException("Interrupted when loading " +
+                                           "batch into palo", e);
+            } catch (ExecutionException e) {
+                throw new BackendException("Failed to load batch into palo",
+                                           e.getCause());
             }
-            return file;
+            return this.batch.size();
         }
 
         @SuppressWarnings("unused")
@@ -218,111 +143,4 @@ public class PaloSessions extends MysqlSessions {
             }
         }
     }
-
-    public final class PaloLoadTask extends TimerTask {
-
-        private static final String DF = "yyyy-MM-dd-HH-mm-ss";
-        private final DateFormat DATE_FORMAT = new SafeDateFormat(DF);
-
-        /**
-         * There exist two running palo load task corresponds to two stores,
-         * `SchemaStore -> SchemaLoadTask` and `GraphStore -> GraphLoadTask`,
-         * the load task just handle with it's own subdirectory files,
-         * like: `property_keys, vertex_labels ...` for SchemaLoadTask,
-         * and: `vertices, edges ...` for GraphLoadTask
-         * these subdirectory called validSubDirs.
-         */
-        private final List<String> tableDirs;
-        /**
-         *          session1-part1.txt  session2-part1.txt  ...
-         * vertices 128m                125m                ...
-         * edges    256m                250m                ...
-         * ...      ...                 ...                 ...
-         */
-        private List<PaloFile> lastPaloFiles;
-        private final PaloHttpClient client;
-
-        public PaloLoadTask(List<String> tableDirs) {
-            this.tableDirs = tableDirs;
-            this.lastPaloFiles = null;
-            this.client = new PaloHttpClient(config(), database());
-        }
-
-        /**
-         * TODO: Need to be optimized
-         */
-        public void join() {
-            Integer interval = config().get(PaloOptions.PALO_POLL_INTERVAL);
-            while (this.lastPaloFiles != null &&
-                   !this.lastPaloFiles.isEmpty()) {
-                try {
-                    TimeUnit.SECONDS.sleep(interval);
-                } catch (InterruptedException e) {
-                    throw new BackendException(e);
-                }
-            }
-        }
-
-        @Override
-        public void run() {
-            LOG.debug("The Load task:{} ready to run", PaloSessions.this);
-            // Scan the directory to get all file size
-            String path = config().get(PaloOptions.PALO_TEMP_DIR);
-            List<PaloFile> paloFiles = PaloFile.scan(path, this.tableDirs);
-            // Do nothing if there is no file at present
-            if (paloFiles.isEmpty()) {
-                return;
-            }
-            // Try to load one batch if last time and this time have some files
-            if (this.lastPaloFiles != null) {
-                this.tryLoadBatch(paloFiles);
-            }
-            // Update the last palo files
-            this.lastPaloFiles = paloFiles;
-        }
-
-        private void tryLoadBatch(List<PaloFile> files) {
-            PaloFile file = this.peekFile(files);
-            // Load the first file when stopped inserting data
-            this.loadThenDelete(file);
-            files.remove(file);
-        }
-
-        private PaloFile peekFile(List<PaloFile> files) {
-            assert !files.isEmpty();
-            long limitSize = PaloFile.limitSize(config());
-            // Load the file which exceed limit size in priority
-            for (PaloFile file : files) {
-                long fileSize = file.length();
-                if (fileSize >= limitSize) {
-                    return file;
-                }
-            }
-            // Load the oldest file(files are sorted by updated time)
-            return files.get(0);
-        }
-
-        private void loadThenDelete(PaloFile file) {
-            // Parse session id from file name
-            int sessionId = file.sessionId();
-            LOG.info("Ready to load one batch from file: {}", file);
-            // Get write lock because will delete file
-            Lock lock = PaloSessions.this.locks.get(sessionId).writeLock();
-            lock.lock();
-            try {
-                String table = file.table();;
-                String data = file.readAsString();
-                String label = this.formatLabel(table);
-                this.client.bulkLoadAsync(table, data, label);
-                // Force delete file
-                file.forceDelete();
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        private String formatLabel(String table) {
-            return table + "-" + this.DATE_FORMAT.format(new Date());
-        }
-    }
 }
@@ -19,13 +19,9 @@
 
 package com.baidu.hugegraph.backend.store.palo;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.store.BackendStoreProvider;
-import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.mysql.MysqlStore;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.Log;
@@ -42,12 +38,6 @@ public abstract class PaloStore extends MysqlStore {
     @Override
     protected PaloSessions openSessionPool(HugeConfig config) {
         LOG.info("Open palo session pool for {}", this);
-        return new PaloSessions(config, this.database(), this.store(),
-                                this.tableNames());
-    }
-
-    private List<String> tableNames() {
-        return this.tables().stream().map(BackendTable::table)
-                   .collect(Collectors.toList());
+        return new PaloSessions(config, this.database(), this.store());
     }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.palo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Load rows into Palo tables by stream load: the rows of a table are
+ * buffered in memory and sent by a chunked http request once the buffer
+ * exceeds `palo.stream_load_size` or every `palo.stream_load_interval`,
+ * at most `palo.stream_load_concurrency` requests of a table are running
+ * at the same time, the writer of a full buffer is blocked until a free one.
+ */
+public class PaloStreamLoader {
+
+    private static final Logger LOG = Log.logger(PaloStreamLoader.class);
+
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final String LOAD_WORKER = "palo-loader-%d";
+
+    private final PaloHttpClient client;
+    private final long bufferSize;
+    private final int concurrency;
+    private final Map<String, TableLoader> loaders;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final String labelPrefix;
+    private final AtomicLong labelCounter;
+
+    private volatile boolean closed;
+
+    public PaloStreamLoader(HugeConfig config, String database) {
+        this.client = new PaloHttpClient(config, database);
+        this.bufferSize = config.get(PaloOptions.PALO_LOAD_SIZE) * Bytes.MB;
+        this.concurrency = config.get(PaloOptions.PALO_LOAD_CONCURRENCY);
+        this.loaders = new ConcurrentHashMap<>();
+        // The loads of all tables share the threads, others are queued
+        this.executor = ExecutorUtil.newFixedThreadPool(this.concurrency,
+                                                        LOAD_WORKER);
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+                     new ThreadFactoryBuilder().setDaemon(true)
+                                               .setNameFormat(
+                                               "palo-load-timer-%d")
+                                               .build());
+        long interval = config.get(PaloOptions.PALO_LOAD_INTERVAL);
+        this.timer.scheduleWithFixedDelay(this::flush, interval, interval,
+                                          TimeUnit.MILLISECONDS);
+        // The label of stream load must be unique in a database
+        this.labelPrefix = database + "_" + System.currentTimeMillis();
+        this.labelCounter = new AtomicLong();
+        this.closed = false;
+    }
+
+    /**
+     * Add rows of a table to the load buffer
+     * @return a future completed when the rows have been loaded into Palo
+     */
+    public CompletableFuture<Void> load(String table,
+                                        Collection<String> rows) {
+        E.checkState(!this.closed, "The palo loader has been closed");
+        TableLoader loader = this.loaders.computeIfAbsent(table,
+                                                          TableLoader::new);
+        return loader.add(rows);
+    }
+
+    public void flush() {
+        for (TableLoader loader : this.loaders.values()) {
+            loader.flush();
+        }
+    }
+
+    public void close() {
+        this.closed = true;
+        this.timer.shutdown();
+        // Wait for all the buffered rows to be loaded
+        for (TableLoader loader : this.loaders.values()) {
+            loader.drain();
+        }
+        this.executor.shutdown();
+        this.client.close();
+    }
+
+    private String nextLabel(String table) {
+        return String.format("%s_%s_%s", table, this.labelPrefix,
+                             this.labelCounter.incrementAndGet());
+    }
+
+    private final class TableLoader {
+
+        private final String table;
+        private Batch batch;
+        private int running;
+
+        public TableLoader(String table) {
+            this.table = table;
+            this.batch = null;
+            this.running = 0;
+        }
+
+        public synchronized CompletableFuture<Void> add(
+                                                    Collection<String> rows) {
+            if (this.batch == null) {
+                this.batch = new Batch();
+            }
+            Batch batch = this.batch;
+            batch.add(rows);
+            if (batch.size() >= PaloStreamLoader.this.bufferSize) {
+                // Block the writer to bound the buffer until it's sent
+                while (this.batch == batch &&
+                       this.running >= PaloStreamLoader.this.concurrency) {
+                    this.waitForLoaded();
+                }
+                if (this.batch == batch) {
+                    this.flush();
+                }
+            }
+            return batch.future();
+        }
+
+        public synchronized void flush() {
+            if (this.batch == null ||
+                this.running >= PaloStreamLoader.this.concurrency) {
+                return;
+            }
+            Batch batch = this.batch;
+            this.batch = null;
+            this.running++;
+            PaloStreamLoader.this.executor.execute(() -> this.load(batch));
+        }
+
+        public synchronized void drain() {
+            while (this.batch != null || this.running > 0) {
+                this.flush();
+                this.waitForLoaded();
+            }
+        }
+
+        private void waitForLoaded() {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                throw new BackendException("Interrupted when waiting " +
+                                           "for loading table '%s'",
+                                           e, this.table);
+            }
+        }
+
+        private void load(Batch batch) {
+            String label = PaloStreamLoader.this.nextLabel(this.table);
+            try {
+                LOG.debug("Load {} bytes into table '{}' with label '{}'",
+                          batch.size(), this.table, label);
+                PaloStreamLoader.this.client.streamLoad(this.table, label,
+                                                        batch);
+                batch.future().complete(null);
+            } catch (Throwable e) {
+                LOG.warn("Failed to load table '{}' with label '{}'",
+                         this.table, label, e);
+                batch.future().completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    this.running--;
+                    // Let the full batch waiting for this slot go first
+                    long bufferSize = PaloStreamLoader.this.bufferSize;
+                    if (this.batch != null &&
+                        this.batch.size() >= bufferSize) {
+                        this.flush();
+                    }
+                    this.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static final class Batch implements StreamingOutput {
+
+        private final ByteArrayOutputStream buffer;
+        private final CompletableFuture<Void> future;
+
+        public Batch() {
+            this.buffer = new ByteArrayOutputStream();
+            this.future = new CompletableFuture<>();
+        }
+
+        public void add(Collection<String> rows) {
+            for (String row : rows) {
+                byte[] bytes = row.getBytes(Charsets.UTF_8);
+                this.buffer.write(bytes, 0, bytes.length);
+                this.buffer.write(LINE_SEPARATOR);
+            }
+        }
+
+        public int size() {
+            return this.buffer.size();
+        }
+
+        public CompletableFuture<Void> future() {
+            return this.future;
+        }
+
+        @Override
+        public void write(OutputStream output) throws IOException {
+            this.buffer.writeTo(output);
+        }
+    }
+}
@@ -245,6 +245,7 @@ public class PaloTables {
 
         private void deleteEdgesByLabel(MysqlSessions.Session session,
                                         Id label) {
+            session.flushBulk(this.table());
             PreparedStatement deleteStmt;
             try {
                 // Create or get delete prepare statement
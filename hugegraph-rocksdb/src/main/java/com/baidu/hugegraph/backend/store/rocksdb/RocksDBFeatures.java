@@ -38,6 +38,11 @@ public class RocksDBFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsScanInParallel() {
+        return true;
+    }
+
     @Override
     public boolean supportsQuerySchemaByName() {
         // No index in RocksDB
@@ -79,8 +84,8 @@ public class RocksDBFeatures implements BackendFeatures {
 
     @Override
     public boolean supportsDeleteEdgeByLabel() {
-        // No index in RocksDB
-        return false;
+        // Delete by range of each owner-vertex with the label
+        return true;
     }
 
     @Override
@@ -23,6 +23,10 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
+import org.rocksdb.HistogramData;
+import org.rocksdb.HistogramType;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
 
 import com.baidu.hugegraph.backend.store.BackendMetrics;
 import com.baidu.hugegraph.util.Bytes;
@@ -37,6 +41,32 @@ public class RocksDBMetrics implements BackendMetrics {
 
     public static final String DISK_USAGE = "rocksdb.disk-usage";
 
+    public static final String NUM_SNAPSHOTS = "rocksdb.num-snapshots";
+    public static final String OLDEST_SNAPSHOT_TIME =
+                               "rocksdb.oldest-snapshot-time";
+
+    public static final String SNAPSHOT_COUNT = "snapshot_count";
+    public static final String SNAPSHOT_MAX_AGE = "snapshot_max_age";
+
+    // Table (column family) properties
+    public static final String PENDING_COMPACTION_BYTES =
+                               "rocksdb.estimate-pending-compaction-bytes";
+    public static final String NUM_L0_FILES = "rocksdb.num-files-at-level0";
+    public static final String LIVE_SST_SIZE = "rocksdb.live-sst-files-size";
+
+    public static final String DBS = "dbs";
+    public static final String TABLES = "tables";
+
+    public static final String BLOCK_CACHE_HIT_RATIO = "block_cache_hit_ratio";
+    public static final String BLOOM_FILTER_USEFUL = "bloom_filter_useful";
+    public static final String STALL_MICROS = "stall_micros";
+    public static final String GET_MICROS = "get_micros";
+    public static final String SEEK_MICROS = "seek_micros";
+    public static final String WRITE_MICROS = "write_micros";
+    public static final String WAL_SYNC_MICROS = "wal_sync_micros";
+    public static final String WRITE_BATCH_BYTES = "write_batch_bytes";
+    public static final String WRITE_GROUPED_RATIO = "write_grouped_ratio";
+
     private final List<RocksDBSessions> dbs;
     private final RocksDBSessions.Session session;
 
@@ -54,9 +84,76 @@ public class RocksDBMetrics implements BackendMetrics {
         metrics.put(MEM_UNIT, "MB");
         String size = FileUtils.byteCountToDisplaySize(this.getDataSize());
         metrics.put(DATA_SIZE, size);
+        // Pinned snapshots may block compaction
+        metrics.put(SNAPSHOT_COUNT, (long) this.sum(NUM_SNAPSHOTS));
+        metrics.put(SNAPSHOT_MAX_AGE, this.getSnapshotMaxAge());
+        // Statistics and table properties of each DB
+        Map<String, Object> dbs = InsertionOrderUtil.newMap();
+        for (RocksDBSessions db : this.dbs) {
+            dbs.put(db.dataPath(), this.getDBMetrics(db));
+        }
+        metrics.put(DBS, dbs);
+        return metrics;
+    }
+
+    private Map<String, Object> getDBMetrics(RocksDBSessions db) {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+
+        Statistics stats = db.statistics();
+        if (stats != null) {
+            long hit = stats.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+            long miss = stats.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+            metrics.put(BLOCK_CACHE_HIT_RATIO, ratio(hit, hit + miss));
+            metrics.put(BLOOM_FILTER_USEFUL,
+                        stats.getTickerCount(TickerType.BLOOM_FILTER_USEFUL));
+            metrics.put(STALL_MICROS,
+                        stats.getTickerCount(TickerType.STALL_MICROS));
+            metrics.put(GET_MICROS, histogram(stats, HistogramType.DB_GET));
+            metrics.put(SEEK_MICROS, histogram(stats, HistogramType.DB_SEEK));
+            metrics.put(WRITE_MICROS, histogram(stats, HistogramType.DB_WRITE));
+            metrics.put(WAL_SYNC_MICROS,
+                        histogram(stats, HistogramType.WAL_FILE_SYNC_MICROS));
+            metrics.put(WRITE_BATCH_BYTES,
+                        histogram(stats, HistogramType.BYTES_PER_WRITE));
+            // How many writes are committed by the leader of write group
+            long self = stats.getTickerCount(TickerType.WRITE_DONE_BY_SELF);
+            long other = stats.getTickerCount(TickerType.WRITE_DONE_BY_OTHER);
+            metrics.put(WRITE_GROUPED_RATIO, ratio(other, self + other));
+        }
+
+        Map<String, Object> tables = InsertionOrderUtil.newMap();
+        RocksDBSessions.Session session = db.session();
+        for (String table : db.openedTables()) {
+            Map<String, Object> props = InsertionOrderUtil.newMap();
+            props.put("pending_compaction_bytes",
+                      Long.parseLong(session.property(
+                                     table, PENDING_COMPACTION_BYTES)));
+            props.put("num_l0_files",
+                      Long.parseLong(session.property(table, NUM_L0_FILES)));
+            props.put("live_sst_size",
+                      Long.parseLong(session.property(table, LIVE_SST_SIZE)));
+            tables.put(table, props);
+        }
+        metrics.put(TABLES, tables);
         return metrics;
     }
 
+    private static double ratio(long part, long total) {
+        return total == 0L ? 0D : (double) part / total;
+    }
+
+    private static Map<String, Object> histogram(Statistics stats,
+                                                 HistogramType type) {
+        HistogramData data = stats.getHistogramData(type);
+        Map<String, Object> histogram = InsertionOrderUtil.newMap();
+        histogram.put("average", data.getAverage());
+        histogram.put("median", data.getMedian());
+        histogram.put("p95", data.getPercentile95());
+        histogram.put("p99", data.getPercentile99());
+        histogram.put("stddev", data.getStandardDeviation());
+        return histogram;
+    }
+
     private double getMemUsed() {
         double blockCache = this.sum(this.session, BLOCK_CACHE);
         double indexFilter = this.sum(this.session, INDEX_FILTER);
@@ -68,6 +165,22 @@ public class RocksDBMetrics implements BackendMetrics {
         return (long) this.sum(DISK_USAGE);
     }
 
+    /**
+     * The age in seconds of the oldest snapshot, 0 if no snapshot
+     */
+    private long getSnapshotMaxAge() {
+        long now = System.currentTimeMillis() / 1000L;
+        long maxAge = 0L;
+        for (RocksDBSessions db : this.dbs) {
+            // The unix time in seconds, 0 if no snapshot
+            long time = Long.parseLong(db.property(OLDEST_SNAPSHOT_TIME));
+            if (time > 0L) {
+                maxAge = Math.max(maxAge, now - time);
+            }
+        }
+        return maxAge;
+    }
+
     private double sum(RocksDBSessions.Session session, String property) {
         double total = 0;
         for (RocksDBSessions db : this.dbs) {
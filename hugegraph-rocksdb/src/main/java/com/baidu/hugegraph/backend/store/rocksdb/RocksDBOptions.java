@@ -124,6 +124,30 @@ public class RocksDBOptions extends OptionHolder {
                     false
             );
 
+    public static final ConfigOption<Boolean> MEM_SNAPSHOT =
+            new ConfigOption<>(
+                    "rocksdb.mem_snapshot",
+                    "Whether to save the data of in-memory backend " +
+                    "rocksdbmem to snapshot files in the data path when " +
+                    "closing, and load them when opening. The data is " +
+                    "volatile if disabled, and the updates after the last " +
+                    "closing are lost on crash even if enabled.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<String> STATISTICS_LEVEL =
+            new ConfigOption<>(
+                    "rocksdb.statistics_level",
+                    "The level of RocksDB statistics reported by backend " +
+                    "metrics: DISABLED/EXCEPT_DETAILED_TIMERS/" +
+                    "EXCEPT_TIME_FOR_MUTEX/ALL, collecting statistics " +
+                    "costs some read/write performance.",
+                    allowValues("DISABLED", "EXCEPT_DETAILED_TIMERS",
+                                "EXCEPT_TIME_FOR_MUTEX", "ALL"),
+                    "DISABLED"
+            );
+
     public static final ConfigOption<String> COMPRESSION_TYPE =
             new ConfigOption<>(
                     "rocksdb.compression_type",
@@ -132,6 +156,33 @@ public class RocksDBOptions extends OptionHolder {
                     "snappy"
             );
 
+    public static final ConfigListOption<String> TABLE_PROFILES =
+            new ConfigListOption<>(
+                    "rocksdb.table_profiles",
+                    false,
+                    "The column family profiles of tables for different " +
+                    "workloads, the format of each element: `TABLE: PROFILE`. " +
+                    "Allowed profiles are [default, point_lookup, " +
+                    "prefix_scan, index], allowed tables are [vertex, " +
+                    "edge_out, edge_in, secondary_index, range_index, " +
+                    "search_index, vertex_label, edge_label, property_key, " +
+                    "index_label]. The per level compression of profiles " +
+                    "prefix_scan and index is not applied if " +
+                    "rocksdb.compression_type is set explicitly.",
+                    null,
+                    String.class,
+                    ImmutableList.of()
+            );
+
+    public static final ConfigOption<Integer> BLOOM_FILTER_BITS_PER_KEY =
+            new ConfigOption<>(
+                    "rocksdb.bloom_filter_bits_per_key",
+                    "The bits per key of bloom filter for tables with " +
+                    "profile point_lookup or index.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    10
+            );
+
     public static final ConfigOption<Integer> MAX_BG_COMPACTIONS =
             new ConfigOption<>(
                     "rocksdb.max_background_compactions",
@@ -156,6 +207,37 @@ public class RocksDBOptions extends OptionHolder {
                     4
             );
 
+    public static final ConfigOption<Boolean> WRITE_SYNC =
+            new ConfigOption<>(
+                    "rocksdb.write_sync",
+                    "Whether to sync the WAL to disk when committing " +
+                    "writes, including the bulk writes unless the WAL of " +
+                    "them is disabled.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<Boolean> WRITE_NO_SLOWDOWN =
+            new ConfigOption<>(
+                    "rocksdb.write_no_slowdown",
+                    "Whether to fail interactive writes immediately " +
+                    "rather than wait if the writes need to be slowed " +
+                    "down, bulk writes always wait.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<Boolean> BULK_WRITE_DISABLE_WAL =
+            new ConfigOption<>(
+                    "rocksdb.bulk_write_disable_wal",
+                    "Whether to disable WAL for bulk writes, which are " +
+                    "the writes of batch APIs, or all writes in bulkload " +
+                    "mode. The data not flushed will be lost if the " +
+                    "process crashed.",
+                    disallowEmpty(),
+                    false
+            );
+
     public static final ConfigOption<Long> DELAYED_WRITE_RATE =
             new ConfigOption<>(
                     "rocksdb.delayed_write_rate",
@@ -269,4 +351,40 @@ public class RocksDBOptions extends OptionHolder {
                     disallowEmpty(),
                     false
             );
+
+    public static final ConfigOption<Integer> PARALLEL_SCAN_THREADS =
+            new ConfigOption<>(
+                    "rocksdb.parallel_scan_threads",
+                    "The number of threads to scan a table by shards in parallel.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    4
+            );
+
+    public static final ConfigOption<Long> PARALLEL_SCAN_SPLIT_SIZE =
+            new ConfigOption<>(
+                    "rocksdb.parallel_scan_split_size",
+                    "The estimated data size in bytes of each shard when " +
+                    "scanning a table in parallel.",
+                    rangeInt(Bytes.MB, Long.MAX_VALUE),
+                    64L * Bytes.MB
+            );
+
+    public static final ConfigOption<Boolean> SNAPSHOT_READ =
+            new ConfigOption<>(
+                    "rocksdb.snapshot_read",
+                    "Whether to pin a snapshot for each query and each " +
+                    "traversal of multi queries, which reads a consistent " +
+                    "view even if there are writes.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<Long> SNAPSHOT_TIMEOUT =
+            new ConfigOption<>(
+                    "rocksdb.snapshot_timeout",
+                    "The max seconds a snapshot can be pinned, it will be " +
+                    "released after timeout to avoid blocking compaction.",
+                    rangeInt(1L, Long.MAX_VALUE),
+                    600L
+            );
 }
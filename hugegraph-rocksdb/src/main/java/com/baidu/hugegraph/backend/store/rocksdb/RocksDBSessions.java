@@ -19,9 +19,12 @@
 
 package com.baidu.hugegraph.backend.store.rocksdb;
 
+import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
 
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.BackendSession;
@@ -38,8 +41,15 @@ public abstract class RocksDBSessions extends BackendSessionPool {
     public abstract void createTable(String table) throws RocksDBException;
     public abstract void dropTable(String table) throws RocksDBException;
 
+    public abstract String dataPath();
+
     public abstract String property(String property);
 
+    /**
+     * Get the statistics of DB, return null if statistics is disabled
+     */
+    public abstract Statistics statistics();
+
     @Override
     public abstract Session session();
 
@@ -58,6 +68,22 @@ public abstract class RocksDBSessions extends BackendSessionPool {
 
         public abstract String property(String table, String property);
 
+        /**
+         * Any change of a table in the session, the changes not committed
+         * are invisible to the reads, so a table can't be read with changes
+         * of itself, but can be read with the changes of other tables
+         */
+        public abstract boolean hasChanges(String table);
+
+        /**
+         * Pin a snapshot for the following reads of this session until
+         * endSnapshot() is called, it can be nested and the outermost one
+         * takes effect. Iterators created in the meantime keep reading the
+         * snapshot until they are closed.
+         */
+        public abstract void beginSnapshot();
+        public abstract void endSnapshot();
+
         public abstract void put(String table, byte[] key, byte[] value);
         public abstract void merge(String table, byte[] key, byte[] value);
         public abstract void increase(String table, byte[] key, byte[] value);
@@ -81,5 +107,13 @@ public abstract class RocksDBSessions extends BackendSessionPool {
                                           byte[] keyTo) {
             return this.scan(table, keyFrom, keyTo, SCAN_LT_END);
         }
+
+        /**
+         * Scan multiple key ranges [keyFrom, keyTo) of a table, null means
+         * unbounded. All the iterators read from the same snapshot and can
+         * be consumed by different threads concurrently.
+         */
+        public abstract List<BackendColumnIterator> scan(
+                        String table, List<Pair<byte[], byte[]>> ranges);
     }
 }
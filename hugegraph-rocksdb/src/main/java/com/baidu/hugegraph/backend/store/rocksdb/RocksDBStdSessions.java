@@ -29,7 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
@@ -46,27 +48,41 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+import org.rocksdb.Statistics;
+import org.rocksdb.StatsLevel;
 import org.rocksdb.SstFileManager;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.serializer.BinarySerializer;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
 import com.baidu.hugegraph.util.StringEncoding;
 import com.google.common.collect.ImmutableList;
 
 public class RocksDBStdSessions extends RocksDBSessions {
 
+    private static final Logger LOG = Log.logger(RocksDBStdSessions.class);
+
+    // Returned by reading a released snapshot
+    private static final byte[] SNAPSHOT_RELEASED = new byte[0];
+
     private final Map<String, ColumnFamilyHandle> cfs = new HashMap<>();
+    private final Set<SharedSnapshot> snapshots = ConcurrentHashMap.newKeySet();
 
     private final HugeConfig conf;
+    private final String dataPath;
     private final RocksDB rocksdb;
     private final SstFileManager sstFileManager;
+    private final Statistics statistics;
 
     public RocksDBStdSessions(HugeConfig config, String dataPath,
                               String walPath, String database, String store)
@@ -74,6 +90,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         super(database, store);
 
         this.conf = config;
+        this.dataPath = dataPath;
 
         // Init options
         Options options = new Options();
@@ -83,6 +100,11 @@ public class RocksDBStdSessions extends RocksDBSessions {
         this.sstFileManager = new SstFileManager(Env.getDefault());
         options.setSstFileManager(this.sstFileManager);
 
+        this.statistics = newStatistics(this.conf);
+        if (this.statistics != null) {
+            options.setStatistics(this.statistics);
+        }
+
         /*
          * Open RocksDB at the first time
          * Don't merge old CFs, we expect a clear DB when using this one
@@ -95,6 +117,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
                               List<String> cfNames) throws RocksDBException {
         super(database, store);
         this.conf = config;
+        this.dataPath = dataPath;
 
         // Old CFs should always be opened
         Set<String> mergedCFs = this.mergeOldCFs(dataPath, cfNames);
@@ -106,6 +129,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
             ColumnFamilyDescriptor cfd = new ColumnFamilyDescriptor(encode(cf));
             ColumnFamilyOptions options = cfd.getOptions();
             RocksDBStdSessions.initOptions(this.conf, null, options, options);
+            RocksDBTableProfile.of(this.conf, cf).apply(this.conf, options);
             cfds.add(cfd);
         }
 
@@ -117,6 +141,11 @@ public class RocksDBStdSessions extends RocksDBSessions {
         this.sstFileManager = new SstFileManager(Env.getDefault());
         options.setSstFileManager(this.sstFileManager);
 
+        this.statistics = newStatistics(this.conf);
+        if (this.statistics != null) {
+            options.setStatistics(this.statistics);
+        }
+
         // Open RocksDB with CFs
         List<ColumnFamilyHandle> cfhs = new ArrayList<>();
         this.rocksdb = RocksDB.open(options, dataPath, cfds, cfhs);
@@ -158,6 +187,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         ColumnFamilyDescriptor cfd = new ColumnFamilyDescriptor(encode(table));
         ColumnFamilyOptions options = cfd.getOptions();
         initOptions(this.conf, null, options, options);
+        RocksDBTableProfile.of(this.conf, table).apply(this.conf, options);
         this.cfs.put(table, this.rocksdb.createColumnFamily(cfd));
 
         ingestExternalFile();
@@ -173,6 +203,16 @@ public class RocksDBStdSessions extends RocksDBSessions {
         this.cfs.remove(table);
     }
 
+    @Override
+    public String dataPath() {
+        return this.dataPath;
+    }
+
+    @Override
+    public Statistics statistics() {
+        return this.statistics;
+    }
+
     @Override
     public String property(String property) {
         try {
@@ -201,12 +241,20 @@ public class RocksDBStdSessions extends RocksDBSessions {
     protected synchronized void doClose() {
         this.checkValid();
 
+        for (SharedSnapshot snapshot : this.snapshots) {
+            snapshot.destroy();
+        }
+
         for (ColumnFamilyHandle cf : this.cfs.values()) {
             cf.close();
         }
         this.cfs.clear();
 
         this.rocksdb.close();
+
+        if (this.statistics != null) {
+            this.statistics.close();
+        }
     }
 
     private void checkValid() {
@@ -227,6 +275,19 @@ public class RocksDBStdSessions extends RocksDBSessions {
         return cfh;
     }
 
+    private void expireSnapshots() {
+        long timeout = this.conf.get(RocksDBOptions.SNAPSHOT_TIMEOUT) * 1000L;
+        long now = System.currentTimeMillis();
+        for (SharedSnapshot snapshot : this.snapshots) {
+            long age = now - snapshot.createTime();
+            if (age > timeout) {
+                LOG.warn("Release snapshot of RocksDB '{}' which has been " +
+                         "pinned for {}ms", this, age);
+                snapshot.destroy();
+            }
+        }
+    }
+
     private Set<String> mergeOldCFs(String path, List<String> cfNames)
                                     throws RocksDBException {
         Set<String> cfs = listCFs(path);
@@ -249,6 +310,16 @@ public class RocksDBStdSessions extends RocksDBSessions {
         }
     }
 
+    private static Statistics newStatistics(HugeConfig conf) {
+        String level = conf.get(RocksDBOptions.STATISTICS_LEVEL);
+        if (level.equals("DISABLED")) {
+            return null;
+        }
+        Statistics statistics = new Statistics();
+        statistics.setStatsLevel(StatsLevel.valueOf(level));
+        return statistics;
+    }
+
     public static Set<String> listCFs(String path) throws RocksDBException {
         Set<String> cfs = new HashSet<>();
 
@@ -385,21 +456,49 @@ public class RocksDBStdSessions extends RocksDBSessions {
         private boolean closed;
 
         private WriteBatch batch;
+        // The tables changed in the batch
+        private Set<String> changedTables;
         private WriteOptions writeOptions;
+        private WriteOptions bulkWriteOptions;
+        private boolean bulkload;
+
+        private SharedSnapshot snapshot;
+        private int snapshotDepth;
 
         public StdSession(HugeConfig conf) {
             this.closed = false;
+            this.snapshot = null;
+            this.snapshotDepth = 0;
 
-            boolean bulkload = conf.get(RocksDBOptions.BULKLOAD_MODE);
+            this.bulkload = conf.get(RocksDBOptions.BULKLOAD_MODE);
             this.batch = new WriteBatch();
+            this.changedTables = new HashSet<>();
+
+            boolean sync = conf.get(RocksDBOptions.WRITE_SYNC);
+            // Write options for interactive writes
             this.writeOptions = new WriteOptions();
-            this.writeOptions.setDisableWAL(bulkload);
-            //this.writeOptions.setSync(false);
+            this.writeOptions.setSync(sync);
+            this.writeOptions.setNoSlowdown(
+                    conf.get(RocksDBOptions.WRITE_NO_SLOWDOWN));
+
+            // Write options for bulk writes (batch APIs or bulkload mode)
+            this.bulkWriteOptions = new WriteOptions();
+            if (this.bulkload ||
+                conf.get(RocksDBOptions.BULK_WRITE_DISABLE_WAL)) {
+                // Can't sync WAL if it's disabled
+                this.bulkWriteOptions.setDisableWAL(true);
+            } else {
+                this.bulkWriteOptions.setSync(sync);
+            }
         }
 
         @Override
         public void close() {
             assert this.closeable();
+            if (this.snapshot != null) {
+                this.snapshot.unpin();
+                this.snapshot = null;
+            }
             this.closed = true;
         }
 
@@ -414,6 +513,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         @Override
         public void clear() {
             this.batch.clear();
+            this.changedTables.clear();
         }
 
         /**
@@ -424,6 +524,14 @@ public class RocksDBStdSessions extends RocksDBSessions {
             return this.batch.count() > 0;
         }
 
+        /**
+         * Any change of a table in the session
+         */
+        @Override
+        public boolean hasChanges(String table) {
+            return this.changedTables.contains(table);
+        }
+
         /**
          * Get property value by name from specified table
          */
@@ -436,6 +544,29 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
 
+        /**
+         * Pin a snapshot for reading until endSnapshot()
+         */
+        @Override
+        public void beginSnapshot() {
+            if (this.snapshotDepth++ > 0) {
+                return;
+            }
+            expireSnapshots();
+            this.snapshot = new SharedSnapshot();
+        }
+
+        @Override
+        public void endSnapshot() {
+            E.checkState(this.snapshotDepth > 0,
+                         "Can't end snapshot without beginning it");
+            if (--this.snapshotDepth > 0) {
+                return;
+            }
+            this.snapshot.unpin();
+            this.snapshot = null;
+        }
+
         /**
          * Commit all updates(put/delete) to DB
          */
@@ -447,7 +578,12 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
 
             try {
-                rocksdb().write(this.writeOptions, this.batch);
+                /*
+                 * NOTE: concurrent writes from multi sessions are grouped
+                 * by RocksDB write thread, the leader writes WAL (and sync
+                 * if needed) once for the whole group
+                 */
+                rocksdb().write(this.writeOptions(), this.batch);
             } catch (RocksDBException e) {
                 //this.batch.rollbackToSavePoint();
                 throw new BackendException(e);
@@ -455,10 +591,22 @@ public class RocksDBStdSessions extends RocksDBSessions {
 
             // Clear batch if write() successfully (retained if failed)
             this.batch.clear();
+            this.changedTables.clear();
 
             return count;
         }
 
+        /**
+         * Get the write options of the next commit, the bulk ones if in
+         * bulkload mode or the caller marks its writes as bulk writes
+         */
+        private WriteOptions writeOptions() {
+            if (this.bulkload || BackendMutation.bulkWrite()) {
+                return this.bulkWriteOptions;
+            }
+            return this.writeOptions;
+        }
+
         /**
          * Add a KV record to a table
          */
@@ -466,6 +614,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         public void put(String table, byte[] key, byte[] value) {
             try {
                 this.batch.put(cf(table), key, value);
+                this.changedTables.add(table);
             } catch (RocksDBException e) {
                 throw new BackendException(e);
             }
@@ -480,6 +629,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         public void merge(String table, byte[] key, byte[] value) {
             try {
                 this.batch.merge(cf(table), key, value);
+                this.changedTables.add(table);
             } catch (RocksDBException e) {
                 throw new BackendException(e);
             }
@@ -504,6 +654,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         public void remove(String table, byte[] key) {
             try {
                 this.batch.singleDelete(cf(table), key);
+                this.changedTables.add(table);
             } catch (RocksDBException e) {
                 throw new BackendException(e);
             }
@@ -519,6 +670,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
             keyTo = BinarySerializer.increaseOne(keyTo);
             try {
                 this.batch.deleteRange(cf(table), keyFrom, keyTo);
+                this.changedTables.add(table);
             } catch (RocksDBException e) {
                 throw new BackendException(e);
             }
@@ -531,6 +683,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         public void delete(String table, byte[] keyFrom, byte[] keyTo) {
             try {
                 this.batch.deleteRange(cf(table), keyFrom, keyTo);
+                this.changedTables.add(table);
             } catch (RocksDBException e) {
                 throw new BackendException(e);
             }
@@ -541,9 +694,16 @@ public class RocksDBStdSessions extends RocksDBSessions {
          */
         @Override
         public byte[] get(String table, byte[] key) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
 
             try {
+                if (this.snapshot != null) {
+                    byte[] value = this.snapshot.get(cf(table), key);
+                    if (value != SNAPSHOT_RELEASED) {
+                        return value;
+                    }
+                    this.snapshotExpired();
+                }
                 return rocksdb().get(cf(table), key);
             } catch (RocksDBException e) {
                 throw new BackendException(e);
@@ -555,9 +715,9 @@ public class RocksDBStdSessions extends RocksDBSessions {
          */
         @Override
         public BackendColumnIterator scan(String table) {
-            assert !this.hasChanges();
-            RocksIterator itor = rocksdb().newIterator(cf(table));
-            return new ColumnIterator(table, itor, null, null, SCAN_ANY);
+            assert !this.hasChanges(table);
+            return this.newIterator(table, new ReadOptions(),
+                                    null, null, SCAN_ANY);
         }
 
         /**
@@ -565,13 +725,12 @@ public class RocksDBStdSessions extends RocksDBSessions {
          */
         @Override
         public BackendColumnIterator scan(String table, byte[] prefix) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
             ReadOptions options = new ReadOptions();
             // NOTE: Options.prefix_extractor is a prerequisite
             options.setPrefixSameAsStart(true);
-            RocksIterator itor = rocksdb().newIterator(cf(table), options);
-            return new ColumnIterator(table, itor, prefix, null,
-                                      SCAN_PREFIX_WITH_BEGIN);
+            return this.newIterator(table, options, prefix, null,
+                                    SCAN_PREFIX_WITH_BEGIN);
         }
 
         /**
@@ -580,12 +739,154 @@ public class RocksDBStdSessions extends RocksDBSessions {
         @Override
         public BackendColumnIterator scan(String table, byte[] keyFrom,
                                           byte[] keyTo, int scanType) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
             ReadOptions options = new ReadOptions();
             options.setTotalOrderSeek(true); // Not sure if it must be set
-            RocksIterator itor = rocksdb().newIterator(cf(table), options);
+            return this.newIterator(table, options, keyFrom, keyTo, scanType);
+        }
+
+        /**
+         * Scan records by multi key ranges from a table with a snapshot
+         */
+        @Override
+        public List<BackendColumnIterator> scan(String table,
+                                                List<Pair<byte[], byte[]>>
+                                                ranges) {
+            assert !this.hasChanges(table);
+            ColumnFamilyHandle cfh = cf(table);
+            SharedSnapshot snapshot = new SharedSnapshot();
+            List<BackendColumnIterator> itors = new ArrayList<>(ranges.size());
+            for (Pair<byte[], byte[]> range : ranges) {
+                byte[] keyFrom = range.getLeft();
+                byte[] keyTo = range.getRight();
+                int scanType = 0;
+                if (keyFrom != null) {
+                    scanType |= SCAN_GTE_BEGIN;
+                }
+                if (keyTo != null) {
+                    scanType |= SCAN_LT_END;
+                }
+                if (scanType == 0) {
+                    scanType = SCAN_ANY;
+                }
+                // Each iterator owns its ReadOptions with the shared snapshot
+                ReadOptions options = new ReadOptions();
+                options.setTotalOrderSeek(true);
+                RocksIterator itor = snapshot.newIterator(cfh, options);
+                E.checkState(itor != null, "The snapshot has been released");
+                itors.add(new SnapshotColumnIterator(table, itor, keyFrom,
+                                                     keyTo, scanType,
+                                                     options, snapshot));
+            }
+            // Released after all the iterators closed
+            snapshot.unpin();
+            return itors;
+        }
+
+        private BackendColumnIterator newIterator(String table,
+                                                  ReadOptions options,
+                                                  byte[] keyFrom,
+                                                  byte[] keyTo,
+                                                  int scanType) {
+            ColumnFamilyHandle cfh = cf(table);
+            if (this.snapshot != null) {
+                RocksIterator itor = this.snapshot.newIterator(cfh, options);
+                if (itor != null) {
+                    return new SnapshotColumnIterator(table, itor, keyFrom,
+                                                      keyTo, scanType,
+                                                      options, this.snapshot);
+                }
+                this.snapshotExpired();
+            }
+            RocksIterator itor = rocksdb().newIterator(cfh, options);
             return new ColumnIterator(table, itor, keyFrom, keyTo, scanType);
         }
+
+        private void snapshotExpired() {
+            // Read the latest data after the snapshot released due to timeout
+            LOG.warn("The snapshot of session has been released due to " +
+                     "timeout, read the latest data instead");
+            this.snapshot.unpin();
+            this.snapshot = null;
+        }
+    }
+
+    /**
+     * A snapshot shared by a session and multi iterators, it's released after
+     * all of them released it or it has been pinned for too long
+     */
+    private final class SharedSnapshot {
+
+        private final Snapshot snapshot;
+        private final long createTime;
+        // The pinner (session or scan) holds a reference until unpin()
+        private int refs;
+        private boolean pinned;
+        private boolean released;
+
+        public SharedSnapshot() {
+            this.snapshot = rocksdb().getSnapshot();
+            this.createTime = System.currentTimeMillis();
+            this.refs = 1;
+            this.pinned = true;
+            this.released = false;
+            RocksDBStdSessions.this.snapshots.add(this);
+        }
+
+        public long createTime() {
+            return this.createTime;
+        }
+
+        /**
+         * Create an iterator reading the snapshot, return null if released
+         */
+        public synchronized RocksIterator newIterator(ColumnFamilyHandle cf,
+                                                      ReadOptions options) {
+            if (this.released) {
+                return null;
+            }
+            options.setSnapshot(this.snapshot);
+            this.refs++;
+            return rocksdb().newIterator(cf, options);
+        }
+
+        /**
+         * Get a value from the snapshot, return SNAPSHOT_RELEASED if released
+         */
+        public synchronized byte[] get(ColumnFamilyHandle cf, byte[] key)
+                                       throws RocksDBException {
+            if (this.released) {
+                return SNAPSHOT_RELEASED;
+            }
+            try (ReadOptions options = new ReadOptions()) {
+                options.setSnapshot(this.snapshot);
+                return rocksdb().get(cf, options, key);
+            }
+        }
+
+        public synchronized void unpin() {
+            if (this.pinned) {
+                this.pinned = false;
+                this.release();
+            }
+        }
+
+        public synchronized void release() {
+            if (--this.refs <= 0) {
+                this.destroy();
+            }
+        }
+
+        public synchronized void destroy() {
+            if (this.released) {
+                return;
+            }
+            this.released = true;
+            RocksDBStdSessions.this.snapshots.remove(this);
+            if (RocksDBStdSessions.this.rocksdb.isOwningHandle()) {
+                rocksdb().releaseSnapshot(this.snapshot);
+            }
+        }
     }
 
     /**
@@ -801,4 +1102,34 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
     }
+
+    /**
+     * A ColumnIterator that releases its ReadOptions and snapshot when closed
+     */
+    private static class SnapshotColumnIterator extends ColumnIterator {
+
+        private final ReadOptions options;
+        private final SharedSnapshot snapshot;
+        private boolean released;
+
+        public SnapshotColumnIterator(String table, RocksIterator itor,
+                                      byte[] keyBegin, byte[] keyEnd,
+                                      int scanType, ReadOptions options,
+                                      SharedSnapshot snapshot) {
+            super(table, itor, keyBegin, keyEnd, scanType);
+            this.options = options;
+            this.snapshot = snapshot;
+            this.released = false;
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            if (!this.released) {
+                this.released = true;
+                this.options.close();
+                this.snapshot.release();
+            }
+        }
+    }
 }
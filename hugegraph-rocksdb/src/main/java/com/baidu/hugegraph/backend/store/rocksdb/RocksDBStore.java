@@ -45,6 +45,7 @@ import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendFeatures;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStoreProvider;
+import com.baidu.hugegraph.backend.store.ParallelScanIterator;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.type.HugeType;
@@ -65,6 +66,7 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
     private final BackendStoreProvider provider;
     private final Map<HugeType, RocksDBTable> tables;
 
+    private HugeConfig conf;
     private RocksDBSessions sessions;
     private final Map<HugeType, String> tableDiskMapping;
 
@@ -79,6 +81,7 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         this.provider = provider;
         this.database = database;
         this.store = store;
+        this.conf = null;
         this.sessions = null;
         this.tableDiskMapping = new HashMap<>();
 
@@ -147,6 +150,8 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
             return;
         }
 
+        this.conf = config;
+
         // Open base disk
         String dataPath = this.wrapPath(config.get(RocksDBOptions.DATA_PATH));
         String walPath = this.wrapPath(config.get(RocksDBOptions.WAL_PATH));
@@ -308,7 +313,33 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
     public Iterator<BackendEntry> query(Query query) {
         HugeType tableType = RocksDBTable.tableType(query);
         RocksDBTable table = this.table(tableType);
-        return table.query(this.session(tableType), query);
+        Session session = this.session(tableType);
+        if (!this.conf.get(RocksDBOptions.SNAPSHOT_READ)) {
+            return table.query(session, query);
+        }
+        // The iterators of results keep reading the snapshot until closed
+        session.beginSnapshot();
+        try {
+            return table.query(session, query);
+        } finally {
+            session.endSnapshot();
+        }
+    }
+
+    @Override
+    public Iterator<BackendEntry> scanInParallel(HugeType type) {
+        this.checkOpened();
+
+        RocksDBTable table = this.table(type);
+        Query query = new Query(type);
+        query.capacity(Query.NO_CAPACITY);
+
+        long splitSize = this.conf.get(RocksDBOptions.PARALLEL_SCAN_SPLIT_SIZE);
+        int threads = this.conf.get(RocksDBOptions.PARALLEL_SCAN_THREADS);
+        List<Iterator<BackendEntry>> shards = table.queryByShards(
+                                              this.session(type), query,
+                                              splitSize);
+        return new ParallelScanIterator(shards, threads);
     }
 
     @Override
@@ -404,6 +435,28 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         }
     }
 
+    @Override
+    public boolean beginSnapshot() {
+        if (!this.conf.get(RocksDBOptions.SNAPSHOT_READ)) {
+            return false;
+        }
+        for (Session session : this.session()) {
+            session.beginSnapshot();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endSnapshot() {
+        if (!this.conf.get(RocksDBOptions.SNAPSHOT_READ)) {
+            return false;
+        }
+        for (Session session : this.session()) {
+            session.endSnapshot();
+        }
+        return true;
+    }
+
     @Override
     protected Session session(HugeType tableType) {
         this.checkOpened();
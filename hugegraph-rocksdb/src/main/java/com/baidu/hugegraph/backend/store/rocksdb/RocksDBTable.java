@@ -19,8 +19,11 @@
 
 package com.baidu.hugegraph.backend.store.rocksdb;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.id.Id;
@@ -204,6 +207,35 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         return session.scan(this.table(), start, end);
     }
 
+    /**
+     * Split the table into shards by `splitSize`, and return an iterator for
+     * each shard, all of them read from the same snapshot
+     */
+    public List<Iterator<BackendEntry>> queryByShards(Session session,
+                                                      Query query,
+                                                      long splitSize) {
+        List<Shard> shards = this.shardSpliter.getSplits(session, splitSize);
+        List<Pair<byte[], byte[]>> ranges = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            // Make the first and the last shard unbounded to cover all keys
+            byte[] start = i == 0 ? null :
+                           this.shardSpliter.position(shard.start());
+            byte[] end = i == shards.size() - 1 ? null :
+                         this.shardSpliter.position(shard.end());
+            ranges.add(Pair.of(start, end));
+        }
+
+        List<BackendColumnIterator> results = session.scan(this.table(),
+                                                           ranges);
+        List<Iterator<BackendEntry>> iterators = new ArrayList<>(
+                                                 results.size());
+        for (BackendColumnIterator cols : results) {
+            iterators.add(newEntryIterator(cols, query));
+        }
+        return iterators;
+    }
+
     protected static BackendEntryIterator newEntryIterator(
                                           BackendColumnIterator cols,
                                           Query query) {
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyOptionsInterface;
+import org.rocksdb.CompactionPriority;
+import org.rocksdb.CompressionType;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * The column family options for tables with different workloads,
+ * the profile of each table can be set by `rocksdb.table_profiles`.
+ * The per level compression of a profile is not applied if
+ * `rocksdb.compression_type` is set explicitly.
+ */
+public enum RocksDBTableProfile {
+
+    // Keep the common options of all tables
+    DEFAULT(0L, false, false, false),
+
+    // Tables mostly read by key, like vertex and schema tables
+    POINT_LOOKUP(4L * Bytes.KB, true, false, false),
+
+    // Tables mostly written and scanned by prefix, like edge tables
+    PREFIX_SCAN(16L * Bytes.KB, false, true, false),
+
+    // Tables with many tiny keys and frequent deletes, like index tables
+    INDEX(4L * Bytes.KB, true, true, true);
+
+    private static final Logger LOG = Log.logger(RocksDBTableProfile.class);
+
+    private final long blockSize;
+    private final boolean bloomFilter;
+    private final boolean compressPerLevel;
+    private final boolean compactDeletes;
+
+    private RocksDBTableProfile(long blockSize, boolean bloomFilter,
+                                boolean compressPerLevel,
+                                boolean compactDeletes) {
+        this.blockSize = blockSize;
+        this.bloomFilter = bloomFilter;
+        this.compressPerLevel = compressPerLevel;
+        this.compactDeletes = compactDeletes;
+    }
+
+    public void apply(HugeConfig conf, ColumnFamilyOptionsInterface<?> cf) {
+        if (this == DEFAULT) {
+            return;
+        }
+
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+        tableConfig.setBlockSize(this.blockSize);
+        if (this.bloomFilter) {
+            int bitsPerKey = conf.get(RocksDBOptions.BLOOM_FILTER_BITS_PER_KEY);
+            // Use full filter rather than block-based filter
+            tableConfig.setFilter(new BloomFilter(bitsPerKey, false));
+            tableConfig.setWholeKeyFiltering(true);
+            tableConfig.setCacheIndexAndFilterBlocks(true);
+            tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+        }
+        cf.setTableFormatConfig(tableConfig);
+
+        if (this.compressPerLevel && explicitCompression(conf)) {
+            /*
+             * The compression type set by user explicitly wins, don't
+             * override it with the per level compression of the profile
+             */
+            LOG.info("Use the compression type '{}' instead of the per " +
+                     "level compression of table profile {}",
+                     conf.get(RocksDBOptions.COMPRESSION_TYPE), this);
+        } else if (this.compressPerLevel) {
+            /*
+             * Don't compress the hot upper levels, use lz4 for the middle
+             * levels and zstd for the bottommost level
+             */
+            int levels = conf.get(RocksDBOptions.NUM_LEVELS);
+            List<CompressionType> compressions = new ArrayList<>(levels);
+            for (int i = 0; i < levels; i++) {
+                if (i < 2) {
+                    compressions.add(CompressionType.NO_COMPRESSION);
+                } else if (i < levels - 1) {
+                    compressions.add(CompressionType.LZ4_COMPRESSION);
+                } else {
+                    compressions.add(CompressionType.ZSTD_COMPRESSION);
+                }
+            }
+            cf.setCompressionPerLevel(compressions);
+        }
+
+        if (this.compactDeletes) {
+            // Compact files overlapping less first to drop tombstones sooner
+            cf.setCompactionPriority(CompactionPriority.MinOverlappingRatio);
+        }
+    }
+
+    public static RocksDBTableProfile of(HugeConfig conf, String table) {
+        List<String> profiles = conf.get(RocksDBOptions.TABLE_PROFILES);
+        for (String profile : profiles) {
+            // The format of `profile` like: `edge_out: prefix_scan`
+            String[] pair = profile.split(":", 2);
+            E.checkState(pair.length == 2,
+                         "Invalid table profile format: '%s', " +
+                         "expect `TABLE:PROFILE`", profile);
+            HugeType type = HugeType.valueOf(pair[0].trim().toUpperCase());
+            if (table.endsWith("+" + tableName(type))) {
+                return valueOf(pair[1].trim().toUpperCase());
+            }
+        }
+        return DEFAULT;
+    }
+
+    private static boolean explicitCompression(HugeConfig conf) {
+        return conf.containsKey(RocksDBOptions.COMPRESSION_TYPE.name());
+    }
+
+    private static String tableName(HugeType type) {
+        switch (type) {
+            case VERTEX_LABEL:
+                return RocksDBTables.VertexLabel.TABLE;
+            case EDGE_LABEL:
+                return RocksDBTables.EdgeLabel.TABLE;
+            case PROPERTY_KEY:
+                return RocksDBTables.PropertyKey.TABLE;
+            case INDEX_LABEL:
+                return RocksDBTables.IndexLabel.TABLE;
+            case VERTEX:
+                return RocksDBTables.Vertex.TABLE;
+            case EDGE_OUT:
+                return "o" + RocksDBTables.Edge.TABLE_SUFFIX;
+            case EDGE_IN:
+                return "i" + RocksDBTables.Edge.TABLE_SUFFIX;
+            case SECONDARY_INDEX:
+                return RocksDBTables.SecondaryIndex.TABLE;
+            case SEARCH_INDEX:
+                return RocksDBTables.SearchIndex.TABLE;
+            case RANGE_INDEX:
+                return RocksDBTables.RangeIndex.TABLE;
+            default:
+                throw new IllegalArgumentException(String.format(
+                          "Unsupported table type of profile: %s", type));
+        }
+    }
+}
@@ -21,6 +21,8 @@ package com.baidu.hugegraph.backend.store.rocksdb;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.baidu.hugegraph.backend.id.Id;
@@ -28,11 +30,13 @@ import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIteratorWrapper;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.E;
@@ -139,6 +143,84 @@ public class RocksDBTables {
             return new Edge(false, database);
         }
 
+        @Override
+        public void delete(Session session, BackendEntry entry) {
+            if (!entry.columns().isEmpty()) {
+                super.delete(session, entry);
+                return;
+            }
+
+            /*
+             * Delete edges by label: the edges of an owner vertex with the
+             * same label are adjacent, so seek to each owner vertex and drop
+             * the edges by range of (owner-vertex + dir + edge-label) prefix.
+             * The range deletions are collected before queued in the batch,
+             * since the changes not committed are invisible to the reads,
+             * and committed every COMMIT_BATCH ones to bound the batch size
+             */
+            Id label = BytesBuffer.wrap(entry.id().asBytes()).readId();
+            List<byte[]> prefixes = new ArrayList<>();
+            byte[] owner = this.nextOwner(session, null);
+            while (owner != null) {
+                byte[] prefix = BytesBuffer.allocate(owner.length + 1 +
+                                                     label.length())
+                                           .write(owner).writeId(label)
+                                           .bytes();
+                if (this.exists(session, prefix)) {
+                    prefixes.add(prefix);
+                }
+                if (prefixes.size() >= GraphTransaction.COMMIT_BATCH) {
+                    this.deletePrefixes(session, prefixes);
+                    session.commit();
+                    prefixes.clear();
+                }
+                // Skip the remaining edges of the owner vertex
+                byte[] next = Arrays.copyOf(owner, owner.length);
+                owner = this.nextOwner(session,
+                                       BinarySerializer.increaseOne(next));
+            }
+            // The rest ones are committed with the other changes
+            this.deletePrefixes(session, prefixes);
+        }
+
+        private void deletePrefixes(Session session, List<byte[]> prefixes) {
+            for (byte[] prefix : prefixes) {
+                session.delete(this.table(), prefix);
+            }
+        }
+
+        private byte[] nextOwner(Session session, byte[] position) {
+            BackendColumnIterator iter;
+            if (position == null) {
+                iter = session.scan(this.table());
+            } else {
+                iter = session.scan(this.table(), position, null,
+                                    Session.SCAN_GTE_BEGIN);
+            }
+            try {
+                if (!iter.hasNext()) {
+                    return null;
+                }
+                byte[] key = iter.next().name;
+                // owner-vertex + dir + edge-label + sort-values + other
+                BytesBuffer buffer = BytesBuffer.wrap(key);
+                buffer.readId();
+                buffer.read();
+                return Arrays.copyOf(key, key.length - buffer.remaining());
+            } finally {
+                iter.close();
+            }
+        }
+
+        private boolean exists(Session session, byte[] prefix) {
+            BackendColumnIterator iter = session.scan(this.table(), prefix);
+            try {
+                return iter.hasNext();
+            } finally {
+                iter.close();
+            }
+        }
+
         @Override
         protected BackendColumnIterator queryById(Session session, Id id) {
             byte[] value = session.get(this.table(), id.asBytes());
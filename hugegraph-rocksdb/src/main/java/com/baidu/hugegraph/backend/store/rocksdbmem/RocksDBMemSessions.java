@@ -0,0 +1,742 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdbmem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.rocksdb.Statistics;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBMetrics;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Keep the binary key-values of each table in a sorted map in memory, so
+ * that the RocksDB store and tables work on it without any disk access:
+ * gets and the seeks of prefix/range scans cost O(log n), and the edges of
+ * a vertex are adjacent in key order like the rows of a CSR layout.
+ * NOTE: the data is volatile, it's lost when the process exits unless
+ * `rocksdb.mem_snapshot` is enabled to save it when closing the store, and
+ * even then the updates committed after the last close are lost on crash.
+ * The updates of a commit are visible to gets and scan steps all at once,
+ * but a scan reads the latest data (weakly consistent) rather than a
+ * snapshot, so the rows after its position may change while scanning.
+ */
+public class RocksDBMemSessions extends RocksDBSessions {
+
+    private static final Logger LOG = Log.logger(RocksDBMemSessions.class);
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int SNAPSHOT_END = -1;
+
+    private static final String MEM_SIZE = "rocksdb.size-all-mem-tables";
+    private static final String NUM_KEYS = "rocksdb.estimate-num-keys";
+    private static final String SST_SIZE = "rocksdb.total-sst-files-size";
+
+    private final String dataPath;
+    private final boolean snapshot;
+    private final Map<String, ConcurrentNavigableMap<byte[], byte[]>> tables;
+    // Commits hold the write lock, gets and scan steps hold the read lock
+    private final ReadWriteLock commitLock;
+
+    public RocksDBMemSessions(HugeConfig conf, String dataPath,
+                              String database, String store) {
+        super(database, store);
+
+        this.dataPath = dataPath;
+        this.snapshot = conf.get(RocksDBOptions.MEM_SNAPSHOT);
+        this.tables = new ConcurrentHashMap<>();
+        this.commitLock = new ReentrantReadWriteLock();
+        if (!this.snapshot) {
+            LOG.info("The data of rocksdbmem store '{}' is volatile, " +
+                     "enable '{}' to keep it after closing",
+                     store, RocksDBOptions.MEM_SNAPSHOT.name());
+        }
+    }
+
+    public RocksDBMemSessions(HugeConfig conf, String dataPath,
+                              String database, String store,
+                              List<String> tableNames) {
+        this(conf, dataPath, database, store);
+        for (String table : tableNames) {
+            this.openTable(table);
+        }
+    }
+
+    @Override
+    public void open(HugeConfig config) throws Exception {
+        // pass
+    }
+
+    @Override
+    protected boolean opened() {
+        return true;
+    }
+
+    @Override
+    public Set<String> openedTables() {
+        return this.tables.keySet();
+    }
+
+    private void openTable(String table) {
+        ConcurrentNavigableMap<byte[], byte[]> data = newTable();
+        if (this.snapshot) {
+            this.loadSnapshot(table, data);
+        }
+        this.tables.putIfAbsent(table, data);
+    }
+
+    @Override
+    public void createTable(String table) {
+        this.tables.putIfAbsent(table, newTable());
+    }
+
+    @Override
+    public void dropTable(String table) {
+        // Raise "not opened" error like RocksDB if not exists
+        this.table(table);
+        this.tables.remove(table);
+        try {
+            Files.deleteIfExists(this.snapshotPath(table));
+        } catch (IOException e) {
+            throw new BackendException("Failed to delete snapshot of '%s'",
+                                       e, table);
+        }
+    }
+
+    @Override
+    public String dataPath() {
+        return this.dataPath;
+    }
+
+    @Override
+    public String property(String property) {
+        switch (property) {
+            case RocksDBMetrics.DISK_USAGE:
+                // The snapshot files are the only data on disk
+                long size = 0L;
+                for (String table : this.tables.keySet()) {
+                    size += this.snapshotPath(table).toFile().length();
+                }
+                return String.valueOf(size);
+            case RocksDBMetrics.BLOCK_CACHE:
+            case RocksDBMetrics.INDEX_FILTER:
+            case RocksDBMetrics.NUM_SNAPSHOTS:
+            case RocksDBMetrics.OLDEST_SNAPSHOT_TIME:
+                // There are no block cache, sst files or pinned snapshots
+                return "0";
+            case RocksDBMetrics.MEM_TABLE:
+            case MEM_SIZE:
+            case NUM_KEYS:
+                /*
+                 * Like the default column family of RocksDB which holds no
+                 * data, the data of tables is got by Session.property()
+                 */
+                return "0";
+            default:
+                throw new BackendException("Unsupported property '%s'",
+                                           property);
+        }
+    }
+
+    @Override
+    public Statistics statistics() {
+        return null;
+    }
+
+    private ConcurrentNavigableMap<byte[], byte[]> table(String table) {
+        ConcurrentNavigableMap<byte[], byte[]> data = this.tables.get(table);
+        if (data == null) {
+            throw new BackendException("Table '%s' is not opened", table);
+        }
+        return data;
+    }
+
+    @Override
+    public final synchronized Session session() {
+        return (Session) super.getOrNewSession();
+    }
+
+    @Override
+    protected final synchronized Session newSession() {
+        return new MemSession();
+    }
+
+    @Override
+    protected synchronized void doClose() {
+        if (this.snapshot) {
+            for (String table : this.tables.keySet()) {
+                this.saveSnapshot(table, this.tables.get(table));
+            }
+        }
+        this.tables.clear();
+    }
+
+    private Path snapshotPath(String table) {
+        return Paths.get(this.dataPath, table + SNAPSHOT_SUFFIX);
+    }
+
+    private void saveSnapshot(String table,
+                              NavigableMap<byte[], byte[]> data) {
+        Path path = this.snapshotPath(table);
+        Path temp = Paths.get(path.toString() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(
+                                       new BufferedOutputStream(
+                                       new FileOutputStream(temp.toFile())))) {
+            for (Map.Entry<byte[], byte[]> e : data.entrySet()) {
+                output.writeInt(e.getKey().length);
+                output.write(e.getKey());
+                output.writeInt(e.getValue().length);
+                output.write(e.getValue());
+            }
+            output.writeInt(SNAPSHOT_END);
+        } catch (IOException e) {
+            throw new BackendException("Failed to save snapshot of '%s'",
+                                       e, table);
+        }
+        // Replace the old snapshot only after the new one is complete
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new BackendException("Failed to save snapshot of '%s'",
+                                       e, table);
+        }
+        LOG.debug("Saved {} keys of table '{}' to {}",
+                  data.size(), table, path);
+    }
+
+    private void loadSnapshot(String table, Map<byte[], byte[]> data) {
+        File file = this.snapshotPath(table).toFile();
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(
+                                     new BufferedInputStream(
+                                     new FileInputStream(file)))) {
+            int length;
+            while ((length = input.readInt()) != SNAPSHOT_END) {
+                byte[] key = new byte[length];
+                input.readFully(key);
+                byte[] value = new byte[input.readInt()];
+                input.readFully(value);
+                data.put(key, value);
+            }
+        } catch (IOException e) {
+            throw new BackendException("Failed to load snapshot of '%s'",
+                                       e, table);
+        }
+        LOG.debug("Loaded {} keys of table '{}' from {}",
+                  data.size(), table, file);
+    }
+
+    private static ConcurrentNavigableMap<byte[], byte[]> newTable() {
+        return new ConcurrentSkipListMap<>(Bytes::compare);
+    }
+
+    private static byte[] add(byte[] value, byte[] increment) {
+        // Same as the merge operator `uint64add` of RocksDB
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES)
+                                      .order(ByteOrder.nativeOrder());
+        long sum = ByteBuffer.wrap(value).order(ByteOrder.nativeOrder())
+                             .getLong() +
+                   ByteBuffer.wrap(increment).order(ByteOrder.nativeOrder())
+                             .getLong();
+        return buffer.putLong(sum).array();
+    }
+
+    /**
+     * MemSession implement for RocksDB
+     */
+    private final class MemSession extends Session {
+
+        private boolean closed;
+        private final List<Change> batch;
+        // The tables changed in the batch
+        private final Set<String> changedTables;
+
+        public MemSession() {
+            this.closed = false;
+            this.batch = new ArrayList<>();
+            this.changedTables = new HashSet<>();
+        }
+
+        @Override
+        public void close() {
+            assert this.closeable();
+            this.closed = true;
+        }
+
+        @Override
+        public boolean closed() {
+            return this.closed;
+        }
+
+        /**
+         * Clear updates not committed in the session
+         */
+        @Override
+        public void clear() {
+            this.batch.clear();
+            this.changedTables.clear();
+        }
+
+        /**
+         * Any change in the session
+         */
+        @Override
+        public boolean hasChanges() {
+            return this.batch.size() > 0;
+        }
+
+        /**
+         * Any change of a table in the session
+         */
+        @Override
+        public boolean hasChanges(String table) {
+            return this.changedTables.contains(table);
+        }
+
+        /**
+         * Commit all updates(put/delete) to DB
+         */
+        @Override
+        public Integer commit() {
+            int count = this.batch.size();
+            if (count <= 0) {
+                return 0;
+            }
+
+            // Check all changes before applying to avoid partial commit
+            for (Change change : this.batch) {
+                table(change.table);
+                change.check();
+            }
+            // Apply all changes at once for the readers
+            Lock lock = commitLock.writeLock();
+            lock.lock();
+            try {
+                for (Change change : this.batch) {
+                    change.apply(table(change.table));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Clear batch if write() successfully (retained if failed)
+            this.batch.clear();
+            this.changedTables.clear();
+
+            return count;
+        }
+
+        /**
+         * Get property value by name from specified table
+         */
+        @Override
+        public String property(String table, String property) {
+            NavigableMap<byte[], byte[]> data = table(table);
+            switch (property) {
+                case NUM_KEYS:
+                    return String.valueOf(data.size());
+                case MEM_SIZE:
+                case RocksDBMetrics.MEM_TABLE:
+                    long size = 0L;
+                    for (Map.Entry<byte[], byte[]> e : data.entrySet()) {
+                        size += e.getKey().length + e.getValue().length;
+                    }
+                    return String.valueOf(size);
+                case SST_SIZE:
+                case RocksDBMetrics.LIVE_SST_SIZE:
+                case RocksDBMetrics.NUM_L0_FILES:
+                case RocksDBMetrics.PENDING_COMPACTION_BYTES:
+                case RocksDBMetrics.BLOCK_CACHE:
+                case RocksDBMetrics.INDEX_FILTER:
+                    // There are no sst files, compactions or block cache
+                    return "0";
+                default:
+                    throw new BackendException("Unsupported property '%s' " +
+                                               "of table '%s'",
+                                               property, table);
+            }
+        }
+
+        @Override
+        public void beginSnapshot() {
+            // pass
+        }
+
+        @Override
+        public void endSnapshot() {
+            // pass
+        }
+
+        /**
+         * Add a KV record to a table
+         */
+        @Override
+        public void put(String table, byte[] key, byte[] value) {
+            this.batch.add(new Change(table, Change.PUT, key, value));
+            this.changedTables.add(table);
+        }
+
+        /**
+         * Merge a record to an existing key to a table
+         */
+        @Override
+        public void merge(String table, byte[] key, byte[] value) {
+            this.batch.add(new Change(table, Change.MERGE, key, value));
+            this.changedTables.add(table);
+        }
+
+        /**
+         * Merge a record to an existing key to a table and commit immediately
+         */
+        @Override
+        public void increase(String table, byte[] key, byte[] value) {
+            Change change = new Change(table, Change.MERGE, key, value);
+            change.check();
+            Lock lock = commitLock.writeLock();
+            lock.lock();
+            try {
+                change.apply(table(table));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Delete a record by key from a table
+         */
+        @Override
+        public void remove(String table, byte[] key) {
+            this.batch.add(new Change(table, Change.REMOVE, key, null));
+            this.changedTables.add(table);
+        }
+
+        /**
+         * Delete a record by key(or prefix with key) from a table
+         */
+        @Override
+        public void delete(String table, byte[] key) {
+            byte[] keyTo = Arrays.copyOf(key, key.length);
+            keyTo = BinarySerializer.increaseOne(keyTo);
+            this.delete(table, key, keyTo);
+        }
+
+        /**
+         * Delete a range of keys from a table
+         */
+        @Override
+        public void delete(String table, byte[] keyFrom, byte[] keyTo) {
+            this.batch.add(new Change(table, Change.DELETE_RANGE,
+                                      keyFrom, keyTo));
+            this.changedTables.add(table);
+        }
+
+        /**
+         * Get a record by key from a table
+         */
+        @Override
+        public byte[] get(String table, byte[] key) {
+            assert !this.hasChanges(table);
+            Lock lock = commitLock.readLock();
+            lock.lock();
+            try {
+                return table(table).get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Scan all records from a table
+         */
+        @Override
+        public BackendColumnIterator scan(String table) {
+            assert !this.hasChanges(table);
+            return new MemColumnIterator(this.readLock(), table(table),
+                                         null, null, SCAN_ANY);
+        }
+
+        /**
+         * Scan records by key prefix from a table
+         */
+        @Override
+        public BackendColumnIterator scan(String table, byte[] prefix) {
+            assert !this.hasChanges(table);
+            return new MemColumnIterator(this.readLock(), table(table),
+                                         prefix, null, SCAN_PREFIX_WITH_BEGIN);
+        }
+
+        /**
+         * Scan records by key range from a table
+         */
+        @Override
+        public BackendColumnIterator scan(String table, byte[] keyFrom,
+                                          byte[] keyTo, int scanType) {
+            assert !this.hasChanges(table);
+            return new MemColumnIterator(this.readLock(), table(table),
+                                         keyFrom, keyTo, scanType);
+        }
+
+        /**
+         * Scan records by multi key ranges from a table
+         */
+        @Override
+        public List<BackendColumnIterator> scan(String table,
+                                                List<Pair<byte[], byte[]>>
+                                                ranges) {
+            assert !this.hasChanges(table);
+            ConcurrentNavigableMap<byte[], byte[]> data = table(table);
+            List<BackendColumnIterator> itors = new ArrayList<>(ranges.size());
+            for (Pair<byte[], byte[]> range : ranges) {
+                byte[] keyFrom = range.getLeft();
+                byte[] keyTo = range.getRight();
+                int scanType = 0;
+                if (keyFrom != null) {
+                    scanType |= SCAN_GTE_BEGIN;
+                }
+                if (keyTo != null) {
+                    scanType |= SCAN_LT_END;
+                }
+                if (scanType == 0) {
+                    scanType = SCAN_ANY;
+                }
+                itors.add(new MemColumnIterator(this.readLock(), data,
+                                                keyFrom, keyTo, scanType));
+            }
+            return itors;
+        }
+
+        private Lock readLock() {
+            return commitLock.readLock();
+        }
+    }
+
+    /**
+     * An update of a session to be applied to a table when committing
+     */
+    private static class Change {
+
+        private static final byte PUT = 1;
+        private static final byte MERGE = 2;
+        private static final byte REMOVE = 3;
+        private static final byte DELETE_RANGE = 4;
+
+        private final String table;
+        private final byte type;
+        private final byte[] key;
+        // The value to put or merge, or the end key of range to delete
+        private final byte[] value;
+
+        public Change(String table, byte type, byte[] key, byte[] value) {
+            this.table = table;
+            this.type = type;
+            this.key = key;
+            this.value = value;
+        }
+
+        public void check() {
+            if (this.type == MERGE) {
+                E.checkArgument(this.value.length == Long.BYTES,
+                                "The value to merge into table '%s' must " +
+                                "be %s bytes, but got %s bytes",
+                                this.table, Long.BYTES, this.value.length);
+            }
+        }
+
+        public void apply(ConcurrentNavigableMap<byte[], byte[]> data) {
+            switch (this.type) {
+                case PUT:
+                    data.put(this.key, this.value);
+                    break;
+                case MERGE:
+                    data.merge(this.key, this.value, RocksDBMemSessions::add);
+                    break;
+                case REMOVE:
+                    data.remove(this.key);
+                    break;
+                case DELETE_RANGE:
+                    // Seek to the range and delete the keys in it
+                    data.subMap(this.key, this.value).clear();
+                    break;
+                default:
+                    throw new AssertionError("Unknown change type: " +
+                                             this.type);
+            }
+        }
+    }
+
+    /**
+     * An iterator over a sorted map with the same scan types as RocksDB
+     */
+    private static class MemColumnIterator implements BackendColumnIterator {
+
+        private final Lock lock;
+        private final Iterator<Map.Entry<byte[], byte[]>> itor;
+        private final byte[] keyBegin;
+        private final byte[] keyEnd;
+        private final int scanType;
+
+        private Map.Entry<byte[], byte[]> current;
+        private byte[] position;
+        private boolean finished;
+
+        public MemColumnIterator(Lock lock,
+                                 ConcurrentNavigableMap<byte[], byte[]> data,
+                                 byte[] keyBegin, byte[] keyEnd,
+                                 int scanType) {
+            this.lock = lock;
+            this.keyBegin = keyBegin;
+            this.keyEnd = keyEnd;
+            this.scanType = scanType;
+
+            if (keyBegin == null) {
+                this.itor = data.entrySet().iterator();
+            } else {
+                // Seek to `keyBegin`, skip it if set SCAN_GT_BEGIN only
+                boolean inclusive = !this.match(Session.SCAN_GT_BEGIN) ||
+                                    this.match(Session.SCAN_GTE_BEGIN);
+                this.itor = data.tailMap(keyBegin, inclusive)
+                                .entrySet().iterator();
+            }
+            this.current = null;
+            this.position = keyBegin;
+            this.finished = false;
+        }
+
+        private boolean match(int expected) {
+            return (expected & this.scanType) == expected;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.current != null) {
+                return true;
+            }
+            Map.Entry<byte[], byte[]> next = this.finished ? null :
+                                             this.nextEntry();
+            if (next != null) {
+                // Update position for paging
+                this.position = next.getKey();
+                // Do filter if not SCAN_ANY
+                if (this.match(Session.SCAN_ANY) ||
+                    this.filter(this.position)) {
+                    this.current = next;
+                    return true;
+                }
+            }
+            // The end
+            this.position = null;
+            this.finished = true;
+            return false;
+        }
+
+        private Map.Entry<byte[], byte[]> nextEntry() {
+            // Don't read the keys in the middle of a commit
+            this.lock.lock();
+            try {
+                return this.itor.hasNext() ? this.itor.next() : null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private boolean filter(byte[] key) {
+            if (this.match(Session.SCAN_PREFIX_WITH_BEGIN)) {
+                return Bytes.prefixWith(key, this.keyBegin);
+            } else if (this.match(Session.SCAN_PREFIX_WITH_END)) {
+                assert this.keyEnd != null;
+                return Bytes.prefixWith(key, this.keyEnd);
+            } else if (this.match(Session.SCAN_LT_END)) {
+                assert this.keyEnd != null;
+                if (this.match(Session.SCAN_LTE_END)) {
+                    // Just compare the prefix, maybe there are excess tail
+                    key = Arrays.copyOfRange(key, 0, this.keyEnd.length);
+                    return Bytes.compare(key, this.keyEnd) <= 0;
+                } else {
+                    return Bytes.compare(key, this.keyEnd) < 0;
+                }
+            } else {
+                return true;
+            }
+        }
+
+        @Override
+        public BackendColumn next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BackendColumn col = BackendColumn.of(this.current.getKey(),
+                                                 this.current.getValue());
+            this.current = null;
+            return col;
+        }
+
+        @Override
+        public byte[] position() {
+            return this.position;
+        }
+
+        @Override
+        public void close() {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdbmem;
+
+import java.util.List;
+
+import com.baidu.hugegraph.backend.store.BackendStoreProvider;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStore;
+import com.baidu.hugegraph.config.HugeConfig;
+
+public final class RocksDBMemStore {
+
+    private RocksDBMemStore() {
+        // Just a holder of store defines
+    }
+
+    private static RocksDBSessions openSessionPool(HugeConfig config,
+                                                  String dataPath,
+                                                  String database,
+                                                  String store,
+                                                  List<String> tableNames) {
+        if (tableNames == null) {
+            return new RocksDBMemSessions(config, dataPath, database, store);
+        } else {
+            return new RocksDBMemSessions(config, dataPath, database, store,
+                                          tableNames);
+        }
+    }
+
+    /***************************** Store defines *****************************/
+
+    public static class RocksDBMemSchemaStore
+                  extends RocksDBStore.RocksDBSchemaStore {
+
+        public RocksDBMemSchemaStore(BackendStoreProvider provider,
+                                     String database, String store) {
+            super(provider, database, store);
+        }
+
+        @Override
+        protected RocksDBSessions openSessionPool(HugeConfig config,
+                                                  String dataPath,
+                                                  String walPath,
+                                                  List<String> tableNames) {
+            return RocksDBMemStore.openSessionPool(config, dataPath,
+                                                   this.database(),
+                                                   this.store(), tableNames);
+        }
+    }
+
+    public static class RocksDBMemGraphStore
+                  extends RocksDBStore.RocksDBGraphStore {
+
+        public RocksDBMemGraphStore(BackendStoreProvider provider,
+                                    String database, String store) {
+            super(provider, database, store);
+        }
+
+        @Override
+        protected RocksDBSessions openSessionPool(HugeConfig config,
+                                                  String dataPath,
+                                                  String walPath,
+                                                  List<String> tableNames) {
+            return RocksDBMemStore.openSessionPool(config, dataPath,
+                                                   this.database(),
+                                                   this.store(), tableNames);
+        }
+    }
+}
@@ -35,11 +35,13 @@ import org.rocksdb.EnvOptions;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.SstFileWriter;
+import org.rocksdb.Statistics;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBTableProfile;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.util.E;
@@ -93,6 +95,7 @@ public class RocksDBSstSessions extends RocksDBSessions {
         EnvOptions env = new EnvOptions();
         Options options = new Options();
         RocksDBStdSessions.initOptions(this.conf, options, options, options);
+        RocksDBTableProfile.of(this.conf, table).apply(this.conf, options);
         // NOTE: unset merge op due to SIGSEGV when cf.setMergeOperatorName()
         options.setMergeOperatorName("not-exist-merge-op");
         SstFileWriter sst = new SstFileWriter(env, options);
@@ -106,11 +109,21 @@ public class RocksDBSstSessions extends RocksDBSessions {
         this.tables.remove(table);
     }
 
+    @Override
+    public String dataPath() {
+        return this.dataPath;
+    }
+
     @Override
     public String property(String property) {
         throw new NotSupportException("RocksDBSstStore property()");
     }
 
+    @Override
+    public Statistics statistics() {
+        return null;
+    }
+
     private SstFileWriter table(String table) {
         SstFileWriter sst = this.tables.get(table);
         if (sst == null) {
@@ -188,6 +201,14 @@ public class RocksDBSstSessions extends RocksDBSessions {
             return this.batch.size() > 0;
         }
 
+        /**
+         * Any change of a table in the session
+         */
+        @Override
+        public boolean hasChanges(String table) {
+            return this.batch.containsKey(table);
+        }
+
         /**
          * Commit all updates(put/delete) to DB
          */
@@ -230,6 +251,16 @@ public class RocksDBSstSessions extends RocksDBSessions {
             throw new NotSupportException("RocksDBSstStore property()");
         }
 
+        @Override
+        public void beginSnapshot() {
+            // pass
+        }
+
+        @Override
+        public void endSnapshot() {
+            // pass
+        }
+
         /**
          * Add a KV record to a table
          */
@@ -298,7 +329,7 @@ public class RocksDBSstSessions extends RocksDBSessions {
          */
         @Override
         public BackendColumnIterator scan(String table) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
             return BackendColumnIterator.empty();
         }
 
@@ -307,7 +338,7 @@ public class RocksDBSstSessions extends RocksDBSessions {
          */
         @Override
         public BackendColumnIterator scan(String table, byte[] prefix) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
             return BackendColumnIterator.empty();
         }
 
@@ -319,9 +350,24 @@ public class RocksDBSstSessions extends RocksDBSessions {
                                           byte[] keyFrom,
                                           byte[] keyTo,
                                           int scanType) {
-            assert !this.hasChanges();
+            assert !this.hasChanges(table);
             return BackendColumnIterator.empty();
         }
+
+        /**
+         * Scan records by multi key ranges from a table
+         */
+        @Override
+        public List<BackendColumnIterator> scan(String table,
+                                                List<Pair<byte[], byte[]>>
+                                                ranges) {
+            assert !this.hasChanges(table);
+            List<BackendColumnIterator> itors = new ArrayList<>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                itors.add(BackendColumnIterator.empty());
+            }
+            return itors;
+        }
     }
 
     private static class Changes extends ArrayList<Pair<byte[], byte[]>> {
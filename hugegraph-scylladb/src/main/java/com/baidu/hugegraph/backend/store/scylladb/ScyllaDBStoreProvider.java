@@ -26,6 +26,7 @@ import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.store.BackendStoreProvider;
 import com.baidu.hugegraph.backend.store.cassandra.CassandraStore;
 import com.baidu.hugegraph.backend.store.cassandra.CassandraStoreProvider;
+import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
@@ -103,24 +104,27 @@ public class ScyllaDBStoreProvider extends CassandraStoreProvider {
                                   String keyspace, String store) {
             super(provider, keyspace, store);
 
-            // TODO: read Scylla version from conf
-            int version = 17;
+            registerTableManager(HugeType.VERTEX,
+                                 new ScyllaDBTables.Vertex(store));
+            registerTableManager(HugeType.EDGE_OUT,
+                                 ScyllaDBTables.Edge.out(store));
+            registerTableManager(HugeType.EDGE_IN,
+                                 ScyllaDBTables.Edge.in(store));
+        }
 
-            if (version >= 20) {
+        @Override
+        public void open(HugeConfig config) {
+            if (config.get(ScyllaDBOptions.MATERIALIZED_VIEW)) {
+                String store = this.store();
                 registerTableManager(HugeType.VERTEX,
                                      new ScyllaDBTablesWithMV.Vertex(store));
                 registerTableManager(HugeType.EDGE_OUT,
                                      ScyllaDBTablesWithMV.Edge.out(store));
                 registerTableManager(HugeType.EDGE_IN,
                                      ScyllaDBTablesWithMV.Edge.in(store));
-            } else {
-                registerTableManager(HugeType.VERTEX,
-                                     new ScyllaDBTables.Vertex(store));
-                registerTableManager(HugeType.EDGE_OUT,
-                                     ScyllaDBTables.Edge.out(store));
-                registerTableManager(HugeType.EDGE_IN,
-                                     ScyllaDBTables.Edge.in(store));
             }
+
+            super.open(config);
         }
 
         @Override
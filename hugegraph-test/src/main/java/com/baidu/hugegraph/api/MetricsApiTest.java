@@ -72,9 +72,13 @@ public class MetricsApiTest extends BaseApiTest {
                 Assert.assertTrue(except, except.contains(notSupport));
                 break;
             case "rocksdb":
+            case "rocksdbmem":
                 assertMapContains(graph, "mem_used");
                 assertMapContains(graph, "mem_unit");
                 assertMapContains(graph, "data_size");
+                assertMapContains(graph, "snapshot_count");
+                assertMapContains(graph, "snapshot_max_age");
+                assertMapContains(graph, "dbs");
                 break;
             case "cassandra":
             case "scylladb":
@@ -77,6 +77,20 @@ public class TaskApiTest extends BaseApiTest {
         assertJsonContains(content, "id");
     }
 
+    @Test
+    public void testGetWithTimeout() {
+        int taskId = this.rebuild();
+
+        Response r = client().get(path + taskId,
+                                  ImmutableMap.of("timeout", 30));
+        String content = assertResponseStatus(200, r);
+        String status = assertJsonContains(content, "task_status");
+        Assert.assertEquals("success", status);
+
+        r = client().get(path + taskId, ImmutableMap.of("timeout", 100));
+        assertResponseStatus(400, r);
+    }
+
     @Test
     public void testDelete() {
         int taskId = this.rebuild();
@@ -1657,6 +1657,55 @@ public class EdgeCoreTest extends BaseCoreTest {
         Assert.assertEquals(18, edges.size());
     }
 
+    @Test
+    public void testQueryEdgesInSnapshot() throws InterruptedException {
+        HugeGraph graph = graph();
+        Assume.assumeTrue("Not support snapshot read",
+                          "rocksdb".equals(graph.configuration()
+                                                .get(CoreOptions.BACKEND)));
+
+        Vertex james = graph.addVertex(T.label, "author", "id", 1,
+                                       "name", "James Gosling", "age", 62,
+                                       "lived", "Canadian");
+        Vertex java1 = graph.addVertex(T.label, "book", "name", "java-1");
+        james.addEdge("authored", java1);
+        graph.tx().commit();
+
+        graph.configuration().setProperty("rocksdb.snapshot_read", "true");
+        GraphTransaction tx = graph.graphTransaction();
+        tx.beginSnapshot();
+        try {
+            Assert.assertEquals(1L, (long) graph.traversal().V(james.id())
+                                                .outE("authored").count()
+                                                .next());
+
+            Thread writer = new Thread(() -> {
+                try {
+                    Vertex java2 = graph.addVertex(T.label, "book",
+                                                   "name", "java-2");
+                    james.addEdge("authored", java2);
+                    graph.tx().commit();
+                } finally {
+                    graph.closeTx();
+                }
+            });
+            writer.start();
+            writer.join();
+
+            // The edge added after the snapshot is not visible
+            Assert.assertEquals(1L, (long) graph.traversal().V(james.id())
+                                                .outE("authored").count()
+                                                .next());
+        } finally {
+            tx.endSnapshot();
+            graph.configuration().clearProperty("rocksdb.snapshot_read");
+        }
+
+        Assert.assertEquals(2L, (long) graph.traversal().V(james.id())
+                                            .outE("authored").count()
+                                            .next());
+    }
+
     @Test
     public void testRemoveEdge() {
         HugeGraph graph = graph();
@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.core;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -695,6 +696,120 @@ public class EdgeLabelCoreTest extends SchemaCoreTest {
         });
     }
 
+    @Test
+    public void testRemoveEdgeLabelWithEdgeAndOtherEdgeLabel() {
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("person")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("city")
+              .create();
+
+        schema.vertexLabel("book")
+              .properties("name")
+              .primaryKeys("name")
+              .create();
+
+        schema.edgeLabel("write").link("person", "book")
+              .properties("time", "weight")
+              .create();
+
+        schema.edgeLabel("look").link("person", "book")
+              .properties("time")
+              .create();
+
+        Vertex marko = graph().addVertex(T.label, "person", "name", "marko",
+                                         "age", 22);
+        Vertex java = graph().addVertex(T.label, "book",
+                                        "name", "java in action");
+        Vertex hadoop = graph().addVertex(T.label, "book",
+                                          "name", "hadoop mapreduce");
+
+        marko.addEdge("write", java, "time", "2016-12-12",
+                      "weight", 0.3);
+        marko.addEdge("look", java, "time", "2016-12-10");
+        marko.addEdge("write", hadoop, "time", "2014-2-28",
+                      "weight", 0.5);
+        marko.addEdge("look", hadoop, "time", "2014-2-20");
+        graph().tx().commit();
+
+        Assert.assertEquals(4, graph().traversal().E().toList().size());
+
+        schema.edgeLabel("write").remove();
+
+        List<Edge> edges = graph().traversal().E().toList();
+        Assert.assertEquals(2, edges.size());
+        for (Edge edge : edges) {
+            Assert.assertEquals("look", edge.label());
+        }
+        edges = graph().traversal().E().hasLabel("look").toList();
+        Assert.assertEquals(2, edges.size());
+        Assert.assertEquals(2, graph().traversal().V(marko.id())
+                                      .outE().toList().size());
+        Assert.assertEquals(1, graph().traversal().V(java.id())
+                                      .inE().toList().size());
+        Assert.assertEquals(3, graph().traversal().V().toList().size());
+    }
+
+    @Test
+    public void testRemoveEdgeLabelWithEdgesOfManyOwners() {
+        // The edges are deleted by more than one batch if by label
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("person")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("age", "city")
+              .create();
+
+        schema.vertexLabel("book")
+              .properties("name")
+              .primaryKeys("name")
+              .create();
+
+        schema.edgeLabel("write").link("person", "book")
+              .properties("time")
+              .create();
+
+        schema.edgeLabel("look").link("person", "book")
+              .properties("time")
+              .create();
+
+        Vertex java = graph().addVertex(T.label, "book",
+                                        "name", "java in action");
+        List<Vertex> persons = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            Vertex person = graph().addVertex(T.label, "person",
+                                              "name", "p" + i);
+            person.addEdge("write", java, "time", "2016-12-12");
+            person.addEdge("look", java, "time", "2016-12-10");
+            persons.add(person);
+            if (i % 100 == 99) {
+                graph().tx().commit();
+            }
+        }
+        graph().tx().commit();
+        Assert.assertEquals(1200L, (long) graph().traversal().E().count()
+                                                 .next());
+
+        schema.edgeLabel("write").remove();
+
+        List<Edge> edges = graph().traversal().E().toList();
+        Assert.assertEquals(600, edges.size());
+        for (Edge edge : edges) {
+            Assert.assertEquals("look", edge.label());
+        }
+        Assert.assertEquals(600, graph().traversal().V(java.id())
+                                        .inE().toList().size());
+        for (Vertex person : persons) {
+            Assert.assertEquals(1, graph().traversal().V(person.id())
+                                          .outE().toList().size());
+        }
+    }
+
     @Test
     public void testRemoveEdgeLabelWithEdgeAndRangeIndex() {
         super.initPropertyKeys();
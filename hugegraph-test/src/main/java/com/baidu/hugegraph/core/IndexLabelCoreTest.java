@@ -19,7 +19,10 @@
 
 package com.baidu.hugegraph.core;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -29,15 +32,26 @@ import org.junit.Assume;
 import org.junit.Test;
 
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.job.JobBuilder;
+import com.baidu.hugegraph.job.schema.RebuildIndexCallable;
+import com.baidu.hugegraph.job.schema.SchemaCallable;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.task.TaskStatus;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.IndexType;
+import com.baidu.hugegraph.util.JsonUtil;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class IndexLabelCoreTest extends SchemaCoreTest {
 
@@ -724,6 +738,49 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
         Assert.assertNotNull(vertex);
     }
 
+    @Test
+    public void testRebuildIndexLabelOfVerticesOfManyPages() {
+        // The vertices are traversed by many pages if paging is supported
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person").properties("name", "age", "city")
+              .primaryKeys("name").nullableKeys("age").create();
+        schema.vertexLabel("reader").properties("name", "age", "city")
+              .primaryKeys("name").nullableKeys("age")
+              .enableLabelIndex(false).create();
+
+        for (int i = 0; i < 150; i++) {
+            String city = i % 3 == 0 ? "Beijing" : "Shanghai";
+            graph().addVertex(T.label, "person", "name", "p" + i,
+                              "city", city);
+            graph().addVertex(T.label, "reader", "name", "r" + i,
+                              "city", city);
+        }
+        graph().tx().commit();
+
+        // Build the index of the existing vertices
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+        schema.indexLabel("readerByCity").onV("reader").secondary()
+              .by("city").create();
+
+        List<Vertex> vertices = graph().traversal().V().hasLabel("person")
+                                       .has("city", "Beijing").toList();
+        Assert.assertEquals(50, vertices.size());
+        vertices = graph().traversal().V().hasLabel("reader")
+                          .has("city", "Shanghai").toList();
+        Assert.assertEquals(100, vertices.size());
+
+        schema.indexLabel("personByCity").rebuild();
+        schema.indexLabel("readerByCity").rebuild();
+        vertices = graph().traversal().V().hasLabel("person")
+                          .has("city", "Beijing").toList();
+        Assert.assertEquals(50, vertices.size());
+        vertices = graph().traversal().V().hasLabel("reader")
+                          .has("city", "Shanghai").toList();
+        Assert.assertEquals(100, vertices.size());
+    }
+
     @Test
     public void testRebuildIndexLabelOfVertexLabel() {
         Assume.assumeTrue("Not support range condition query",
@@ -761,6 +818,125 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
         Assert.assertNotNull(vertex);
     }
 
+    @Test
+    public void testRebuildIndexLabelOfVertexLabelByShards() {
+        Assume.assumeTrue("Not support scan",
+                          storeFeatures().supportsScanToken() ||
+                          storeFeatures().supportsScanKeyRange());
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person").properties("name", "city")
+              .primaryKeys("name").create();
+        schema.vertexLabel("reader").properties("name", "city")
+              .primaryKeys("name").create();
+        Assert.assertTrue(schema.getVertexLabel("person").enableLabelIndex());
+
+        for (int i = 0; i < 100; i++) {
+            String city = i % 2 == 0 ? "Beijing" : "Shanghai";
+            graph().addVertex(T.label, "person", "name", "p" + i,
+                              "city", city);
+            graph().addVertex(T.label, "reader", "name", "r" + i,
+                              "city", city);
+        }
+        graph().tx().commit();
+
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+        Id taskId = schema.indexLabel("personByCity").rebuild();
+
+        // Rebuilt by the shards of vertex table even if label index enabled
+        HugeTask<?> task = graph().taskScheduler().task(taskId);
+        Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+        Assert.assertEquals(100, task.progress());
+        Assert.assertTrue(task.input(), task.input().contains("shards"));
+
+        List<Vertex> vertices = graph().traversal().V().hasLabel("person")
+                                       .has("city", "Beijing").toList();
+        Assert.assertEquals(50, vertices.size());
+        for (Vertex vertex : vertices) {
+            Assert.assertEquals("person", vertex.label());
+        }
+    }
+
+    @Test
+    public void testRebuildIndexLabelOfVertexLabelFromCheckpoint()
+                throws Exception {
+        Assume.assumeTrue("Not support scan",
+                          storeFeatures().supportsScanToken() ||
+                          storeFeatures().supportsScanKeyRange());
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person").properties("name", "city")
+              .primaryKeys("name").create();
+        for (int i = 0; i < 100; i++) {
+            String city = i % 2 == 0 ? "Beijing" : "Shanghai";
+            graph().addVertex(T.label, "person", "name", "p" + i,
+                              "city", city);
+        }
+        graph().tx().commit();
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+
+        String middle = String.valueOf(BytesBuffer.UINT32_MAX / 2);
+        String end = String.valueOf(BytesBuffer.UINT32_MAX);
+        List<List<Object>> shards = ImmutableList.of(
+                                    ImmutableList.of("0", middle, 0L),
+                                    ImmutableList.of(middle, end, 0L));
+
+        // Only the shard not done is rebuilt when resuming from checkpoint
+        Set<Vertex> first = this.rebuildFromCheckpoint("personByCity",
+                                                       shards, 0);
+        Assert.assertEquals(this.scanShard("Beijing", middle, end), first);
+
+        Set<Vertex> second = this.rebuildFromCheckpoint("personByCity",
+                                                        shards, 1);
+        Assert.assertEquals(this.scanShard("Beijing", "0", middle), second);
+
+        Assert.assertEquals(50, first.size() + second.size());
+    }
+
+    private Set<Vertex> rebuildFromCheckpoint(String name,
+                                              List<List<Object>> shards,
+                                              int done) throws Exception {
+        HugeGraph graph = graph();
+        IndexLabel indexLabel = graph.indexLabel(name);
+        graph.graphTransaction().removeIndex(indexLabel);
+        graph.tx().commit();
+        long count = graph.traversal().V().hasLabel("person")
+                          .has("city", "Beijing").count().next();
+        Assert.assertEquals(0L, count);
+
+        String input = JsonUtil.toJson(ImmutableMap.of(
+                       "shards", shards, "done", ImmutableList.of(done)));
+        String taskName = SchemaCallable.formatTaskName(HugeType.INDEX_LABEL,
+                                                        indexLabel.id(),
+                                                        name);
+        HugeTask<Object> task = JobBuilder.of(graph).name(taskName)
+                                          .input(input)
+                                          .job(new RebuildIndexCallable())
+                                          .schedule();
+        task.get();
+        Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+        Assert.assertEquals(100, task.progress());
+
+        return new HashSet<>(graph.traversal().V().hasLabel("person")
+                                  .has("city", "Beijing").toList());
+    }
+
+    private Set<Vertex> scanShard(String city, String start, String end) {
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        query.scan(start, end);
+        Set<Vertex> vertices = new HashSet<>();
+        Iterator<Vertex> iter = graph().vertices(query);
+        while (iter.hasNext()) {
+            Vertex vertex = iter.next();
+            if (city.equals(vertex.value("city"))) {
+                vertices.add(vertex);
+            }
+        }
+        return vertices;
+    }
+
     @Test
     public void testRebuildIndexLabelOfEdgeLabel() {
         super.initPropertyKeys();
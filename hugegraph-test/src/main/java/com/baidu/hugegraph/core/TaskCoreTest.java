@@ -0,0 +1,453 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.core;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.job.Job;
+import com.baidu.hugegraph.job.JobBuilder;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.task.TaskScheduler;
+import com.baidu.hugegraph.task.TaskStatus;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class TaskCoreTest extends BaseCoreTest {
+
+    private static volatile CountDownLatch latch = new CountDownLatch(0);
+    private static volatile CountDownLatch started = new CountDownLatch(0);
+    // The names of the tasks in the order of execution
+    private static final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @After
+    public void teardown() throws Exception {
+        latch.countDown();
+        executed.clear();
+        graph().taskScheduler().waitUntilAllTasksCompleted(10);
+        super.teardown();
+    }
+
+    @Test
+    public void testTakeOverTaskWithLeaseExpired() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        latch = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        HugeTask<Object> task = JobBuilder.of(graph).name("lease-test")
+                                          .job(new BlockingJob())
+                                          .schedule();
+        Assert.assertEquals(scheduler.server(), task.server());
+        Assert.assertEquals(0, task.epoch());
+        // Wait until the running status saved
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        TaskScheduler scheduler2 = new TaskScheduler(graph, "server-2");
+        try {
+            /*
+             * The owner server is lost, and can't renew the lease any more,
+             * expire it just before taking over to keep the lease keeper of
+             * the owner from renewing it in the meantime
+             */
+            task.lease(new Date(0L));
+            scheduler.save(task);
+            Assert.assertTrue(scheduler2.takeOverTasks(Integer.MAX_VALUE) > 0);
+            HugeTask<Object> stolen = scheduler2.task(task.id());
+            Assert.assertEquals("server-2", stolen.server());
+            Assert.assertEquals(1, stolen.epoch());
+            Assert.assertTrue(stolen.lease().after(new Date()));
+
+            // The old owner is fenced and cancels the local one
+            scheduler.renewLeases();
+            Assert.assertEquals(TaskStatus.CANCELLED, task.status());
+
+            latch.countDown();
+            stolen = scheduler2.waitUntilTaskCompleted(task.id(), 10);
+            Assert.assertEquals(TaskStatus.SUCCESS, stolen.status());
+
+            // The stored task is not overwritten by the old owner
+            HugeTask<Object> stored = scheduler.task(task.id());
+            Assert.assertEquals(TaskStatus.SUCCESS, stored.status());
+            Assert.assertEquals("server-2", stored.server());
+        } finally {
+            scheduler2.close();
+        }
+    }
+
+    @Test
+    public void testTakeOverTaskByServersConcurrently() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        latch = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        HugeTask<Object> task = JobBuilder.of(graph).name("lease-test")
+                                          .job(new BlockingJob())
+                                          .schedule();
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        TaskScheduler scheduler2 = new TaskScheduler(graph, "server-2");
+        TaskScheduler scheduler3 = new TaskScheduler(graph, "server-3");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            task.lease(new Date(0L));
+            scheduler.save(task);
+
+            // Both servers find the lost task and claim it at the same time
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            List<Future<Integer>> claims = new ArrayList<>();
+            for (TaskScheduler other : ImmutableList.of(scheduler2,
+                                                        scheduler3)) {
+                claims.add(executor.submit(() -> {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    return other.takeOverTasks(Integer.MAX_VALUE);
+                }));
+            }
+            int claimed = 0;
+            for (Future<Integer> future : claims) {
+                claimed += future.get(10, TimeUnit.SECONDS);
+            }
+            // Both may win if they read back their claims before the other
+            Assert.assertTrue(claimed >= 1 && claimed <= 2);
+
+            // The old owner and the loser are fenced when renewing leases
+            scheduler.renewLeases();
+            scheduler2.renewLeases();
+            scheduler3.renewLeases();
+            Assert.assertEquals(TaskStatus.CANCELLED, task.status());
+            Assert.assertEquals(1, scheduler2.pendingTasks() +
+                                   scheduler3.pendingTasks());
+            TaskScheduler winner = scheduler2.pendingTasks() == 1 ?
+                                   scheduler2 : scheduler3;
+
+            latch.countDown();
+            HugeTask<Object> stored = winner.waitUntilTaskCompleted(task.id(),
+                                                                    10);
+            Assert.assertEquals(TaskStatus.SUCCESS, stored.status());
+            // Wait until the completed task saved and removed from memory
+            winner.waitUntilAllTasksCompleted(10);
+            // Run by the winner only and not overwritten by the others
+            stored = scheduler.task(task.id());
+            Assert.assertEquals(TaskStatus.SUCCESS, stored.status());
+            Assert.assertEquals(winner.server(), stored.server());
+            Assert.assertEquals(1, stored.epoch());
+        } finally {
+            executor.shutdownNow();
+            scheduler2.close();
+            scheduler3.close();
+        }
+    }
+
+    @Test
+    public void testTakeOverTaskWithLeaseNotExpired() {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        latch = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        HugeTask<Object> task = JobBuilder.of(graph).name("lease-test")
+                                          .job(new BlockingJob())
+                                          .schedule();
+
+        TaskScheduler scheduler2 = new TaskScheduler(graph, "server-2");
+        try {
+            scheduler2.takeOverTasks(Integer.MAX_VALUE);
+            HugeTask<Object> stored = scheduler2.task(task.id());
+            Assert.assertEquals(scheduler.server(), stored.server());
+            Assert.assertEquals(0, stored.epoch());
+
+            scheduler.renewLeases();
+            Assert.assertFalse(task.completed());
+        } finally {
+            scheduler2.close();
+        }
+    }
+
+    @Test
+    public void testCancelTaskOfOtherServer() {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        latch = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        HugeTask<Object> task = JobBuilder.of(graph).name("cancel-test")
+                                          .job(new BlockingJob())
+                                          .schedule();
+
+        TaskScheduler scheduler2 = new TaskScheduler(graph, "server-2");
+        try {
+            HugeTask<Object> remote = scheduler2.task(task.id());
+            scheduler2.cancel(remote);
+            Assert.assertEquals(TaskStatus.CANCELLED, remote.status());
+
+            // The owner cancels it when renewing the lease
+            scheduler.renewLeases();
+            Assert.assertEquals(TaskStatus.CANCELLED, task.status());
+            HugeTask<Object> stored = scheduler2.task(task.id());
+            Assert.assertEquals(TaskStatus.CANCELLED, stored.status());
+        } finally {
+            scheduler2.close();
+        }
+    }
+
+    @Test
+    public void testWaitUntilTaskCompletedAsync() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        latch = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        HugeTask<Object> task = JobBuilder.of(graph).name("wait-test")
+                                          .job(new BlockingJob())
+                                          .schedule();
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // Reload the task running in this server from other servers
+        TaskScheduler scheduler2 = newScheduler(graph, ImmutableMap.of(
+                                                "task.lease_timeout", "3"));
+        try {
+            CompletableFuture<HugeTask<?>> local, remote, timeout;
+            local = scheduler.waitUntilTaskCompletedAsync(task.id(), 10);
+            remote = scheduler2.waitUntilTaskCompletedAsync(task.id(), 10);
+            timeout = scheduler.waitUntilTaskCompletedAsync(task.id(), 1);
+            Assert.assertFalse(local.isDone());
+            Assert.assertFalse(remote.isDone());
+
+            // Respond the incomplete task after timeout
+            HugeTask<?> incomplete = timeout.get(10, TimeUnit.SECONDS);
+            Assert.assertFalse(incomplete.completed());
+            Assert.assertFalse(local.isDone());
+
+            latch.countDown();
+            HugeTask<?> completed = local.get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(TaskStatus.SUCCESS, completed.status());
+            completed = remote.get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(TaskStatus.SUCCESS, completed.status());
+
+            // Respond the completed task at once
+            Assert.assertTrue(scheduler.waitUntilTaskCompletedAsync(
+                                        task.id(), 10).isDone());
+        } finally {
+            scheduler2.close();
+        }
+    }
+
+    @Test
+    public void testScheduleTasksOfPriorTypesFirst() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = newScheduler(graph, ImmutableMap.of(
+                                               "task.workers", "1"));
+        try {
+            latch = new CountDownLatch(1);
+            started = new CountDownLatch(1);
+            scheduler.schedule(newTask(graph, "blocking", new BlockingJob()));
+            // Wait until the only worker is busy
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            List<HugeTask<Object>> tasks = ImmutableList.of(
+                    newTask(graph, "gremlin-1", new TypedJob("gremlin")),
+                    newTask(graph, "gremlin-2", new TypedJob("gremlin")),
+                    newTask(graph, "rebuild-1", new TypedJob("rebuild_index")),
+                    newTask(graph, "gremlin-3", new TypedJob("gremlin")),
+                    newTask(graph, "remove-1", new TypedJob("remove_schema")));
+            for (HugeTask<Object> task : tasks) {
+                scheduler.schedule(task);
+            }
+            Assert.assertEquals(5, scheduler.queuedTasks());
+
+            latch.countDown();
+            for (HugeTask<Object> task : tasks) {
+                scheduler.waitUntilTaskCompleted(task.id(), 10);
+            }
+            // The prior types first, then the earlier scheduled first
+            Assert.assertEquals(ImmutableList.of("rebuild-1", "remove-1",
+                                                 "gremlin-1", "gremlin-2",
+                                                 "gremlin-3"),
+                                executed);
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    public void testScheduleTasksWithTypeQuota() throws Exception {
+        HugeGraph graph = graph();
+        // The default quota of gremlin tasks is 2
+        TaskScheduler scheduler = newScheduler(graph, ImmutableMap.of(
+                                               "task.workers", "4"));
+        try {
+            latch = new CountDownLatch(1);
+            started = new CountDownLatch(2);
+            List<HugeTask<Object>> tasks = ImmutableList.of(
+                    newTask(graph, "gremlin-1", new TypedJob("gremlin")),
+                    newTask(graph, "gremlin-2", new TypedJob("gremlin")),
+                    newTask(graph, "gremlin-3", new TypedJob("gremlin")));
+            for (HugeTask<Object> task : tasks) {
+                scheduler.schedule(task);
+            }
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            // The third one waits for the quota though workers are idle
+            HugeTask<Object> waiting = tasks.get(2);
+            Assert.assertEquals(2, scheduler.runningTasks());
+            Assert.assertEquals(1, scheduler.queuedTasks());
+            Assert.assertEquals(TaskStatus.QUEUED, waiting.status());
+
+            // Tasks of other types are not limited by the quota
+            HugeTask<Object> other = newTask(graph, "other-1",
+                                             new TypedJob("test", false));
+            scheduler.schedule(other);
+            other = scheduler.waitUntilTaskCompleted(other.id(), 10);
+            Assert.assertEquals(TaskStatus.SUCCESS, other.status());
+            Assert.assertEquals(TaskStatus.QUEUED, waiting.status());
+
+            latch.countDown();
+            for (HugeTask<Object> task : tasks) {
+                scheduler.waitUntilTaskCompleted(task.id(), 10);
+            }
+            Assert.assertEquals(4, executed.size());
+            Assert.assertEquals("gremlin-3", executed.get(3));
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    public void testScheduleTasksExceedMaxPending() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = newScheduler(graph, ImmutableMap.of(
+                                               "task.workers", "1",
+                                               "task.max_pending_tasks", "1"));
+        try {
+            latch = new CountDownLatch(1);
+            started = new CountDownLatch(1);
+            scheduler.schedule(newTask(graph, "blocking", new BlockingJob()));
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            HugeTask<Object> queued = newTask(graph, "test-1",
+                                              new TypedJob("test"));
+            scheduler.schedule(queued);
+
+            // Rejected by the executor since the queue is full
+            HugeTask<Object> rejected = newTask(graph, "test-2",
+                                                new TypedJob("test"));
+            Assert.assertThrows(IllegalArgumentException.class, () -> {
+                scheduler.schedule(rejected);
+            }, e -> {
+                Assert.assertTrue(e.getMessage().contains(
+                                  "has exceeded the max limit 1"));
+            });
+            Assert.assertEquals(1, scheduler.queuedTasks());
+            // The running one and the queued one
+            Assert.assertEquals(2, scheduler.pendingTasks());
+
+            latch.countDown();
+            queued = scheduler.waitUntilTaskCompleted(queued.id(), 10);
+            Assert.assertEquals(TaskStatus.SUCCESS, queued.status());
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    private static TaskScheduler newScheduler(HugeGraph graph,
+                                              Map<String, String> options) {
+        // The options are only read when constructing the scheduler
+        HugeConfig config = graph.configuration();
+        options.forEach(config::setProperty);
+        try {
+            return new TaskScheduler(graph, "server-2");
+        } finally {
+            options.keySet().forEach(config::clearProperty);
+        }
+    }
+
+    private static <V> HugeTask<V> newTask(HugeGraph graph, String name,
+                                           Job<V> job) {
+        Id id = graph.schemaTransaction().store().nextId(HugeType.TASK);
+        HugeTask<V> task = new HugeTask<>(id, null, job);
+        task.type(job.type());
+        task.name(name);
+        return task;
+    }
+
+    public static class TypedJob extends Job<Object> {
+
+        private final String type;
+        private final boolean blocking;
+
+        public TypedJob(String type) {
+            this(type, true);
+        }
+
+        public TypedJob(String type, boolean blocking) {
+            this.type = type;
+            this.blocking = blocking;
+        }
+
+        @Override
+        public String type() {
+            return this.type;
+        }
+
+        @Override
+        public Object execute() throws Exception {
+            executed.add(this.task().name());
+            if (this.blocking) {
+                started.countDown();
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            return "done";
+        }
+    }
+
+    public static class BlockingJob extends Job<Object> {
+
+        @Override
+        public String type() {
+            return "test";
+        }
+
+        @Override
+        public Object execute() throws Exception {
+            started.countDown();
+            latch.await(10, TimeUnit.SECONDS);
+            return "done";
+        }
+    }
+}
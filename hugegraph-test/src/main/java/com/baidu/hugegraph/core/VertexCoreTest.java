@@ -999,6 +999,60 @@ public class VertexCoreTest extends BaseCoreTest {
                        "city", "Beijing", "age", 20);
     }
 
+    @Test
+    public void testQueryByStringPropWithoutLabel() {
+        // city is "Beijing", single-field secondary index without label
+        HugeGraph graph = graph();
+        initPersonIndex(true);
+        init5Persons();
+
+        List<Vertex> vertexes = graph.traversal().V()
+                                .has("city", "Beijing")
+                                .toList();
+
+        Assert.assertEquals(3, vertexes.size());
+        assertContains(vertexes,
+                       T.label, "person", "name", "James",
+                       "city", "Beijing", "age", 19);
+        assertContains(vertexes,
+                       T.label, "person", "name", "Tom Cat",
+                       "city", "Beijing", "age", 20);
+        assertContains(vertexes,
+                       T.label, "person", "name", "Lisa",
+                       "city", "Beijing", "age", 20);
+    }
+
+    @Test
+    public void testQueryByJointSingleSecondaryIndexes() {
+        // Joint query by the single-field indexes pcByBand and pcByCpu
+        HugeGraph graph = graph();
+        graph.schema().indexLabel("pcByCpu").onV("computer")
+             .secondary().by("cpu").create();
+        init5Computers();
+
+        List<Vertex> vertexes = graph.traversal().V()
+                                .hasLabel("computer")
+                                .has("band", "lenovo").has("cpu", "3.2GHz")
+                                .toList();
+
+        Assert.assertEquals(2, vertexes.size());
+        assertContains(vertexes,
+                       T.label, "computer", "name", "YangTian T6900C",
+                       "band", "lenovo", "cpu", "3.2GHz", "ram", "8GB",
+                       "price", 4599);
+        assertContains(vertexes,
+                       T.label, "computer", "name", "Fengxing K450e",
+                       "band", "lenovo", "cpu", "3.2GHz", "ram", "16GB",
+                       "price", 6099);
+
+        // Joint query without label
+        vertexes = graph.traversal().V()
+                        .has("cpu", "3.2GHz").has("band", "asus")
+                        .toList();
+        Assert.assertEquals(1, vertexes.size());
+        Assert.assertEquals("Zen AIO Pro", vertexes.get(0).value("name"));
+    }
+
     @Test
     public void testQueryByIntPropWithOneResult() {
         // age = 19
@@ -2454,6 +2508,87 @@ public class VertexCoreTest extends BaseCoreTest {
         Assert.assertEquals("Baby", vl.get(0).value("name"));
     }
 
+    @Test
+    public void testQueryVertexBeforeAfterUpdatePropertyWithSearchIndex() {
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+        schema.vertexLabel("dog").properties("name", "age", "description")
+              .nullableKeys("age").create();
+        schema.indexLabel("dogByAge").onV("dog")
+              .range().by("age").create();
+        schema.indexLabel("dogByDescription").onV("dog")
+              .search().by("description").create();
+
+        Vertex vertex = graph.addVertex(T.label, "dog", "name", "Bella",
+                                        "age", 1, "description",
+                                        "black hair and eyes");
+        graph.tx().commit();
+
+        List<Vertex> vl = graph.traversal().V()
+                               .has("description", Text.contains("black"))
+                               .toList();
+        Assert.assertEquals(1, vl.size());
+
+        vertex.property("description", "yellow hair and eyes");
+        graph.tx().commit();
+
+        vl = graph.traversal().V()
+                  .has("description", Text.contains("black")).toList();
+        Assert.assertEquals(0, vl.size());
+        vl = graph.traversal().V()
+                  .has("description", Text.contains("yellow")).toList();
+        Assert.assertEquals(1, vl.size());
+        Assert.assertEquals("Bella", vl.get(0).value("name"));
+        vl = graph.traversal().V()
+                  .has("description", Text.contains("hair")).toList();
+        Assert.assertEquals(1, vl.size());
+        vl = graph.traversal().V().has("age", 1).toList();
+        Assert.assertEquals(1, vl.size());
+
+        vertex.property("age").remove();
+        graph.tx().commit();
+
+        vl = graph.traversal().V().has("age", 1).toList();
+        Assert.assertEquals(0, vl.size());
+        vl = graph.traversal().V()
+                  .has("description", Text.contains("yellow")).toList();
+        Assert.assertEquals(1, vl.size());
+    }
+
+    @Test
+    public void testQueryVertexBeforeAfterUpdatePropertyWithCompositeIndex() {
+        HugeGraph graph = graph();
+        initComputerIndex();
+
+        Vertex vertex = graph.addVertex(T.label, "computer", "name", "1st",
+                                        "band", "10Gbps", "cpu", "2GHz",
+                                        "ram", "8GB", "price", 1000);
+        graph.tx().commit();
+
+        vertex.property("ram", "16GB");
+        graph.tx().commit();
+
+        List<Vertex> vl = graph.traversal().V().has("cpu", "2GHz").toList();
+        Assert.assertEquals(1, vl.size());
+        vl = graph.traversal().V().has("cpu", "2GHz")
+                  .has("ram", "8GB").toList();
+        Assert.assertEquals(0, vl.size());
+        vl = graph.traversal().V().has("cpu", "2GHz")
+                  .has("ram", "16GB").toList();
+        Assert.assertEquals(1, vl.size());
+        Assert.assertEquals("1st", vl.get(0).value("name"));
+        vl = graph.traversal().V().has("band", "10Gbps").toList();
+        Assert.assertEquals(1, vl.size());
+
+        vertex.property("cpu").remove();
+        graph.tx().commit();
+
+        vl = graph.traversal().V().has("cpu", "2GHz").toList();
+        Assert.assertEquals(0, vl.size());
+        vl = graph.traversal().V().has("band", "10Gbps").toList();
+        Assert.assertEquals(1, vl.size());
+    }
+
     @Test
     public void testQueryVertexWithNullablePropertyInCompositeIndex() {
         HugeGraph graph = graph();
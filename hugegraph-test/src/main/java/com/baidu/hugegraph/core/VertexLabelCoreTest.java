@@ -657,6 +657,41 @@ public class VertexLabelCoreTest extends SchemaCoreTest {
         });
     }
 
+    @Test
+    public void testRemoveVertexLabelAndQueryVertexById() {
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("person")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("age", "city")
+              .create();
+        schema.vertexLabel("writer")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("age", "city")
+              .create();
+
+        Vertex marko = graph().addVertex(T.label, "person", "name", "marko");
+        Vertex james = graph().addVertex(T.label, "writer", "name", "james");
+        graph().tx().commit();
+
+        // Query by id to load the vertices into the cache if enabled
+        Assert.assertEquals(1, graph().traversal().V(marko.id()).toList()
+                                      .size());
+        Assert.assertEquals(1, graph().traversal().V(james.id()).toList()
+                                      .size());
+
+        schema.vertexLabel("person").remove();
+
+        Assert.assertEquals(0, graph().traversal().V(marko.id()).toList()
+                                      .size());
+        List<Vertex> vertices = graph().traversal().V(james.id()).toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals("writer", vertices.get(0).label());
+    }
+
     @Test
     public void testRemoveVertexLabelWithVertexAndRangeIndex() {
         Assume.assumeTrue("Not support range condition query",
@@ -740,6 +775,52 @@ public class VertexLabelCoreTest extends SchemaCoreTest {
         });
     }
 
+    @Test
+    public void testRemoveVertexLabelWithVerticesOfManyPages() {
+        // The vertices are traversed by many pages if paging is supported
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("person")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("age", "city")
+              .create();
+        schema.vertexLabel("reader")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("age", "city")
+              .enableLabelIndex(false)
+              .create();
+        schema.vertexLabel("writer")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("age", "city")
+              .create();
+
+        for (int i = 0; i < 150; i++) {
+            graph().addVertex(T.label, "person", "name", "p" + i);
+            graph().addVertex(T.label, "reader", "name", "r" + i);
+            graph().addVertex(T.label, "writer", "name", "w" + i);
+        }
+        graph().tx().commit();
+        Assert.assertEquals(450L, (long) graph().traversal().V().count()
+                                                .next());
+
+        // Traverse by label index or by label
+        schema.vertexLabel("person").remove();
+        Assert.assertEquals(300L, (long) graph().traversal().V().count()
+                                                .next());
+
+        // Traverse all vertices and filter by label
+        schema.vertexLabel("reader").remove();
+        List<Vertex> vertices = graph().traversal().V().toList();
+        Assert.assertEquals(150, vertices.size());
+        for (Vertex vertex : vertices) {
+            Assert.assertEquals("writer", vertex.label());
+        }
+    }
+
     @Test
     public void testRemoveVertexLabelUsedByEdgeLabel() {
         super.initPropertyKeys();
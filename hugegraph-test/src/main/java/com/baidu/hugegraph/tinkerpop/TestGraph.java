@@ -52,7 +52,7 @@ public class TestGraph implements Graph {
     public static final String DEFAULT_VL = "vertex";
 
     public static final Set<String> TRUNCATE_BACKENDS =
-           ImmutableSet.of("rocksdb", "mysql");
+           ImmutableSet.of("rocksdb", "rocksdbmem", "mysql");
 
     private static volatile int id = 666;
 
@@ -28,9 +28,16 @@ import com.baidu.hugegraph.unit.core.AnalyzerTest;
 import com.baidu.hugegraph.unit.core.BackendMutationTest;
 import com.baidu.hugegraph.unit.core.ConditionQueryFlattenTest;
 import com.baidu.hugegraph.unit.core.EdgeIdTest;
+import com.baidu.hugegraph.unit.core.ParallelQueryIteratorTest;
+import com.baidu.hugegraph.unit.core.StripedReadWriteLockTest;
 import com.baidu.hugegraph.unit.core.VersionTest;
+import com.baidu.hugegraph.unit.hbase.HbaseSessionsTest;
+import com.baidu.hugegraph.unit.mysql.MysqlSessionsTest;
+import com.baidu.hugegraph.unit.mysql.MysqlTableTest;
+import com.baidu.hugegraph.unit.palo.PaloStreamLoaderTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBCountersTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBSessionsTest;
+import com.baidu.hugegraph.unit.rocksdb.RocksDBTableProfileTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
@@ -42,9 +49,17 @@ import com.baidu.hugegraph.unit.rocksdb.RocksDBSessionsTest;
     ConditionQueryFlattenTest.class,
     EdgeIdTest.class,
     AnalyzerTest.class,
+    ParallelQueryIteratorTest.class,
+    StripedReadWriteLockTest.class,
 
     RocksDBSessionsTest.class,
-    RocksDBCountersTest.class
+    RocksDBCountersTest.class,
+    RocksDBTableProfileTest.class,
+
+    HbaseSessionsTest.class,
+    MysqlSessionsTest.class,
+    MysqlTableTest.class,
+    PaloStreamLoaderTest.class
 })
 public class UnitTestSuite {
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.LockUtil;
+import com.baidu.hugegraph.util.Log;
+import com.baidu.hugegraph.util.StripedReadWriteLock;
+
+/**
+ * The overhead of the schema locks acquired by each vertex or edge writing
+ */
+public class LocksPerfTest extends BaseUnitTest {
+
+    private static final Logger LOG = Log.logger(LocksPerfTest.class);
+
+    private static final String GRAPH = "perf";
+    private static final int THREADS = 16;
+    private static final int TIMES = 1000 * 1000;
+
+    @BeforeClass
+    public static void init() {
+        LockUtil.init(GRAPH);
+    }
+
+    @AfterClass
+    public static void clear() {
+        LockUtil.destroy(GRAPH);
+    }
+
+    @Test
+    public void testReentrantReadLock() {
+        this.testReadLock("ReentrantReadWriteLock",
+                          new ReentrantReadWriteLock());
+    }
+
+    @Test
+    public void testStripedReadLock() {
+        this.testReadLock("StripedReadWriteLock", new StripedReadWriteLock());
+    }
+
+    @Test
+    public void testLocksTablePerTx() {
+        Id label = IdGenerator.of(1L);
+        long start = System.nanoTime();
+        runWithThreads(THREADS, () -> {
+            LockUtil.LocksTable table = new LockUtil.LocksTable(GRAPH);
+            // Commit every 500 writes like the graph transaction
+            for (int i = 0; i < TIMES; i++) {
+                table.lockReads(LockUtil.VERTEX_LABEL_DELETE, label);
+                if (i % 500 == 0) {
+                    table.unlock();
+                }
+            }
+            table.unlock();
+        });
+        this.report("LocksTable", System.nanoTime() - start);
+    }
+
+    private void testReadLock(String name, ReadWriteLock lock) {
+        Lock readLock = lock.readLock();
+        long start = System.nanoTime();
+        runWithThreads(THREADS, () -> {
+            for (int i = 0; i < TIMES; i++) {
+                readLock.tryLock();
+                readLock.unlock();
+            }
+        });
+        this.report(name, System.nanoTime() - start);
+    }
+
+    private void report(String name, long cost) {
+        long ops = (long) THREADS * TIMES;
+        LOG.info("{}: {} threads * {} times cost {}ms, {}ns per op",
+                 name, THREADS, TIMES, cost / 1000000L, cost / ops);
+    }
+}
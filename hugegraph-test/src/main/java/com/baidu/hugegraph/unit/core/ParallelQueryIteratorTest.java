@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.TextBackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.ParallelQueryIterator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class ParallelQueryIteratorTest extends BaseUnitTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testQueryInOrder() {
+        List<Integer> queries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            queries.add(i);
+        }
+        AtomicInteger submitted = new AtomicInteger();
+        Iterator<BackendEntry> results = new ParallelQueryIterator<>(
+                queries, 3,
+                query -> {
+                    submitted.incrementAndGet();
+                    return this.query(query, 2);
+                },
+                List::iterator);
+
+        // Only the first window of queries is submitted before iterating
+        Assert.assertEquals(3, submitted.get());
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(results.hasNext());
+            Assert.assertEquals(IdGenerator.of(i + "-0"), results.next().id());
+            Assert.assertTrue(results.hasNext());
+            Assert.assertEquals(IdGenerator.of(i + "-1"), results.next().id());
+            Assert.assertTrue(submitted.get() <= i + 4);
+        }
+        Assert.assertFalse(results.hasNext());
+        Assert.assertEquals(100, submitted.get());
+    }
+
+    @Test
+    public void testQueryWithEmptyResults() {
+        Iterator<BackendEntry> results = new ParallelQueryIterator<>(
+                ImmutableList.of(1, 2, 3, 4), 2,
+                query -> this.query(query, query % 2),
+                List::iterator);
+
+        Assert.assertEquals(IdGenerator.of("1-0"), results.next().id());
+        Assert.assertEquals(IdGenerator.of("3-0"), results.next().id());
+        Assert.assertFalse(results.hasNext());
+
+        results = new ParallelQueryIterator<>(ImmutableList.<Integer>of(), 2,
+                                              query -> this.query(query, 1),
+                                              List::iterator);
+        Assert.assertFalse(results.hasNext());
+    }
+
+    @Test
+    public void testQueryWithError() {
+        Iterator<BackendEntry> results = new ParallelQueryIterator<>(
+                ImmutableList.of(1, 2, 3), 2,
+                query -> this.executor.submit(() -> {
+                    if (query == 2) {
+                        throw new IllegalStateException("Query 2 failed");
+                    }
+                    return this.entries(query, 1);
+                }),
+                List::iterator);
+
+        Assert.assertEquals(IdGenerator.of("1-0"), results.next().id());
+        Assert.assertThrows(BackendException.class, () -> {
+            results.hasNext();
+        });
+    }
+
+    private Future<List<BackendEntry>> query(int query, int size) {
+        return this.executor.submit(() -> this.entries(query, size));
+    }
+
+    private List<BackendEntry> entries(int query, int size) {
+        List<BackendEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new TextBackendEntry(HugeType.VERTEX,
+                                             IdGenerator.of(query + "-" + i)));
+        }
+        return entries;
+    }
+}
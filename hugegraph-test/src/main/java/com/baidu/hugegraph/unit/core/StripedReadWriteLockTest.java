@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.StripedReadWriteLock;
+
+public class StripedReadWriteLockTest extends BaseUnitTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        this.executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadLockByMultiThreads() {
+        StripedReadWriteLock lock = new StripedReadWriteLock();
+        AtomicInteger locked = new AtomicInteger();
+        runWithThreads(8, () -> {
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertTrue(lock.readLock().tryLock());
+                locked.incrementAndGet();
+            }
+        });
+        Assert.assertEquals(8000, locked.get());
+        Assert.assertEquals(8000L, lock.readers());
+
+        runWithThreads(8, () -> {
+            for (int i = 0; i < 1000; i++) {
+                lock.readLock().unlock();
+            }
+        });
+        Assert.assertEquals(0L, lock.readers());
+        Assert.assertTrue(lock.writeLock().tryLock());
+        lock.writeLock().unlock();
+    }
+
+    @Test
+    public void testReadLockWithWriteLocked() throws Exception {
+        StripedReadWriteLock lock = new StripedReadWriteLock();
+        Assert.assertTrue(lock.writeLock().tryLock());
+        Assert.assertTrue(lock.writeLocked());
+
+        // The owner of write lock can read and lock again
+        Assert.assertTrue(lock.readLock().tryLock());
+        lock.readLock().unlock();
+        Assert.assertTrue(lock.writeLock().tryLock());
+        lock.writeLock().unlock();
+
+        Future<Boolean> future = this.executor.submit(() -> {
+            return lock.readLock().tryLock();
+        });
+        Assert.assertFalse(future.get());
+
+        lock.writeLock().unlock();
+        Assert.assertFalse(lock.writeLocked());
+
+        future = this.executor.submit(() -> {
+            return lock.readLock().tryLock();
+        });
+        Assert.assertTrue(future.get());
+        Assert.assertEquals(1L, lock.readers());
+    }
+
+    @Test
+    public void testWriteLockWithReadLocked() throws Exception {
+        StripedReadWriteLock lock = new StripedReadWriteLock();
+        Assert.assertTrue(lock.readLock().tryLock());
+
+        Future<Boolean> future = this.executor.submit(() -> {
+            return lock.writeLock().tryLock(10L, TimeUnit.MILLISECONDS);
+        });
+        Assert.assertFalse(future.get());
+        // The readers are accepted again after the writer gave up
+        Assert.assertFalse(lock.writeLocked());
+        Assert.assertTrue(lock.readLock().tryLock());
+        lock.readLock().unlock();
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        future = this.executor.submit(() -> {
+            waiting.countDown();
+            boolean locked = lock.writeLock().tryLock(10L, TimeUnit.SECONDS);
+            lock.writeLock().unlock();
+            return locked;
+        });
+        waiting.await();
+        while (!lock.writeLocked()) {
+            Thread.sleep(1L);
+        }
+        // The new readers are refused while the writer is waiting
+        Future<Boolean> reader = this.executor.submit(() -> {
+            return lock.readLock().tryLock();
+        });
+        Assert.assertFalse(reader.get());
+
+        lock.readLock().unlock();
+        Assert.assertTrue(future.get());
+        Assert.assertEquals(0L, lock.readers());
+    }
+
+    @Test
+    public void testWriteLockByMultiThreads() {
+        StripedReadWriteLock lock = new StripedReadWriteLock();
+        Lock writeLock = lock.writeLock();
+        int[] counter = new int[1];
+        runWithThreads(4, () -> {
+            for (int i = 0; i < 1000; i++) {
+                writeLock.lock();
+                try {
+                    counter[0]++;
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        });
+        Assert.assertEquals(4000, counter[0]);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.hbase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutator.ExceptionListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.hbase.HbaseSessions;
+import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.Session;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.StringEncoding;
+import com.google.common.collect.ImmutableList;
+
+public class HbaseSessionsTest extends BaseUnitTest {
+
+    private static final byte[] FAMILY = StringEncoding.encode("f");
+
+    // The mutators created by the sessions in order
+    private List<BufferedMutator> mutators;
+    private Session session;
+
+    @Before
+    public void setup() {
+        this.mutators = new ArrayList<>();
+        HbaseSessions sessions = new HbaseSessions("ns", "store") {
+            @Override
+            protected BufferedMutator mutator(String table,
+                                              ExceptionListener listener) {
+                BufferedMutator mutator = Mockito.mock(BufferedMutator.class);
+                mutators.add(mutator);
+                return mutator;
+            }
+        };
+        this.session = sessions.session();
+    }
+
+    @Test
+    public void testCommitWithFailingMutator() throws IOException {
+        this.put("t1", "row1");
+        this.put("t2", "row2");
+        Assert.assertEquals(2, (int) this.session.commit());
+        Assert.assertEquals(2, this.mutators.size());
+
+        BufferedMutator failing = this.mutators.get(0);
+        BufferedMutator other = this.mutators.get(1);
+        Mockito.doThrow(new IOException("Flush failed"))
+               .when(failing).flush();
+
+        this.put("t1", "row3");
+        Assert.assertThrows(BackendException.class, () -> {
+            this.session.commit();
+        });
+        // The failing mutator is closed and dropped
+        Mockito.verify(failing).close();
+        Mockito.verify(other, Mockito.never()).close();
+        // The batch is retained to be committed again
+        Assert.assertTrue(this.session.hasChanges());
+
+        Assert.assertEquals(1, (int) this.session.commit());
+        Assert.assertEquals(3, this.mutators.size());
+        Mockito.verify(this.mutators.get(2)).flush();
+        Assert.assertFalse(this.session.hasChanges());
+    }
+
+    @Test
+    public void testClearWithMutators() throws IOException {
+        this.put("t1", "row1");
+        Assert.assertEquals(1, (int) this.session.commit());
+        Assert.assertEquals(1, this.mutators.size());
+
+        this.put("t1", "row2");
+        this.session.clear();
+        Assert.assertFalse(this.session.hasChanges());
+        Mockito.verify(this.mutators.get(0)).close();
+
+        // A new mutator is created after clearing
+        this.put("t1", "row3");
+        Assert.assertEquals(1, (int) this.session.commit());
+        Assert.assertEquals(2, this.mutators.size());
+        Mockito.verify(this.mutators.get(1)).flush();
+    }
+
+    private void put(String table, String row) {
+        byte[] rowkey = StringEncoding.encode(row);
+        BackendColumn column = BackendColumn.of(StringEncoding.encode("c"),
+                                                rowkey);
+        this.session.put(table, FAMILY, rowkey, ImmutableList.of(column));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.TableBackendEntry.Row;
+import com.baidu.hugegraph.backend.store.mysql.MysqlOptions;
+import com.baidu.hugegraph.backend.store.mysql.MysqlSessions;
+import com.baidu.hugegraph.backend.store.mysql.MysqlSessions.Session;
+import com.baidu.hugegraph.backend.store.mysql.MysqlTables;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.OptionSpace;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class MysqlSessionsTest extends BaseUnitTest {
+
+    // The statements executed in order, like: "DELETE [1]"
+    private List<String> executed;
+    private Session session;
+    private MysqlTables.VertexLabel table;
+
+    @Before
+    public void setup() throws SQLException {
+        OptionSpace.register("mysql", MysqlOptions.instance());
+        BaseConfiguration conf = new BaseConfiguration();
+        conf.setProperty(MysqlOptions.JDBC_BULK_INSERT_SIZE.name(), "1024");
+
+        this.executed = new ArrayList<>();
+        Connection conn = Mockito.mock(Connection.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString()))
+               .thenAnswer(invocation -> {
+                   return this.statement((String) invocation.getArguments()[0]);
+               });
+
+        MysqlSessions sessions = new MysqlSessions(new HugeConfig(conf),
+                                                   "db", "store") {
+            @Override
+            protected Connection open(boolean autoReconnect) {
+                return conn;
+            }
+        };
+        this.session = sessions.session();
+        this.table = new MysqlTables.VertexLabel();
+    }
+
+    @Test
+    public void testInsertThenDeleteInBulkMode() {
+        Assert.assertTrue(this.session.bulkInsert());
+
+        this.table.insert(this.session, this.row(1L));
+        this.table.delete(this.session, this.row(1L));
+        this.session.commit();
+
+        // The deleted row is not inserted again
+        Assert.assertEquals(ImmutableList.of("REPLACE [1]",
+                                             "DELETE [1]"),
+                            this.executed);
+    }
+
+    @Test
+    public void testDeleteThenInsertInBulkMode() {
+        this.table.delete(this.session, this.row(1L));
+        this.table.insert(this.session, this.row(1L));
+        this.table.insert(this.session, this.row(2L));
+        this.session.commit();
+
+        Assert.assertEquals(ImmutableList.of("DELETE [1]",
+                                             "REPLACE [1, 2]"),
+                            this.executed);
+    }
+
+    @Test
+    public void testDeleteInsertDeleteInBulkMode() {
+        this.table.delete(this.session, this.row(1L));
+        this.table.insert(this.session, this.row(1L));
+        this.table.delete(this.session, this.row(2L));
+        this.table.insert(this.session, this.row(3L));
+        int updated = this.session.commit();
+
+        // The row 1 deleted before inserting is kept
+        Assert.assertEquals(ImmutableList.of("DELETE [1]",
+                                             "REPLACE [1]",
+                                             "DELETE [2]",
+                                             "REPLACE [3]"),
+                            this.executed);
+        Assert.assertEquals(4, updated);
+    }
+
+    private Row row(long id) {
+        Row row = new Row(HugeType.VERTEX_LABEL, IdGenerator.of(id));
+        row.column(HugeKeys.ID, id);
+        return row;
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        String kind = sql.substring(0, sql.indexOf(' '));
+        List<Object> params = new ArrayList<>();
+        List<List<Object>> batch = new ArrayList<>();
+
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.doAnswer(invocation -> {
+            params.add(invocation.getArguments()[1]);
+            return null;
+        }).when(statement).setObject(Mockito.anyInt(), Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            batch.add(new ArrayList<>(params));
+            params.clear();
+            return null;
+        }).when(statement).addBatch();
+        Mockito.doAnswer(invocation -> {
+            batch.clear();
+            return null;
+        }).when(statement).clearBatch();
+        Mockito.when(statement.executeBatch()).thenAnswer(invocation -> {
+            int[] results = new int[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                this.executed.add(kind + " " + batch.get(i));
+                results[i] = 1;
+            }
+            batch.clear();
+            return results;
+        });
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            this.executed.add(kind + " " + params);
+            // One column of each row
+            int rows = params.size();
+            params.clear();
+            return rows;
+        });
+        return statement;
+    }
+}
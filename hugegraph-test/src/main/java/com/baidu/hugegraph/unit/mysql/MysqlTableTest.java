@@ -0,0 +1,284 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.mysql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.mysql.MysqlBackendEntry;
+import com.baidu.hugegraph.backend.store.mysql.MysqlSessions.Session;
+import com.baidu.hugegraph.backend.store.mysql.MysqlTable;
+import com.baidu.hugegraph.backend.store.mysql.MysqlTables;
+import com.baidu.hugegraph.iterator.Metadatable;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class MysqlTableTest extends BaseUnitTest {
+
+    private static final Pattern KEYSET = Pattern.compile(
+                                          "\\) >= \\((.*)\\) ORDER BY");
+    private static final Pattern LIMIT = Pattern.compile(" limit (\\d+)");
+
+    private static final List<HugeKeys> VERTEX_LABEL_KEYS = ImmutableList.of(
+                                                            HugeKeys.ID);
+    private static final List<HugeKeys> INDEX_KEYS = ImmutableList.of(
+                                                     HugeKeys.FIELD_VALUES,
+                                                     HugeKeys.INDEX_LABEL_ID,
+                                                     HugeKeys.ELEMENT_IDS);
+
+    // The rows of the fake table in primary key order
+    private List<List<Object>> rows;
+    private List<HugeKeys> columns;
+    // The statements selected in order
+    private List<String> selected;
+    private Session session;
+
+    @Before
+    public void setup() throws SQLException {
+        this.rows = new ArrayList<>();
+        this.columns = VERTEX_LABEL_KEYS;
+        this.selected = new ArrayList<>();
+        this.session = Mockito.mock(Session.class);
+        Mockito.when(this.session.select(Mockito.anyString()))
+               .thenAnswer(invocation -> {
+                   return this.select((String) invocation.getArguments()[0]);
+               });
+    }
+
+    @Test
+    public void testScanByChunksAcrossChunkBoundaries() {
+        for (long i = 1L; i <= 10L; i++) {
+            this.rows.add(ImmutableList.of(i));
+        }
+        Mockito.when(this.session.scanChunkSize()).thenReturn(3);
+
+        MysqlTable table = new MysqlTables.VertexLabel();
+        Query query = new Query(HugeType.VERTEX_LABEL);
+        List<List<Object>> results = this.keys(table.query(this.session,
+                                                           query));
+
+        Assert.assertEquals(this.rows, results);
+        // Each chunk fetches one more row to resume the next chunk from
+        Assert.assertEquals(4, this.selected.size());
+        for (String sql : this.selected) {
+            assertContains("ORDER BY ID limit 4", sql);
+        }
+        assertContains("WHERE (ID) >= (4)", this.selected.get(1));
+        assertContains("WHERE (ID) >= (7)", this.selected.get(2));
+        assertContains("WHERE (ID) >= (10)", this.selected.get(3));
+    }
+
+    @Test
+    public void testScanByChunksWithLimit() {
+        for (long i = 1L; i <= 10L; i++) {
+            this.rows.add(ImmutableList.of(i));
+        }
+        Mockito.when(this.session.scanChunkSize()).thenReturn(3);
+
+        MysqlTable table = new MysqlTables.VertexLabel();
+        Query query = new Query(HugeType.VERTEX_LABEL);
+        query.limit(7L);
+        List<List<Object>> results = this.keys(table.query(this.session,
+                                                           query));
+
+        Assert.assertEquals(this.rows.subList(0, 7), results);
+        Assert.assertEquals(3, this.selected.size());
+        // The last chunk only fetches the remaining rows
+        assertContains("ORDER BY ID limit 2", this.selected.get(2));
+    }
+
+    @Test
+    public void testScanByChunksWithCompositeKeys() {
+        this.initIndexRows();
+        Mockito.when(this.session.scanChunkSize()).thenReturn(2);
+
+        MysqlTable table = new MysqlTables.SecondaryIndex("g");
+        Query query = new Query(HugeType.SECONDARY_INDEX);
+        List<List<Object>> results = this.keys(table.query(this.session,
+                                                           query));
+
+        Assert.assertEquals(this.rows, results);
+        Assert.assertEquals(4, this.selected.size());
+        assertContains("WHERE (FIELD_VALUES, INDEX_LABEL_ID, " +
+                              "ELEMENT_IDS) >= ('b', 1, 'e3') " +
+                              "ORDER BY FIELD_VALUES, INDEX_LABEL_ID, " +
+                              "ELEMENT_IDS limit 3",
+                              this.selected.get(1));
+    }
+
+    @Test
+    public void testQueryByPagesWithCompositeKeys() {
+        this.initIndexRows();
+
+        MysqlTable table = new MysqlTables.SecondaryIndex("g");
+        List<List<Object>> results = new ArrayList<>();
+        String page = "";
+        int pages = 0;
+        while (page != null) {
+            Query query = new Query(HugeType.SECONDARY_INDEX);
+            query.page(page);
+            query.limit(3L);
+            Iterator<BackendEntry> iter = table.query(this.session, query);
+            results.addAll(this.keys(iter));
+            // Resume the next page from the page state
+            page = (String) ((Metadatable) iter).metadata("page");
+            pages++;
+        }
+
+        Assert.assertEquals(this.rows, results);
+        Assert.assertEquals(3, pages);
+        assertContains("WHERE (FIELD_VALUES, INDEX_LABEL_ID, " +
+                              "ELEMENT_IDS) >= ('b', 3, 'e4')",
+                              this.selected.get(1));
+    }
+
+    @Test
+    public void testQueryWithoutPagingNotOrdered() {
+        for (long i = 1L; i <= 10L; i++) {
+            this.rows.add(ImmutableList.of(i));
+        }
+
+        MysqlTable table = new MysqlTables.VertexLabel();
+        Query query = new Query(HugeType.VERTEX_LABEL);
+        query.limit(2L);
+        Assert.assertEquals(2, this.keys(table.query(this.session, query))
+                                   .size());
+
+        Assert.assertEquals(1, this.selected.size());
+        Assert.assertFalse(this.selected.get(0).contains("ORDER BY"));
+        assertContains("limit 2 offset 0", this.selected.get(0));
+    }
+
+    private void initIndexRows() {
+        this.columns = INDEX_KEYS;
+        // The rows with the same field values and label would be merged
+        this.rows.add(ImmutableList.of("a", 1, "e1"));
+        this.rows.add(ImmutableList.of("a", 2, "e2"));
+        this.rows.add(ImmutableList.of("b", 1, "e3"));
+        this.rows.add(ImmutableList.of("b", 3, "e4"));
+        this.rows.add(ImmutableList.of("c", 1, "e5"));
+        this.rows.add(ImmutableList.of("c", 2, "e6"));
+        this.rows.add(ImmutableList.of("d", 1, "e7"));
+    }
+
+    private List<List<Object>> keys(Iterator<BackendEntry> iter) {
+        List<List<Object>> keys = new ArrayList<>();
+        while (iter.hasNext()) {
+            MysqlBackendEntry entry = (MysqlBackendEntry) iter.next();
+            List<Object> key = new ArrayList<>();
+            for (HugeKeys column : this.columns) {
+                key.add(entry.column(column));
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private ResultSet select(String sql) throws SQLException {
+        this.selected.add(sql);
+
+        // Filter the rows like "WHERE (k1, k2) >= (v1, v2) ... limit n"
+        List<List<Object>> results = new ArrayList<>();
+        Matcher keyset = KEYSET.matcher(sql);
+        List<String> start = keyset.find() ?
+                             ImmutableList.copyOf(keyset.group(1)
+                                                        .split(", ")) :
+                             ImmutableList.of();
+        Matcher limit = LIMIT.matcher(sql);
+        long size = limit.find() ? Long.parseLong(limit.group(1)) :
+                                   Long.MAX_VALUE;
+        for (List<Object> row : this.rows) {
+            if (results.size() < size && compare(row, start) >= 0) {
+                results.add(row);
+            }
+        }
+        return this.resultSet(results);
+    }
+
+    private ResultSet resultSet(List<List<Object>> results)
+                                throws SQLException {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount())
+               .thenReturn(this.columns.size());
+        Mockito.when(metaData.getColumnLabel(Mockito.anyInt()))
+               .thenAnswer(invocation -> {
+                   int i = (Integer) invocation.getArguments()[0];
+                   return MysqlTable.formatKey(this.columns.get(i - 1));
+               });
+
+        Iterator<List<Object>> iter = results.iterator();
+        List<List<Object>> current = new ArrayList<>(ImmutableList.of(
+                                                      ImmutableList.of()));
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(rs.getMetaData()).thenReturn(metaData);
+        Mockito.when(rs.next()).thenAnswer(invocation -> {
+            if (!iter.hasNext()) {
+                return false;
+            }
+            current.set(0, iter.next());
+            return true;
+        });
+        Mockito.when(rs.getObject(Mockito.anyInt())).thenAnswer(invocation -> {
+            int i = (Integer) invocation.getArguments()[0];
+            return current.get(0).get(i - 1);
+        });
+        return rs;
+    }
+
+    private static void assertContains(String expected, String sql) {
+        Assert.assertTrue(String.format("Expect '%s' in '%s'", expected, sql),
+                          sql.contains(expected));
+    }
+
+    private static int compare(List<Object> row, List<String> start) {
+        for (int i = 0; i < start.size(); i++) {
+            Object value = row.get(i);
+            String bound = start.get(i);
+            int cmp;
+            if (value instanceof String) {
+                // Unquote the escaped string value
+                bound = bound.substring(1, bound.length() - 1);
+                cmp = ((String) value).compareTo(bound);
+            } else {
+                cmp = Long.compare(((Number) value).longValue(),
+                                   Long.parseLong(bound));
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
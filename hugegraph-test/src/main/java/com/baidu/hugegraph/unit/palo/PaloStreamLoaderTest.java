@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.palo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.palo.PaloOptions;
+import com.baidu.hugegraph.backend.store.palo.PaloStreamLoader;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.OptionSpace;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class PaloStreamLoaderTest extends BaseUnitTest {
+
+    private static final String SUCCESS = "{\"Status\": \"Success\"}";
+
+    private HttpServer server;
+    private List<String> labels;
+    private List<String> bodies;
+
+    @Before
+    public void setup() throws IOException {
+        OptionSpace.register("palo", PaloOptions.instance());
+        this.labels = new CopyOnWriteArrayList<>();
+        this.bodies = new CopyOnWriteArrayList<>();
+        this.server = HttpServer.create(new InetSocketAddress(0), 0);
+        this.server.start();
+    }
+
+    @After
+    public void teardown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        this.stub("/api/db/vertices/_stream_load", SUCCESS);
+        PaloStreamLoader loader = this.loader(60000);
+
+        CompletableFuture<Void> future1 = loader.load("vertices",
+                                                      ImmutableList.of("1\ta"));
+        CompletableFuture<Void> future2 = loader.load("vertices",
+                                                      ImmutableList.of("2\tb"));
+        // The rows are loaded in one request by flush
+        Assert.assertSame(future1, future2);
+        Assert.assertFalse(future1.isDone());
+        loader.flush();
+        future1.get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(ImmutableList.of("1\ta\n2\tb\n"), this.bodies);
+        Assert.assertEquals(1, this.labels.size());
+        Assert.assertTrue(this.labels.get(0).startsWith("vertices_db_"));
+        loader.close();
+    }
+
+    @Test
+    public void testLoadByInterval() throws Exception {
+        this.stub("/api/db/edges/_stream_load", SUCCESS);
+        PaloStreamLoader loader = this.loader(10);
+
+        loader.load("edges", ImmutableList.of("1\t2")).get(10,
+                                                          TimeUnit.SECONDS);
+        loader.load("edges", ImmutableList.of("3\t4")).get(10,
+                                                          TimeUnit.SECONDS);
+
+        Assert.assertEquals(ImmutableList.of("1\t2\n", "3\t4\n"), this.bodies);
+        Assert.assertNotEquals(this.labels.get(0), this.labels.get(1));
+        loader.close();
+    }
+
+    @Test
+    public void testLoadBySize() throws Exception {
+        this.stub("/api/db/edges/_stream_load", SUCCESS);
+        PaloStreamLoader loader = this.loader(60000);
+
+        String row = Strings.repeat("x", 1024 * 1024);
+        loader.load("edges", ImmutableList.of(row)).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, this.bodies.size());
+
+        // The buffered rows are loaded when closing
+        CompletableFuture<Void> future = loader.load("edges",
+                                                     ImmutableList.of("1"));
+        loader.close();
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals("1\n", this.bodies.get(1));
+    }
+
+    @Test
+    public void testLoadWithRedirect() throws Exception {
+        String backend = "/backend/db/vertices/_stream_load";
+        this.server.createContext("/api/db/vertices/_stream_load",
+                                  exchange -> {
+            IOUtils.toString(exchange.getRequestBody(), Charsets.UTF_8);
+            String location = String.format("http://127.0.0.1:%s%s",
+                                             this.port(), backend);
+            exchange.getResponseHeaders().add("Location", location);
+            exchange.sendResponseHeaders(307, -1);
+            exchange.close();
+        });
+        this.stub(backend, SUCCESS);
+        PaloStreamLoader loader = this.loader(10);
+
+        loader.load("vertices", ImmutableList.of("1\ta"))
+              .get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(ImmutableList.of("1\ta\n"), this.bodies);
+        loader.close();
+    }
+
+    @Test
+    public void testLoadWithFailure() throws Exception {
+        this.stub("/api/db/vertices/_stream_load",
+                  "{\"Status\": \"Fail\", \"Message\": \"Invalid row\"}");
+        PaloStreamLoader loader = this.loader(10);
+
+        CompletableFuture<Void> future = loader.load("vertices",
+                                                     ImmutableList.of("1"));
+        Assert.assertThrows(ExecutionException.class, () -> {
+            future.get(10, TimeUnit.SECONDS);
+        }, e -> {
+            Assert.assertTrue(e.getCause() instanceof BackendException);
+            Assert.assertTrue(e.getCause().getMessage()
+                               .contains("Invalid row"));
+        });
+        loader.close();
+    }
+
+    private PaloStreamLoader loader(int interval) {
+        BaseConfiguration conf = new BaseConfiguration();
+        conf.setProperty(PaloOptions.PALO_HOST.name(), "127.0.0.1");
+        conf.setProperty(PaloOptions.PALO_HTTP_PORT.name(),
+                         String.valueOf(this.port()));
+        conf.setProperty(PaloOptions.PALO_LOAD_SIZE.name(), "1");
+        conf.setProperty(PaloOptions.PALO_LOAD_INTERVAL.name(),
+                         String.valueOf(interval));
+        return new PaloStreamLoader(new HugeConfig(conf), "db");
+    }
+
+    private int port() {
+        return this.server.getAddress().getPort();
+    }
+
+    private void stub(String path, String result) {
+        this.server.createContext(path, exchange -> {
+            this.labels.add(exchange.getRequestHeaders().getFirst("label"));
+            this.bodies.add(IOUtils.toString(exchange.getRequestBody(),
+                                             Charsets.UTF_8));
+            this.reply(exchange, result);
+        });
+    }
+
+    private void reply(HttpExchange exchange, String result)
+                       throws IOException {
+        byte[] bytes = result.getBytes(Charsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -19,18 +19,37 @@
 
 package com.baidu.hugegraph.unit.rocksdb;
 
+import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assume;
 import org.junit.Test;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
 
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.BackendMutation;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBMetrics;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.OptionSpace;
 import com.baidu.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
 
@@ -258,6 +277,264 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertArrayEquals(value21, session.get(TABLE, key21));
     }
 
+    @Test
+    public void testScanByMultiRangesWithSnapshot() throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:2gname", "Lisa");
+        put("person:3gname", "Hebe");
+        put("person:4gname", "Tom");
+
+        Session session = this.rocks.session();
+        List<BackendColumnIterator> itors = session.scan(TABLE, ImmutableList.of(
+                Pair.of(null, b("person:2")),
+                Pair.of(b("person:2"), b("person:4")),
+                Pair.of(b("person:4"), null)));
+        Assert.assertEquals(3, itors.size());
+
+        // Changes after scan() are invisible to the iterators
+        put("person:1gage", "19");
+        this.rocks.session().delete(TABLE, b("person:3gname"));
+        this.commit();
+
+        List<Map<String, String>> results = new ArrayList<>();
+        for (BackendColumnIterator itor : itors) {
+            Map<String, String> result = new HashMap<>();
+            while (itor.hasNext()) {
+                BackendColumn col = itor.next();
+                result.put(s(col.name), s(col.value));
+            }
+            itor.close();
+            results.add(result);
+        }
+
+        Assert.assertEquals(ImmutableMap.of("person:1gname", "James"),
+                            results.get(0));
+        Assert.assertEquals(ImmutableMap.of("person:2gname", "Lisa",
+                                            "person:3gname", "Hebe"),
+                            results.get(1));
+        Assert.assertEquals(ImmutableMap.of("person:4gname", "Tom"),
+                            results.get(2));
+
+        Assert.assertEquals("19", get("person:1gage"));
+        Assert.assertEquals(null, get("person:3gname"));
+    }
+
+    @Test
+    public void testReadWithSnapshot() throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:2gname", "Lisa");
+
+        Session session = this.rocks.session();
+        session.beginSnapshot();
+        Assert.assertEquals("1", this.rocks.property(
+                                 RocksDBMetrics.NUM_SNAPSHOTS));
+
+        put("person:1gname", "Tom");
+        put("person:3gname", "Hebe");
+
+        // Reads in the snapshot can't see later changes
+        Assert.assertEquals("James", get("person:1gname"));
+        Assert.assertEquals(null, get("person:3gname"));
+
+        // Nested snapshot reuses the outermost one
+        session.beginSnapshot();
+        Assert.assertEquals("1", this.rocks.property(
+                                 RocksDBMetrics.NUM_SNAPSHOTS));
+        BackendColumnIterator itor = session.scan(TABLE, b("person:"));
+        session.endSnapshot();
+        session.endSnapshot();
+
+        // The iterator keeps the snapshot until it's closed
+        Assert.assertEquals("1", this.rocks.property(
+                                 RocksDBMetrics.NUM_SNAPSHOTS));
+        Map<String, String> results = new HashMap<>();
+        while (itor.hasNext()) {
+            BackendColumn col = itor.next();
+            results.put(s(col.name), s(col.value));
+        }
+        Assert.assertEquals(ImmutableMap.of("person:1gname", "James",
+                                            "person:2gname", "Lisa"),
+                            results);
+        Assert.assertEquals("0", this.rocks.property(
+                                 RocksDBMetrics.NUM_SNAPSHOTS));
+
+        // Read the latest data after the snapshot released
+        Assert.assertEquals("Tom", get("person:1gname"));
+        Assert.assertEquals("Hebe", get("person:3gname"));
+
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            session.endSnapshot();
+        });
+    }
+
+    @Test
+    public void testTraverseWithSnapshotWhileWriting()
+                throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:2gname", "Lisa");
+        put("person:4gname", "Tom");
+
+        // A traversal reads several times in the scope of a snapshot
+        Session session = this.rocks.session();
+        session.beginSnapshot();
+        Map<String, String> results = new HashMap<>();
+        try {
+            BackendColumnIterator itor = session.scan(TABLE,
+                                                      b("person:1"));
+            while (itor.hasNext()) {
+                BackendColumn col = itor.next();
+                results.put(s(col.name), s(col.value));
+            }
+
+            // The writes landed in the middle of the traversal
+            put("person:2gname", "Lisa2");
+            put("person:3gname", "Hebe");
+            this.rocks.session().remove(TABLE, b("person:4gname"));
+            this.commit();
+
+            itor = session.scan(TABLE, b("person:2"), b("person:9"));
+            while (itor.hasNext()) {
+                BackendColumn col = itor.next();
+                results.put(s(col.name), s(col.value));
+            }
+            Assert.assertEquals("Tom", get("person:4gname"));
+        } finally {
+            session.endSnapshot();
+        }
+        Assert.assertEquals(ImmutableMap.of("person:1gname", "James",
+                                            "person:2gname", "Lisa",
+                                            "person:4gname", "Tom"),
+                            results);
+
+        // The traversal started after the writes sees them
+        Assert.assertEquals("Lisa2", get("person:2gname"));
+        Assert.assertEquals("Hebe", get("person:3gname"));
+        Assert.assertEquals(null, get("person:4gname"));
+    }
+
+    @Test
+    public void testMetrics() throws RocksDBException {
+        put("person:1gname", "James");
+        Assert.assertEquals("James", get("person:1gname"));
+
+        RocksDBMetrics rocksMetrics = new RocksDBMetrics(
+                                      ImmutableList.of(this.rocks),
+                                      this.rocks.session());
+        Map<String, Object> metrics = rocksMetrics.getMetrics();
+        Assert.assertEquals(0L, metrics.get(RocksDBMetrics.SNAPSHOT_COUNT));
+
+        Map<?, ?> dbs = (Map<?, ?>) metrics.get(RocksDBMetrics.DBS);
+        Assert.assertEquals(1, dbs.size());
+        Map<?, ?> db = (Map<?, ?>) dbs.values().iterator().next();
+        // The statistics are disabled by default
+        Assert.assertFalse(db.containsKey(
+                           RocksDBMetrics.BLOCK_CACHE_HIT_RATIO));
+        Assert.assertFalse(db.containsKey(RocksDBMetrics.WRITE_MICROS));
+
+        Map<?, ?> tables = (Map<?, ?>) db.get(RocksDBMetrics.TABLES);
+        Assert.assertTrue(tables.containsKey(TABLE));
+        Map<?, ?> table = (Map<?, ?>) tables.get(TABLE);
+        Assert.assertEquals(0L, table.get("num_l0_files"));
+    }
+
+    @Test
+    public void testMetricsWithStatistics() throws Exception {
+        BaseConfiguration conf = new BaseConfiguration();
+        conf.setProperty(RocksDBOptions.STATISTICS_LEVEL.name(),
+                         "EXCEPT_DETAILED_TIMERS");
+        withRocks(conf, rocks -> {
+            rocks.session().put(TABLE, b("person:1gname"), b("James"));
+            rocks.session().commit();
+            Assert.assertEquals("James", s(rocks.session().get(
+                                           TABLE, b("person:1gname"))));
+
+            RocksDBMetrics rocksMetrics = new RocksDBMetrics(
+                                          ImmutableList.of(rocks),
+                                          rocks.session());
+            Map<String, Object> metrics = rocksMetrics.getMetrics();
+            Map<?, ?> dbs = (Map<?, ?>) metrics.get(RocksDBMetrics.DBS);
+            Map<?, ?> db = (Map<?, ?>) dbs.values().iterator().next();
+            Assert.assertTrue(db.containsKey(
+                              RocksDBMetrics.BLOCK_CACHE_HIT_RATIO));
+            Assert.assertTrue(db.containsKey(RocksDBMetrics.STALL_MICROS));
+            Map<?, ?> writes = (Map<?, ?>) db.get(
+                                           RocksDBMetrics.WRITE_MICROS);
+            Assert.assertTrue((Double) writes.get("average") > 0D);
+        });
+    }
+
+    @Test
+    public void testCommitWithWriteOptions() throws Exception {
+        BaseConfiguration conf = new BaseConfiguration();
+        conf.setProperty(RocksDBOptions.STATISTICS_LEVEL.name(),
+                         "EXCEPT_DETAILED_TIMERS");
+        conf.setProperty(RocksDBOptions.WRITE_SYNC.name(), "true");
+        withRocks(conf, rocks -> {
+            Statistics stats = rocks.statistics();
+
+            // Interactive writes sync the WAL
+            long synced = stats.getTickerCount(TickerType.WAL_FILE_SYNCED);
+            commitWrite(rocks, "person:1gname", false);
+            Assert.assertEquals(synced + 1L, stats.getTickerCount(
+                                             TickerType.WAL_FILE_SYNCED));
+
+            // Bulk writes sync the WAL too
+            commitWrite(rocks, "person:2gname", true);
+            Assert.assertEquals(synced + 2L, stats.getTickerCount(
+                                             TickerType.WAL_FILE_SYNCED));
+        });
+
+        conf.setProperty(RocksDBOptions.BULK_WRITE_DISABLE_WAL.name(),
+                         "true");
+        withRocks(conf, rocks -> {
+            Statistics stats = rocks.statistics();
+
+            // Bulk writes don't write the WAL if disabled
+            long walBytes = stats.getTickerCount(TickerType.WAL_FILE_BYTES);
+            long synced = stats.getTickerCount(TickerType.WAL_FILE_SYNCED);
+            commitWrite(rocks, "person:1gname", true);
+            Assert.assertEquals(walBytes, stats.getTickerCount(
+                                          TickerType.WAL_FILE_BYTES));
+            Assert.assertEquals(synced, stats.getTickerCount(
+                                        TickerType.WAL_FILE_SYNCED));
+
+            // Interactive writes still write and sync the WAL
+            commitWrite(rocks, "person:2gname", false);
+            Assert.assertTrue(stats.getTickerCount(
+                              TickerType.WAL_FILE_BYTES) > walBytes);
+            Assert.assertEquals(synced + 1L, stats.getTickerCount(
+                                             TickerType.WAL_FILE_SYNCED));
+        });
+    }
+
+    private static void commitWrite(RocksDBSessions rocks, String key,
+                                    boolean bulk) {
+        boolean old = BackendMutation.bulkWrite(bulk);
+        try {
+            rocks.session().put(TABLE, b(key), b("value"));
+            rocks.session().commit();
+        } finally {
+            BackendMutation.bulkWrite(old);
+        }
+    }
+
+    private static void withRocks(BaseConfiguration conf,
+                                  Consumer<RocksDBSessions> consumer)
+                                  throws Exception {
+        OptionSpace.register("rocksdb", RocksDBOptions.instance());
+        String path = FileUtils.getTempDirectoryPath() + "/rocksdb-conf";
+        RocksDBSessions rocks = new RocksDBStdSessions(new HugeConfig(conf),
+                                                       path, path,
+                                                       "db", "store");
+        try {
+            rocks.createTable(TABLE);
+            consumer.accept(rocks);
+        } finally {
+            rocks.close();
+            FileUtils.deleteDirectory(new File(path));
+        }
+    }
+
     @Test
     public void testUpdate() throws RocksDBException {
         put("person:1gname", "James");
@@ -335,6 +612,30 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertEquals("Lisa", get("person:2gname"));
     }
 
+    @Test
+    public void testDeleteByPrefixWhileReadingOtherTable()
+                                                throws RocksDBException {
+        final String TABLE2 = "test-table2";
+
+        this.rocks.createTable(TABLE2);
+        put("person:1gname", "James");
+        this.rocks.session().put(TABLE2, b("person:1gname"), b("James2"));
+        this.commit();
+
+        Session session = this.rocks.session();
+        session.delete(TABLE, b("person:1"));
+        Assert.assertTrue(session.hasChanges(TABLE));
+        Assert.assertFalse(session.hasChanges(TABLE2));
+
+        // The table without changes could be read before committing
+        Assert.assertEquals("James2", s(session.get(TABLE2,
+                                                    b("person:1gname"))));
+        this.commit();
+
+        Assert.assertFalse(session.hasChanges(TABLE));
+        Assert.assertEquals(null, get("person:1gname"));
+    }
+
     @Test
     public void testDeleteByRange() throws RocksDBException {
         put("person:1gname", "James");
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.rocksdb;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompactionPriority;
+import org.rocksdb.CompressionType;
+
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBTableProfile;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.OptionSpace;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class RocksDBTableProfileTest extends BaseUnitTest {
+
+    private static final String PROFILES = "[vertex: point_lookup, " +
+                                           "edge_out:prefix_scan, " +
+                                           "secondary_index: INDEX]";
+
+    @Before
+    public void setup() {
+        OptionSpace.register("rocksdb", RocksDBOptions.instance());
+    }
+
+    @Test
+    public void testProfileOfTable() {
+        HugeConfig conf = config(false);
+        Assert.assertEquals(RocksDBTableProfile.POINT_LOOKUP,
+                            RocksDBTableProfile.of(conf, "g+v"));
+        Assert.assertEquals(RocksDBTableProfile.PREFIX_SCAN,
+                            RocksDBTableProfile.of(conf, "g+oe"));
+        Assert.assertEquals(RocksDBTableProfile.INDEX,
+                            RocksDBTableProfile.of(conf, "g+si"));
+        // The vertex table of system store is also a vertex table
+        Assert.assertEquals(RocksDBTableProfile.POINT_LOOKUP,
+                            RocksDBTableProfile.of(conf, "s+v"));
+
+        // The tables without profile
+        Assert.assertEquals(RocksDBTableProfile.DEFAULT,
+                            RocksDBTableProfile.of(conf, "g+ie"));
+        Assert.assertEquals(RocksDBTableProfile.DEFAULT,
+                            RocksDBTableProfile.of(conf, "g+ri"));
+        Assert.assertEquals(RocksDBTableProfile.DEFAULT,
+                            RocksDBTableProfile.of(new HugeConfig(
+                                                   newConfiguration()),
+                                                   "g+v"));
+    }
+
+    @Test
+    public void testProfileWithInvalidFormat() {
+        BaseConfiguration conf = newConfiguration();
+        conf.setProperty(RocksDBOptions.TABLE_PROFILES.name(),
+                         "[vertex-point_lookup]");
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            RocksDBTableProfile.of(new HugeConfig(conf), "g+v");
+        });
+
+        conf.setProperty(RocksDBOptions.TABLE_PROFILES.name(),
+                         "[vertex:undefined]");
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            RocksDBTableProfile.of(new HugeConfig(conf), "g+v");
+        });
+    }
+
+    @Test
+    public void testApplyProfile() {
+        HugeConfig conf = config(false);
+        try (ColumnFamilyOptions cf = new ColumnFamilyOptions()) {
+            RocksDBTableProfile.POINT_LOOKUP.apply(conf, cf);
+            Assert.assertEquals(ImmutableList.of(), cf.compressionPerLevel());
+        }
+
+        try (ColumnFamilyOptions cf = new ColumnFamilyOptions()) {
+            RocksDBTableProfile.INDEX.apply(conf, cf);
+            int levels = conf.get(RocksDBOptions.NUM_LEVELS);
+            Assert.assertEquals(levels, cf.compressionPerLevel().size());
+            Assert.assertEquals(CompressionType.NO_COMPRESSION,
+                                cf.compressionPerLevel().get(0));
+            Assert.assertEquals(CompressionType.ZSTD_COMPRESSION,
+                                cf.compressionPerLevel().get(levels - 1));
+            Assert.assertEquals(CompactionPriority.MinOverlappingRatio,
+                                cf.compactionPriority());
+        }
+    }
+
+    @Test
+    public void testApplyProfileWithExplicitCompression() {
+        HugeConfig conf = config(true);
+        try (ColumnFamilyOptions cf = new ColumnFamilyOptions()) {
+            RocksDBTableProfile.PREFIX_SCAN.apply(conf, cf);
+            // The compression type set explicitly wins
+            Assert.assertEquals(ImmutableList.of(), cf.compressionPerLevel());
+        }
+
+        try (ColumnFamilyOptions cf = new ColumnFamilyOptions()) {
+            RocksDBTableProfile.INDEX.apply(conf, cf);
+            Assert.assertEquals(ImmutableList.of(), cf.compressionPerLevel());
+            Assert.assertEquals(CompactionPriority.MinOverlappingRatio,
+                                cf.compactionPriority());
+        }
+    }
+
+    private static HugeConfig config(boolean compression) {
+        BaseConfiguration conf = newConfiguration();
+        conf.setProperty(RocksDBOptions.TABLE_PROFILES.name(), PROFILES);
+        if (compression) {
+            conf.setProperty(RocksDBOptions.COMPRESSION_TYPE.name(), "lz4");
+        }
+        return new HugeConfig(conf);
+    }
+
+    private static BaseConfiguration newConfiguration() {
+        BaseConfiguration conf = new BaseConfiguration();
+        // Keep the list values like `[a, b]` as a whole
+        conf.setDelimiterParsingDisabled(true);
+        return conf;
+    }
+}